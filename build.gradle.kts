@@ -4,6 +4,7 @@ plugins {
     pmd
     id("org.springframework.boot") version "4.0.2"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "id.ac.ui.cs.advprog"
@@ -34,6 +35,10 @@ repositories {
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
     implementation("org.springframework.boot:spring-boot-starter-webmvc")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("io.micrometer:micrometer-registry-prometheus")
+    implementation("io.projectreactor:reactor-core")
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
@@ -41,6 +46,7 @@ dependencies {
     testImplementation("org.springframework.boot:spring-boot-starter-thymeleaf-test")
     testImplementation("org.springframework.boot:spring-boot-starter-webmvc-test")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testImplementation("io.projectreactor:reactor-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 
     testImplementation("org.seleniumhq.selenium:selenium-java:$seleniumJavaVersion")
@@ -58,6 +64,7 @@ tasks.register<Test>("unitTest") {
 
     filter {
         excludeTestsMatching("*FunctionalTest")
+        excludeTestsMatching("*LoadTest")
     }
 }
 
@@ -72,6 +79,21 @@ tasks.register<Test>("functionalTest") {
     filter { includeTestsMatching("*FunctionalTest") }
 }
 
+tasks.register<Test>("loadTest") {
+    description = "Compares platform and virtual request threads and measures replication lag under load."
+    group = "verification"
+
+    val testSourceSet = sourceSets.test.get()
+    testClassesDirs = testSourceSet.output.classesDirs
+    classpath = testSourceSet.runtimeClasspath
+
+    filter { includeTestsMatching("*LoadTest") }
+    listOf("load.clients", "load.tomcatThreads", "load.warmupSeconds", "load.seconds", "load.replicationWrites").forEach { key ->
+        providers.gradleProperty(key).orNull?.let { systemProperty(key, it) }
+    }
+    testLogging.showStandardStreams = true
+}
+
 tasks.withType<Test>().configureEach {
     useJUnitPlatform()
 }
@@ -79,6 +101,7 @@ tasks.withType<Test>().configureEach {
 tasks.test {
     filter {
         excludeTestsMatching("*FunctionalTest")
+        excludeTestsMatching("*LoadTest")
     }
     finalizedBy(tasks.jacocoTestReport)
 }
@@ -87,6 +110,13 @@ tasks.jacocoTestReport {
     dependsOn(tasks.test)
 }
 
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON"
+    profilers = listOf("gc")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+}
+
 pmd {
     toolVersion = "7.0.0-rc4"
     isConsoleOutput = true
@@ -0,0 +1,78 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable append throughput per fsync policy. The contended variants show how
+ * group commit amortises one force over every writer waiting on it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+    @Param({"ALWAYS", "INTERVAL", "NEVER"})
+    private FsyncPolicy fsyncPolicy;
+
+    @Param({"64", "512"})
+    private int recordBytes;
+
+    private Path directory;
+    private WriteAheadLog log;
+    private byte[] record;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-benchmark");
+        log = new WriteAheadLog(directory, "bench", fsyncPolicy, Duration.ofMillis(10));
+        record = new byte[recordBytes];
+        ThreadLocalRandom.current().nextBytes(record);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long appendDurable() {
+        long lsn = log.append(record);
+        log.awaitDurable(lsn);
+        return lsn;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long appendDurableContended() {
+        return appendDurable();
+    }
+}
@@ -0,0 +1,67 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests one ERP-sized batch per invocation into a fresh repository, either
+ * one create call per product or a single createAll. Divide the score by
+ * batchSize to compare per-product cost.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class BulkIngestBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int batchSize;
+
+    private List<Product> batch;
+    private ProductRepository repository;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        repository = new ProductRepository();
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Product product = new Product();
+            product.setProductId("erp-" + i);
+            product.setProductName("ERP Product " + i);
+            product.setProductQuantity(i);
+            batch.add(product);
+        }
+    }
+
+    @Benchmark
+    public ProductRepository singleCreates() {
+        for (Product product : batch) {
+            repository.create(product);
+        }
+        return repository;
+    }
+
+    @Benchmark
+    public ProductRepository batchCreate() {
+        repository.createAll(batch);
+        return repository;
+    }
+}
@@ -0,0 +1,111 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CarRepositoryBenchmark {
+    private static final String[] COLORS = {"Red", "Black", "White", "Silver", "Blue"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private final AtomicLong freshIds = new AtomicLong();
+    private CarRepository repository;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        repository = new CarRepository();
+        ids = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            ids[i] = "car-" + i;
+            repository.create(car(ids[i], i));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Car findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Car findByIdContended() {
+        return findById();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Car update() {
+        return repository.update(randomId(), car(null, ThreadLocalRandom.current().nextInt(100)));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Car updateContended() {
+        return update();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Car createThenDelete() {
+        String id = "fresh-" + freshIds.incrementAndGet();
+        Car created = repository.create(car(id, 1));
+        repository.delete(id);
+        return created;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Car createThenDeleteContended() {
+        return createThenDelete();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void findAll(Blackhole blackhole) {
+        repository.findAll().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void findAllContended(Blackhole blackhole) {
+        findAll(blackhole);
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static Car car(String id, int quantity) {
+        Car car = new Car();
+        car.setCarId(id);
+        car.setCarName("Car " + quantity);
+        car.setCarColor(COLORS[quantity % COLORS.length]);
+        car.setCarQuantity(quantity);
+        return car;
+    }
+}
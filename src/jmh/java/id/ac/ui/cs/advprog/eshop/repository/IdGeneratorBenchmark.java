@@ -0,0 +1,104 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random UUIDs versus time-ordered ids. {@code nextId} and {@code create}
+ * show the latency of generating an id alone and inside
+ * {@link ProductRepository#create}; the {@code retainedBytesPerId} counter
+ * of {@code idFootprint} reports the heap one generated id keeps alive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IdGeneratorBenchmark {
+    private static final int FOOTPRINT_IDS = 1_000_000;
+
+    @Param({"random-uuid", "time-ordered"})
+    private String generator;
+
+    private IdGenerator idGenerator;
+    private ProductRepository repository;
+
+    @Setup
+    public void setUp() {
+        idGenerator = generator.equals("random-uuid") ? new RandomUuidIdGenerator() : new TimeOrderedIdGenerator();
+    }
+
+    @Setup(Level.Iteration)
+    public void freshRepository() {
+        repository = new ProductRepository(idGenerator);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPerId;
+        private String[] ids;
+
+        @Setup(Level.Iteration)
+        public void measure(IdGeneratorBenchmark benchmark) {
+            ids = null;
+            long before = usedHeapAfterGc();
+            ids = new String[FOOTPRINT_IDS];
+            for (int i = 0; i < FOOTPRINT_IDS; i++) {
+                ids[i] = benchmark.idGenerator.nextId();
+            }
+            retainedBytesPerId = (usedHeapAfterGc() - before - 16L - 4L * FOOTPRINT_IDS) / FOOTPRINT_IDS;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String nextId() {
+        return idGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String nextIdContended() {
+        return idGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Product create() {
+        Product product = new Product();
+        product.setProductName("Product");
+        product.setProductQuantity(1);
+        return repository.create(product);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int idFootprint(Footprint footprint) {
+        return footprint.ids.length;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
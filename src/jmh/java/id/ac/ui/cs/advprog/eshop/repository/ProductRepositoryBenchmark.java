@@ -0,0 +1,107 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductRepositoryBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private final AtomicLong freshIds = new AtomicLong();
+    private ProductRepository repository;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        repository = new ProductRepository();
+        ids = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            ids[i] = "product-" + i;
+            repository.create(product(ids[i], i));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Product findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Product findByIdContended() {
+        return findById();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean update() {
+        return repository.update(product(randomId(), ThreadLocalRandom.current().nextInt(100)));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean updateContended() {
+        return update();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean createThenDelete() {
+        String id = "fresh-" + freshIds.incrementAndGet();
+        repository.create(product(id, 1));
+        return repository.delete(id);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean createThenDeleteContended() {
+        return createThenDelete();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void findAll(Blackhole blackhole) {
+        repository.findAll().forEachRemaining(blackhole::consume);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void findAllContended(Blackhole blackhole) {
+        findAll(blackhole);
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static Product product(String id, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Product " + quantity);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+}
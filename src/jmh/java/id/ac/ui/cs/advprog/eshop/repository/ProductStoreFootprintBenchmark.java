@@ -0,0 +1,143 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Heap-backed versus off-heap product store. Run with the gc profiler (the
+ * default in build.gradle.kts) to compare allocation rates; the retained
+ * heap of the loaded catalog is reported as the {@code retainedHeapBytes}
+ * counter of the {@code catalogHeap} benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=2g"})
+public class ProductStoreFootprintBenchmark {
+    @Param({"heap", "offheap"})
+    private String store;
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private ProductRepositoryPort repository;
+    private Path directory;
+    private String[] ids;
+    private long heapBeforeLoad;
+
+    @Setup
+    public void setUp() throws IOException {
+        heapBeforeLoad = usedHeapAfterGc();
+        if (store.equals("offheap")) {
+            directory = Files.createTempDirectory("offheap-benchmark");
+            repository = new OffHeapProductRepository(directory, catalogSize);
+        } else {
+            repository = new ProductRepository();
+        }
+        ids = new String[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            ids[i] = "product-" + i;
+            repository.create(product(ids[i], i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (repository instanceof OffHeapProductRepository offHeap) {
+            offHeap.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedHeapBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(ProductStoreFootprintBenchmark benchmark) {
+            retainedHeapBytes = usedHeapAfterGc() - benchmark.heapBeforeLoad;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int catalogHeap(Footprint footprint) {
+        return ids.length;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Product findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Product findByIdContended() {
+        return findById();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean update() {
+        return repository.update(product(randomId(), ThreadLocalRandom.current().nextInt(100)));
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void scanAll(Blackhole blackhole) {
+        repository.findAll().forEachRemaining(product -> blackhole.consume(product.getProductQuantity()));
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static Product product(String id, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Product " + quantity);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+}
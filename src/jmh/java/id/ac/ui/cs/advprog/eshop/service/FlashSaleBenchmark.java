@@ -0,0 +1,93 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every thread reserving the same product. {@code singleCas*} is the plain
+ * compare-and-set loop on one counter that the striped {@link StockCounter}
+ * replaces; compare the contended variants to see how each scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FlashSaleBenchmark {
+    private static final long STOCK = Long.MAX_VALUE / 4;
+    private static final String PRODUCT_ID = "hot-product";
+
+    private StockCounter striped;
+    private AtomicLong single;
+    private ProductStockLedger ledger;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        striped = new StockCounter(STOCK, 1);
+        single = new AtomicLong(STOCK);
+        ProductRepository repository = new ProductRepository();
+        ledger = new ProductStockLedger(repository);
+        Product product = new Product();
+        product.setProductId(PRODUCT_ID);
+        product.setProductName("Flash sale item");
+        product.setProductQuantity(Integer.MAX_VALUE);
+        repository.create(product);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean stripedTake() {
+        return striped.tryTake(1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean stripedTakeContended() {
+        return striped.tryTake(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean singleCasTake() {
+        return takeFromSingle(1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean singleCasTakeContended() {
+        return takeFromSingle(1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean ledgerReserveAndReleaseContended() {
+        Reservation reservation = ledger.reserve(PRODUCT_ID, 1);
+        return reservation != null && ledger.release(reservation.getReservationId());
+    }
+
+    private boolean takeFromSingle(int units) {
+        for (long value = single.get(); value >= units; value = single.get()) {
+            if (single.compareAndSet(value, value - units)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the service and repository meters on the hot paths. Compare the
+ * {@code none} runs, where the global registry has no backing registry, with
+ * the {@code prometheus} runs, which is how the application publishes them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MetricsOverheadBenchmark {
+    private static final int CATALOG_SIZE = 100_000;
+
+    @Param({"none", "prometheus"})
+    private String registry;
+
+    private PrometheusMeterRegistry prometheusRegistry;
+    private ProductServiceImpl productService;
+    private String[] ids;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        if (registry.equals("prometheus")) {
+            prometheusRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            Metrics.addRegistry(prometheusRegistry);
+        }
+        ProductRepository productRepository = new ProductRepository();
+        ids = new String[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            ids[i] = "product-" + i;
+            Product product = new Product();
+            product.setProductId(ids[i]);
+            product.setProductName("Product " + i);
+            product.setProductQuantity(i);
+            productRepository.create(product);
+        }
+        productService = new ProductServiceImpl();
+        Field field = ProductServiceImpl.class.getDeclaredField("productRepository");
+        field.setAccessible(true);
+        field.set(productService, productRepository);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (prometheusRegistry != null) {
+            Metrics.removeRegistry(prometheusRegistry);
+            prometheusRegistry.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Product findById() {
+        return productService.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Product findByIdContended() {
+        return findById();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Page<Product> findPage() {
+        return productService.findPage(null, 50);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Page<Product> findPageContended() {
+        return findPage();
+    }
+}
@@ -0,0 +1,101 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.SearchHit;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over a catalog of names drawn from a brand, an adjective,
+ * a color and a noun, so every word is shared by thousands of products like
+ * in a real catalog. {@code query} covers an exact word, one and two typos,
+ * a prefix and several words; {@code rename} is the cost a name change adds
+ * to a write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ProductSearchBenchmark {
+    private static final int BATCH = 100_000;
+    private static final String[] BRANDS = {"acme", "globex", "initech", "umbrella", "hooli", "vandelay",
+            "soylent", "wonka", "stark", "wayne", "tyrell", "cyberdyne", "aperture", "oscorp", "gringotts"};
+    private static final String[] ADJECTIVES = {"classic", "premium", "organic", "wireless", "portable",
+            "vintage", "compact", "deluxe", "ergonomic", "stainless", "handmade", "waterproof", "lightweight"};
+    private static final String[] COLORS = {"black", "white", "silver", "crimson", "navy", "olive",
+            "charcoal", "ivory", "teal", "amber"};
+    private static final String[] NOUNS = {"coffee", "teapot", "headphones", "backpack", "keyboard",
+            "blender", "lantern", "notebook", "umbrella", "sneakers", "toaster", "kettle", "speaker", "monitor",
+            "jacket", "wallet", "bottle", "charger", "camera", "blanket"};
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        productRepository = new ProductRepository();
+        index = new ProductSearchIndex(productRepository);
+        SplittableRandom random = new SplittableRandom(42);
+        List<Product> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < catalogSize; i++) {
+            batch.add(product("product-" + i, randomName(random) + " " + (i % 5_000)));
+            if (batch.size() == BATCH) {
+                productRepository.createAll(batch);
+                batch.clear();
+            }
+        }
+        productRepository.createAll(batch);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+        @Param({"kettle", "ketle", "ketlte", "stainl", "premium navy kettle", "premum nvy ketle"})
+        private String text;
+    }
+
+    @Benchmark
+    public List<SearchHit<Product>> search(Query query) {
+        return index.search(query.text, 20);
+    }
+
+    @Benchmark
+    public boolean rename() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = "product-" + random.nextInt(catalogSize);
+        return productRepository.update(product(id, randomName(new SplittableRandom(random.nextLong()))));
+    }
+
+    private static String randomName(SplittableRandom random) {
+        return BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + COLORS[random.nextInt(COLORS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+    }
+
+    private static Product product(String id, String name) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(1);
+        return product;
+    }
+}
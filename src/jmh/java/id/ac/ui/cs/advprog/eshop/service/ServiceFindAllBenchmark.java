@@ -0,0 +1,90 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepository;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceFindAllBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private ProductServiceImpl productService;
+    private CarServiceImpl carService;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        ProductRepository productRepository = new ProductRepository();
+        CarRepository carRepository = new CarRepository();
+        for (int i = 0; i < catalogSize; i++) {
+            Product product = new Product();
+            product.setProductId("product-" + i);
+            product.setProductName("Product " + i);
+            product.setProductQuantity(i);
+            productRepository.create(product);
+
+            Car car = new Car();
+            car.setCarId("car-" + i);
+            car.setCarName("Car " + i);
+            car.setCarColor("Red");
+            car.setCarQuantity(i);
+            carRepository.create(car);
+        }
+        productService = new ProductServiceImpl();
+        inject(productService, "productRepository", productRepository);
+        carService = new CarServiceImpl();
+        inject(carService, "carRepository", carRepository);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Product> productFindAll() {
+        return productService.findAll();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Product> productFindAllContended() {
+        return productService.findAll();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Car> carFindAll() {
+        return carService.findAll();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Car> carFindAllContended() {
+        return carService.findAll();
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,82 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One stock report over the whole catalog, run inside a fork-join pool of
+ * {@code parallelism} workers; a parallel stream started from a pool worker
+ * splits within that pool. Compare the scores across {@code parallelism} for
+ * the speedup per added core; it levels off once the scan is bound by
+ * memory bandwidth rather than by the workers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class StockReportBenchmark {
+    private static final int BATCH = 100_000;
+
+    @Param({"10000000"})
+    private int catalogSize;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int parallelism;
+
+    private ProductServiceImpl productService;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        ProductRepository productRepository = new ProductRepository();
+        List<Product> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < catalogSize; i++) {
+            Product product = new Product();
+            product.setProductId("product-" + i);
+            product.setProductName("Product " + (i % 1_000));
+            product.setProductQuantity(i % 50_000);
+            batch.add(product);
+            if (batch.size() == BATCH) {
+                productRepository.createAll(batch);
+                batch.clear();
+            }
+        }
+        productRepository.createAll(batch);
+        productService = new ProductServiceImpl();
+        Field field = ProductServiceImpl.class.getDeclaredField("productRepository");
+        field.setAccessible(true);
+        field.set(productService, productRepository);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public StockReport<Product> parallelStockReport() {
+        return pool.submit(() -> productService.stockReport(10, 100)).join();
+    }
+}
@@ -0,0 +1,84 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.service.CarService;
+import id.ac.ui.cs.advprog.eshop.service.ProductService;
+import id.ac.ui.cs.advprog.eshop.transfer.CatalogExport;
+import id.ac.ui.cs.advprog.eshop.transfer.CatalogFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full catalog downloads as {@code ?format=csv} or {@code ?format=ndjson}.
+ * The body is written from the repository iterator on an async thread with
+ * no content length, so it goes out chunked as it is produced, gzipped for
+ * clients that accept it.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class CatalogExportController {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CarService carService;
+
+    @GetMapping("/product")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("products", CatalogExport.PRODUCTS, productService.iterateAll(),
+                CatalogFormat.parse(format), acceptEncoding);
+    }
+
+    @GetMapping("/car")
+    public ResponseEntity<StreamingResponseBody> exportCars(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export("cars", CatalogExport.CARS, carService.iterateAll(),
+                CatalogFormat.parse(format), acceptEncoding);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> rejectUnknownFormat(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static <T> ResponseEntity<StreamingResponseBody> export(String name, CatalogExport<T> exporter,
+                                                                    Iterator<T> rows, CatalogFormat format,
+                                                                    String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, CatalogExport.BUFFER_SIZE);
+                exporter.write(rows, format, compressed);
+                compressed.finish();
+            } else {
+                exporter.write(rows, format, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.extension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,64 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.ImportReport;
+import id.ac.ui.cs.advprog.eshop.repository.IdGenerator;
+import id.ac.ui.cs.advprog.eshop.service.CarService;
+import id.ac.ui.cs.advprog.eshop.service.ProductService;
+import id.ac.ui.cs.advprog.eshop.transfer.CatalogFormat;
+import id.ac.ui.cs.advprog.eshop.transfer.CatalogImport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Catalog uploads of any size, in the formats {@link CatalogExportController}
+ * downloads. The body is read as it arrives rather than buffered, and bad
+ * rows come back in the report instead of failing the whole upload. The
+ * format is taken from {@code ?format=}, else from the content type.
+ */
+@RestController
+@RequestMapping("/api/import")
+public class CatalogImportController {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @PostMapping("/product")
+    public ImportReport importProducts(InputStream body,
+                                       @RequestParam(required = false) String format,
+                                       @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType)
+            throws IOException {
+        return CatalogImport.PRODUCTS.run(body, formatOf(format, contentType), idGenerator, productService::createAll);
+    }
+
+    @PostMapping("/car")
+    public ImportReport importCars(InputStream body,
+                                   @RequestParam(required = false) String format,
+                                   @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType)
+            throws IOException {
+        return CatalogImport.CARS.run(body, formatOf(format, contentType), idGenerator, carService::createAll);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> rejectUnknownFormat(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static CatalogFormat formatOf(String format, String contentType) {
+        return format != null ? CatalogFormat.parse(format) : CatalogFormat.ofContentType(contentType);
+    }
+}
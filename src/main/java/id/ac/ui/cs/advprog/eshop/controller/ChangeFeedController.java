@@ -0,0 +1,144 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.ChangeEvent;
+import id.ac.ui.cs.advprog.eshop.repository.ChangeFeed;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change feeds of the product and car repositories, so downstream systems
+ * can follow writes instead of polling the list pages. {@code GET
+ * /api/changes/product?from=N} is a long poll: it answers as soon as there
+ * are events at or after sequence {@code N}, or empty once {@code wait}
+ * seconds pass. {@code /stream} sends the same events as Server-Sent Events,
+ * with the sequence number as the event id so a reconnecting client resumes
+ * through {@code Last-Event-ID}.
+ *
+ * <p>Waiting clients hold no thread; they are woken by the feed. A client
+ * reading slower than the catalog changes only falls behind in the ring, and
+ * is sent {@code truncated} once events it had not read were overwritten.
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+    static final String DEFAULT_LIMIT = "500";
+    static final String DEFAULT_WAIT_SECONDS = "30";
+    private static final int MAX_LIMIT = 10_000;
+    private static final long MAX_WAIT_SECONDS = 120;
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    @Autowired
+    private ProductRepositoryPort productRepository;
+
+    @Autowired
+    private CarRepositoryPort carRepository;
+
+    @GetMapping("/product")
+    public Mono<ChangeFeed.Slice<Product>> pollProductChanges(@RequestParam(defaultValue = "0") long from,
+                                                              @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                              @RequestParam(defaultValue = DEFAULT_WAIT_SECONDS) long wait) {
+        return poll(productRepository.changes(), from, limit, waitFor(wait));
+    }
+
+    @GetMapping(value = "/product/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamProductChanges(@RequestParam(required = false) Long from,
+                                                              @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                                              @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        return stream(productRepository.changes(), from, lastEventId, limit);
+    }
+
+    @GetMapping("/car")
+    public Mono<ChangeFeed.Slice<Car>> pollCarChanges(@RequestParam(defaultValue = "0") long from,
+                                                      @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                      @RequestParam(defaultValue = DEFAULT_WAIT_SECONDS) long wait) {
+        return poll(carRepository.changes(), from, limit, waitFor(wait));
+    }
+
+    @GetMapping(value = "/car/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamCarChanges(@RequestParam(required = false) Long from,
+                                                          @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                                          @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        return stream(carRepository.changes(), from, lastEventId, limit);
+    }
+
+    /**
+     * Takes the wake-up future before reading, so a change between the read
+     * and the wait still wakes the poll. Wake-ups that bring nothing new for
+     * this reader just wait again until the deadline.
+     */
+    static <T> Mono<ChangeFeed.Slice<T>> poll(ChangeFeed<T> feed, long from, int limit, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return Mono.defer(() -> pollUntil(feed, from, boundedLimit, deadline));
+    }
+
+    private static <T> Mono<ChangeFeed.Slice<T>> pollUntil(ChangeFeed<T> feed, long from, int limit, long deadline) {
+        CompletableFuture<Void> changed = feed.nextChange();
+        ChangeFeed.Slice<T> slice = feed.read(from, limit);
+        long remaining = deadline - System.nanoTime();
+        if (!slice.events().isEmpty() || slice.truncated() || remaining <= 0) {
+            return Mono.just(slice);
+        }
+        return Mono.fromFuture(changed.copy())
+                .publishOn(Schedulers.boundedElastic())
+                .timeout(Duration.ofNanos(remaining), Mono.empty())
+                .then(Mono.defer(() -> pollUntil(feed, from, limit, deadline)));
+    }
+
+    private static <T> Flux<ServerSentEvent<Object>> stream(ChangeFeed<T> feed, Long from, Long lastEventId,
+                                                            int limit) {
+        long start = lastEventId != null ? lastEventId + 1 : from != null ? from : feed.nextSequence();
+        AtomicLong cursor = new AtomicLong(start);
+        return Mono.defer(() -> poll(feed, cursor.get(), limit, HEARTBEAT))
+                .doOnNext(slice -> cursor.set(slice.nextSequence()))
+                .repeat()
+                .concatMap(ChangeFeedController::toServerSentEvents, 1);
+    }
+
+    private static <T> Flux<ServerSentEvent<Object>> toServerSentEvents(ChangeFeed.Slice<T> slice) {
+        if (slice.events().isEmpty() && !slice.truncated()) {
+            return Flux.just(ServerSentEvent.builder().comment("keep-alive").build());
+        }
+        Flux<ServerSentEvent<Object>> events = Flux.fromIterable(slice.events())
+                .map(ChangeFeedController::toServerSentEvent);
+        if (!slice.truncated()) {
+            return events;
+        }
+        long resumedAt = slice.events().isEmpty() ? slice.nextSequence() : slice.events().get(0).sequence();
+        return Flux.concat(Flux.just(ServerSentEvent.builder()
+                .event("truncated")
+                .data((Object) Map.of("resumedAt", resumedAt))
+                .build()), events);
+    }
+
+    private static <T> ServerSentEvent<Object> toServerSentEvent(ChangeEvent<T> event) {
+        return ServerSentEvent.builder()
+                .id(Long.toString(event.sequence()))
+                .event(event.type().name().toLowerCase(Locale.ROOT))
+                .data((Object) event)
+                .build();
+    }
+
+    private static Duration waitFor(long seconds) {
+        return Duration.ofSeconds(Math.max(0, Math.min(seconds, MAX_WAIT_SECONDS)));
+    }
+}
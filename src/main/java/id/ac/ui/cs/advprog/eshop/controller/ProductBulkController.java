@@ -0,0 +1,90 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.BulkResult;
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.service.CarService;
+import id.ac.ui.cs.advprog.eshop.service.ProductService;
+import id.ac.ui.cs.advprog.eshop.transfer.CatalogCsv;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/product/bulk")
+public class ProductBulkController {
+    static final String TEXT_CSV = "text/csv";
+
+    @Autowired
+    private ProductService service;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<Product> createProducts(@RequestBody List<Product> products) {
+        return service.createAll(products);
+    }
+
+    @PostMapping(consumes = TEXT_CSV)
+    public List<Product> createProductsFromCsv(@RequestBody String csv) {
+        return service.createAll(CatalogCsv.readProducts(csv));
+    }
+
+    @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkResult updateProducts(@RequestBody List<Product> products) {
+        return new BulkResult(products.size(), service.updateAll(products));
+    }
+
+    @PutMapping(consumes = TEXT_CSV)
+    public BulkResult updateProductsFromCsv(@RequestBody String csv) {
+        return updateProducts(CatalogCsv.readProducts(csv));
+    }
+
+    @DeleteMapping
+    public BulkResult deleteProducts(@RequestBody List<String> ids) {
+        return new BulkResult(ids.size(), service.deleteAll(ids));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> rejectMalformedRows(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
+
+@RestController
+@RequestMapping("/car/bulk")
+class CarBulkController {
+    @Autowired
+    private CarService carservice;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<Car> createCars(@RequestBody List<Car> cars) {
+        return carservice.createAll(cars);
+    }
+
+    @PostMapping(consumes = ProductBulkController.TEXT_CSV)
+    public List<Car> createCarsFromCsv(@RequestBody String csv) {
+        return carservice.createAll(CatalogCsv.readCars(csv));
+    }
+
+    @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkResult updateCars(@RequestBody List<Car> cars) {
+        return new BulkResult(cars.size(), carservice.updateAll(cars));
+    }
+
+    @PutMapping(consumes = ProductBulkController.TEXT_CSV)
+    public BulkResult updateCarsFromCsv(@RequestBody String csv) {
+        return updateCars(CatalogCsv.readCars(csv));
+    }
+
+    @DeleteMapping
+    public BulkResult deleteCars(@RequestBody List<String> ids) {
+        return new BulkResult(ids.size(), carservice.deleteAll(ids));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> rejectMalformedRows(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -1,24 +1,42 @@
 package id.ac.ui.cs.advprog.eshop.controller;
 
 import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
 import id.ac.ui.cs.advprog.eshop.service.CarService;
 import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.ModificationTracker;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.VersionConflictException;
 import id.ac.ui.cs.advprog.eshop.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.ModelAndView;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/product")
 public class ProductController {
     private static final String REDIRECT_PRODUCT_LIST = "redirect:/product/list";
+    static final String DEFAULT_PAGE_SIZE = "50";
 
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductRepositoryPort productRepository;
+
+    @Autowired(required = false)
+    private RenderedPageCache<Product> productPages;
+
     @GetMapping("/create")
     public String createProductPage(Model model) {
         Product product = new Product();
@@ -27,15 +45,48 @@ public class ProductController {
     }
 
     @PostMapping("/create")
-    public String createProductPost(@ModelAttribute Product product) {
-        service.create(product);
+    public String createProductPost(@ModelAttribute Product product, Model model) {
+        try {
+            service.create(product);
+        } catch (VersionConflictException conflict) {
+            model.addAttribute("conflict", true);
+            return "createProduct";
+        }
         return REDIRECT_PRODUCT_LIST;
     }
 
     @GetMapping("/list")
-    public String productListPage(Model model) {
-        List<Product> allProducts = service.findAll();
-        model.addAttribute("products", allProducts);
+    public ModelAndView productListPage(@RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size,
+                                        @RequestParam(required = false) String name,
+                                        ServletWebRequest request) throws Exception {
+        if (isCatalogUnchanged(request, productRepository.modifications())) {
+            return null;
+        }
+        if (productPages == null) {
+            RenderedPageCache.Listing<Product> listing = productListing(cursor, size, name);
+            return new ModelAndView(listing.viewName(), listing.model());
+        }
+        return new ModelAndView(productPages.get(new RenderedPageCache.Key(cursor, size, name), request,
+                () -> productListing(cursor, size, name)));
+    }
+
+    private RenderedPageCache.Listing<Product> productListing(String cursor, int size, String name) {
+        if (name != null && !name.isBlank()) {
+            List<Product> products = service.searchByName(name, size);
+            return new RenderedPageCache.Listing<>("productList",
+                    Map.of("products", products, "name", name), products, false);
+        }
+        Page<Product> page = service.findPage(cursor, size);
+        Map<String, Object> model = new HashMap<>();
+        model.put("products", page.getItems());
+        model.put("nextCursor", page.getNextCursor());
+        return new RenderedPageCache.Listing<>("productList", model, page.getItems(), page.getNextCursor() == null);
+    }
+
+    @GetMapping("/list/stream")
+    public String productListStreamPage(Model model) {
+        model.addAttribute("products", service.iterateAll());
         return "productList";
     }
 
@@ -46,20 +97,59 @@ public class ProductController {
     }
 
     @GetMapping("/edit/{id}")
-    public String editProductPage(@PathVariable String id, Model model) {
+    public String editProductPage(@PathVariable String id, ServletWebRequest request, Model model) {
         Product product = service.findById(id);
         if (product == null) {
             return REDIRECT_PRODUCT_LIST;
         }
+        if (isEntityUnchanged(request, productRepository.modifications().entityTag(product.getProductId(),
+                product.getGeneration(), product.getVersion()))) {
+            return null;
+        }
         model.addAttribute("product", product);
         return "editProduct";
     }
 
     @PostMapping("/edit")
-    public String editProductPost(@ModelAttribute Product product) {
-        service.update(product);
+    public String editProductPost(@ModelAttribute Product product, Model model) {
+        try {
+            service.update(product);
+        } catch (VersionConflictException conflict) {
+            Product current = service.findById(product.getProductId());
+            if (current == null) {
+                return REDIRECT_PRODUCT_LIST;
+            }
+            model.addAttribute("product", current);
+            model.addAttribute("conflict", true);
+            return "editProduct";
+        }
         return REDIRECT_PRODUCT_LIST;
     }
+
+    /**
+     * Answers 304 when the client already holds the page for the current
+     * state of the repository. The tag is read before any data, see
+     * {@link ModificationTracker}.
+     */
+    static boolean isCatalogUnchanged(ServletWebRequest request, ModificationTracker modifications) {
+        long lastModified = modifications.lastModified();
+        return revalidate(request).checkNotModified(quote(modifications.catalogTag()), lastModified);
+    }
+
+    static boolean isEntityUnchanged(ServletWebRequest request, String entityTag) {
+        return revalidate(request).checkNotModified(quote(entityTag));
+    }
+
+    private static ServletWebRequest revalidate(ServletWebRequest request) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request;
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
 }
 
 @Controller
@@ -68,6 +158,12 @@ class CarController {
     @Autowired
     private CarService carservice;
 
+    @Autowired
+    private CarRepositoryPort carRepository;
+
+    @Autowired(required = false)
+    private RenderedPageCache<Car> carPages;
+
     @GetMapping("/createCar")
     public String createCarPage(Model model) {
         Car car = new Car();
@@ -77,27 +173,73 @@ class CarController {
 
     @PostMapping("/createCar")
     public String createCarPost(@ModelAttribute Car car, Model model) {
-        carservice.create(car);
+        try {
+            carservice.create(car);
+        } catch (VersionConflictException conflict) {
+            model.addAttribute("conflict", true);
+            return "CreateCar";
+        }
         return "redirect:listCar";
     }
 
     @GetMapping("/listCar")
-    public String carListPage(Model model) {
-        List<Car> allCars = carservice.findAll();
-        model.addAttribute("cars", allCars);
+    public ModelAndView carListPage(@RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = ProductController.DEFAULT_PAGE_SIZE) int size,
+                                    @RequestParam(required = false) String color,
+                                    ServletWebRequest request) throws Exception {
+        if (ProductController.isCatalogUnchanged(request, carRepository.modifications())) {
+            return null;
+        }
+        if (carPages == null) {
+            RenderedPageCache.Listing<Car> listing = carListing(cursor, size, color);
+            return new ModelAndView(listing.viewName(), listing.model());
+        }
+        return new ModelAndView(carPages.get(new RenderedPageCache.Key(cursor, size, color), request,
+                () -> carListing(cursor, size, color)));
+    }
+
+    private RenderedPageCache.Listing<Car> carListing(String cursor, int size, String color) {
+        if (color != null && !color.isBlank()) {
+            List<Car> cars = carservice.searchByColor(color, size);
+            return new RenderedPageCache.Listing<>("CarList", Map.of("cars", cars, "color", color), cars, false);
+        }
+        Page<Car> page = carservice.findPage(cursor, size);
+        Map<String, Object> model = new HashMap<>();
+        model.put("cars", page.getItems());
+        model.put("nextCursor", page.getNextCursor());
+        return new RenderedPageCache.Listing<>("CarList", model, page.getItems(), page.getNextCursor() == null);
+    }
+
+    @GetMapping("/listCar/stream")
+    public String carListStreamPage(Model model) {
+        model.addAttribute("cars", carservice.iterateAll());
         return "CarList";
     }
 
     @GetMapping("/editCar/{carId}")
-    public String editCarPage(@PathVariable String carId, Model model) {
+    public String editCarPage(@PathVariable String carId, ServletWebRequest request, Model model) {
         Car car = carservice.findById(carId);
+        if (car != null && ProductController.isEntityUnchanged(request,
+                carRepository.modifications().entityTag(car.getCarId(), car.getGeneration(), car.getVersion()))) {
+            return null;
+        }
         model.addAttribute("car", car);
         return "EditCar";
     }
 
     @PostMapping("editCar")
     public String editCarPost(@ModelAttribute Car car, Model model) {
-        carservice.update(car);
+        try {
+            carservice.update(car);
+        } catch (VersionConflictException conflict) {
+            Car current = carservice.findById(car.getCarId());
+            if (current == null) {
+                return "redirect:listCar";
+            }
+            model.addAttribute("car", current);
+            model.addAttribute("conflict", true);
+            return "EditCar";
+        }
         return "redirect:listCar";
     }
 
@@ -0,0 +1,33 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.SearchHit;
+import id.ac.ui.cs.advprog.eshop.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Product search by name words, e.g. {@code /product/search?q=blak cofee}.
+ * Unlike the {@code name} filter of the list page it matches words anywhere
+ * in the name, tolerates typos and ranks the results.
+ */
+@RestController
+@RequestMapping("/product/search")
+public class ProductSearchController {
+    static final String DEFAULT_LIMIT = "20";
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private ProductService service;
+
+    @GetMapping
+    public List<SearchHit<Product>> search(@RequestParam("q") String query,
+                                           @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        return service.search(query, Math.max(0, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,133 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.VersionConflictException;
+import id.ac.ui.cs.advprog.eshop.service.ReactiveCarService;
+import id.ac.ui.cs.advprog.eshop.service.ReactiveProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON counterpart of {@link ProductController}. Lists are written as
+ * newline-delimited JSON while the store is being walked, one element per
+ * demand signal, so a slow client holds back the iteration instead of the
+ * whole catalog being buffered first.
+ */
+@RestController
+@RequestMapping("/api/product")
+public class ReactiveProductController {
+    @Autowired
+    private ReactiveProductService service;
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Product> listProducts() {
+        return service.findAll();
+    }
+
+    @GetMapping("/page")
+    public Mono<Page<Product>> productPage(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = ProductController.DEFAULT_PAGE_SIZE) int size) {
+        return service.findPage(cursor, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Product> searchProducts(@RequestParam String name,
+                                        @RequestParam(defaultValue = ProductController.DEFAULT_PAGE_SIZE) int size) {
+        return service.searchByName(name, size);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> findProduct(@PathVariable String id) {
+        return service.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Product>> createProduct(@RequestBody Product product) {
+        return service.create(product)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorResume(VersionConflictException.class,
+                        conflict -> Mono.just(ReactiveProductController.<Product>conflict()));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Void>> updateProduct(@PathVariable String id, @RequestBody Product product) {
+        product.setProductId(id);
+        return service.update(product)
+                .map(ReactiveProductController::noContentOrNotFound)
+                .onErrorResume(VersionConflictException.class, conflict -> Mono.just(ReactiveProductController.conflict()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable String id) {
+        return service.delete(id).map(ReactiveProductController::noContentOrNotFound);
+    }
+
+    static ResponseEntity<Void> noContentOrNotFound(boolean found) {
+        return found ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    static <T> ResponseEntity<T> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
+
+@RestController
+@RequestMapping("/api/car")
+class ReactiveCarController {
+    @Autowired
+    private ReactiveCarService carservice;
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Car> listCars() {
+        return carservice.findAll();
+    }
+
+    @GetMapping("/page")
+    public Mono<Page<Car>> carPage(@RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = ProductController.DEFAULT_PAGE_SIZE) int size) {
+        return carservice.findPage(cursor, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Car> searchCars(@RequestParam String color,
+                                @RequestParam(defaultValue = ProductController.DEFAULT_PAGE_SIZE) int size) {
+        return carservice.searchByColor(color, size);
+    }
+
+    @GetMapping("/{carId}")
+    public Mono<ResponseEntity<Car>> findCar(@PathVariable String carId) {
+        return carservice.findById(carId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Car>> createCar(@RequestBody Car car) {
+        return carservice.create(car)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorResume(VersionConflictException.class,
+                        conflict -> Mono.just(ReactiveProductController.<Car>conflict()));
+    }
+
+    @PutMapping("/{carId}")
+    public Mono<ResponseEntity<Void>> updateCar(@PathVariable String carId, @RequestBody Car car) {
+        car.setCarId(carId);
+        return carservice.update(car)
+                .map(ReactiveProductController::noContentOrNotFound)
+                .onErrorResume(VersionConflictException.class, conflict -> Mono.just(ReactiveProductController.conflict()));
+    }
+
+    @DeleteMapping("/{carId}")
+    public Mono<ResponseEntity<Void>> deleteCar(@PathVariable String carId) {
+        return carservice.delete(carId).map(ReactiveProductController::noContentOrNotFound);
+    }
+}
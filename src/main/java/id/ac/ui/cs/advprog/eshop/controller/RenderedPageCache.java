@@ -0,0 +1,239 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import id.ac.ui.cs.advprog.eshop.repository.RepositoryListener;
+import id.ac.ui.cs.advprog.eshop.service.ServiceCacheProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped output of rendered list pages, keyed by cursor, page size and
+ * filter. A hit is written to the client as a byte copy, without touching
+ * the service layer or the template engine. Concurrent misses for one key
+ * share a single render.
+ *
+ * <p>Registered as a repository listener, it drops only the pages a change
+ * can affect: pages showing the changed id, the open-ended last page when
+ * an entity is created, and filtered pages the new value matches. When the
+ * store does not append creates to the end of its page order, every
+ * unfiltered page counts as open-ended, since a create can shift any of
+ * them. A render that overlaps any change is served but not kept, since it
+ * may have read the data before the change.
+ */
+final class RenderedPageCache<T> implements RepositoryListener<T> {
+    record Key(String cursor, int size, String filter) {
+        Key {
+            cursor = cursor == null || cursor.isBlank() ? null : cursor;
+            filter = filter == null || filter.isBlank() ? null : filter;
+        }
+    }
+
+    /**
+     * What a controller renders on a miss: the view and its model, the items
+     * shown and whether later creates can extend the page.
+     */
+    record Listing<T>(String viewName, Map<String, Object> model, List<T> items, boolean openEnded) { }
+
+    private record Entry(RenderedPage page, Set<String> ids) { }
+
+    private final Cache<Key, Entry> pages;
+    private final ViewResolver viewResolver;
+    private final Function<T, String> idOf;
+    private final BiPredicate<String, T> matchesFilter;
+    private final boolean createsAppend;
+    private final ConcurrentMap<Key, CompletableFuture<RenderedPage>> rendering = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Key>> keysById = new ConcurrentHashMap<>();
+    private final Set<Key> openEndedKeys = ConcurrentHashMap.newKeySet();
+    private final Set<Key> filteredKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changes = new AtomicLong();
+
+    RenderedPageCache(ServiceCacheProperties.Spec spec, ViewResolver viewResolver, Function<T, String> idOf,
+                      BiPredicate<String, T> matchesFilter, boolean createsAppend) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .executor(Runnable::run)
+                .recordStats();
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        this.pages = builder.<Key, Entry>removalListener(this::forget).build();
+        this.viewResolver = viewResolver;
+        this.idOf = idOf;
+        this.matchesFilter = matchesFilter;
+        this.createsAppend = createsAppend;
+    }
+
+    View get(Key key, ServletWebRequest request, Supplier<Listing<T>> loader) throws Exception {
+        Entry cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached.page();
+        }
+        CompletableFuture<RenderedPage> mine = new CompletableFuture<>();
+        CompletableFuture<RenderedPage> inFlight = rendering.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        try {
+            long changesBefore = changes.get();
+            Listing<T> listing = loader.get();
+            RenderedPage page = render(listing, request);
+            if (changes.get() == changesBefore) {
+                remember(key, listing, page);
+                if (changes.get() != changesBefore) {
+                    pages.invalidate(key);
+                }
+            }
+            mine.complete(page);
+            return page;
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key, mine);
+        }
+    }
+
+    @Override
+    public void onChange(T previous, T current) {
+        changes.incrementAndGet();
+        Set<Key> showingId = keysById.get(idOf.apply(previous != null ? previous : current));
+        if (showingId != null) {
+            pages.invalidateAll(Set.copyOf(showingId));
+        }
+        if (previous == null) {
+            pages.invalidateAll(Set.copyOf(openEndedKeys));
+        }
+        if (current != null) {
+            for (Key key : filteredKeys) {
+                if (matchesFilter.test(key.filter(), current)) {
+                    pages.invalidate(key);
+                }
+            }
+        }
+    }
+
+    Cache<Key, ?> pages() {
+        return pages;
+    }
+
+    private void forget(Key key, Entry entry, RemovalCause cause) {
+        if (key == null || entry == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        openEndedKeys.remove(key);
+        filteredKeys.remove(key);
+        for (String id : entry.ids()) {
+            keysById.computeIfPresent(id, (ignored, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Stores the page before indexing it, so a change racing with this call
+     * is caught either by the index scan in {@link #onChange} or by the
+     * caller's second look at the change counter.
+     */
+    private void remember(Key key, Listing<T> listing, RenderedPage page) {
+        Set<String> ids = listing.items().stream().map(idOf).collect(Collectors.toUnmodifiableSet());
+        pages.put(key, new Entry(page, ids));
+        for (String id : ids) {
+            keysById.computeIfAbsent(id, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        if (key.filter() != null) {
+            filteredKeys.add(key);
+        } else if (listing.openEnded() || !createsAppend) {
+            openEndedKeys.add(key);
+        }
+    }
+
+    private RenderedPage render(Listing<T> listing, ServletWebRequest request) throws Exception {
+        View view = viewResolver.resolveViewName(listing.viewName(), request.getLocale());
+        if (view == null) {
+            throw new IllegalStateException("No view named " + listing.viewName());
+        }
+        ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(request.getResponse());
+        view.render(listing.model(), request.getRequest(), capture);
+        return new RenderedPage(gzip(capture.getContentAsByteArray()), capture.getContentType());
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * A rendered page as a view. Clients that accept gzip get the stored
+     * bytes as they are; others get them inflated on the way out.
+     */
+    static final class RenderedPage implements View {
+        private final byte[] gzipped;
+        private final String contentType;
+
+        RenderedPage(byte[] gzipped, String contentType) {
+            this.gzipped = gzipped;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+                throws IOException {
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                response.setContentLength(gzipped.length);
+                response.getOutputStream().write(gzipped);
+            } else {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+                    in.transferTo(response.getOutputStream());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.service.ServiceCacheProperties;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.Locale;
+
+/**
+ * Rendered list page caches for products and cars, kept current by
+ * listening to the repositories. Disabled together with the service caches
+ * by {@code eshop.cache.enabled=false}, in which case the list pages are
+ * rendered by the view resolver on every request.
+ */
+@Configuration
+@EnableConfigurationProperties(ServiceCacheProperties.class)
+@ConditionalOnProperty(prefix = "eshop.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RenderedPageCacheConfiguration {
+
+    @Bean
+    RenderedPageCache<Product> productPageCache(ProductRepositoryPort productRepository,
+                                                ServiceCacheProperties properties,
+                                                @Qualifier("thymeleafViewResolver") ViewResolver viewResolver) {
+        RenderedPageCache<Product> cache = new RenderedPageCache<>(properties.getPages(), viewResolver,
+                Product::getProductId,
+                (prefix, product) -> product.getProductName() != null
+                        && normalize(product.getProductName()).startsWith(normalize(prefix)),
+                productRepository.createsAppendToPages());
+        productRepository.addListener(cache);
+        return cache;
+    }
+
+    @Bean
+    RenderedPageCache<Car> carPageCache(CarRepositoryPort carRepository,
+                                        ServiceCacheProperties properties,
+                                        @Qualifier("thymeleafViewResolver") ViewResolver viewResolver) {
+        RenderedPageCache<Car> cache = new RenderedPageCache<>(properties.getPages(), viewResolver,
+                Car::getCarId,
+                (color, car) -> car.getCarColor() != null && normalize(car.getCarColor()).equals(normalize(color)),
+                carRepository.createsAppendToPages());
+        carRepository.addListener(cache);
+        return cache;
+    }
+
+    @Bean
+    MeterBinder renderedPageCacheMetrics(RenderedPageCache<Product> productPageCache,
+                                         RenderedPageCache<Car> carPageCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, productPageCache.pages(), "product-pages");
+            CaffeineCacheMetrics.monitor(registry, carPageCache.pages(), "car-pages");
+        };
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
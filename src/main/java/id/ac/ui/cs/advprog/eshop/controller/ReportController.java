@@ -0,0 +1,69 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
+import id.ac.ui.cs.advprog.eshop.model.StockTotal;
+import id.ac.ui.cs.advprog.eshop.service.CarService;
+import id.ac.ui.cs.advprog.eshop.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Stock reports computed from the live repositories, in place of scraping
+ * the list pages. Each request scans the whole catalog in parallel, so these
+ * are meant for dashboards and operators rather than per-page rendering.
+ * The {@code summary} endpoints are the exception: they read totals the
+ * repositories keep up to date on every write, so they answer in constant
+ * time at any catalog size.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+    static final String DEFAULT_LOW_STOCK_THRESHOLD = "5";
+    static final String DEFAULT_TOP = "10";
+    private static final int MAX_TOP = 1_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CarService carService;
+
+    @GetMapping("/product/stock")
+    public StockReport<Product> productStock(@RequestParam(defaultValue = DEFAULT_LOW_STOCK_THRESHOLD) int lowStockThreshold,
+                                             @RequestParam(defaultValue = DEFAULT_TOP) int top) {
+        return productService.stockReport(lowStockThreshold, boundTop(top));
+    }
+
+    @GetMapping("/product/summary")
+    public StockSummary productSummary() {
+        return productService.stockSummary();
+    }
+
+    @GetMapping("/car/stock")
+    public StockReport<Car> carStock(@RequestParam(defaultValue = DEFAULT_LOW_STOCK_THRESHOLD) int lowStockThreshold,
+                                     @RequestParam(defaultValue = DEFAULT_TOP) int top) {
+        return carService.stockReport(lowStockThreshold, boundTop(top));
+    }
+
+    @GetMapping("/car/summary")
+    public StockSummary carSummary() {
+        return carService.stockSummary();
+    }
+
+    @GetMapping("/car/colors")
+    public Map<String, StockTotal> carColors() {
+        return carService.totalsByColor();
+    }
+
+    private static int boundTop(int top) {
+        return Math.max(0, Math.min(top, MAX_TOP));
+    }
+}
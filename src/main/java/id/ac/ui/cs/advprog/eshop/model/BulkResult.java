@@ -0,0 +1,14 @@
+package id.ac.ui.cs.advprog.eshop.model;
+
+import lombok.Getter;
+
+@Getter
+public class BulkResult {
+    private final int requested;
+    private final int applied;
+
+    public BulkResult(int requested, int applied) {
+        this.requested = requested;
+        this.applied = applied;
+    }
+}
@@ -8,5 +8,7 @@ public class Car {
     private String carName;
     private String carColor;
     private int carQuantity;
+    private long version;
+    private long generation;
 }
 
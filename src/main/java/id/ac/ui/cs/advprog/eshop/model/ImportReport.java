@@ -0,0 +1,26 @@
+package id.ac.ui.cs.advprog.eshop.model;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a catalog import. {@code errors} holds the first few rejected
+ * rows as {@code Line N: reason}; {@code rejected} counts all of them.
+ */
+@Getter
+public class ImportReport {
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final List<String> errors;
+    private final long elapsedMillis;
+
+    public ImportReport(long rowsRead, long imported, long rejected, List<String> errors, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -8,4 +8,6 @@ public class Product {
     private String productId;
     private String productName;
     private int productQuantity;
+    private long version;
+    private long generation;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package id.ac.ui.cs.advprog.eshop.model;
+
+import lombok.Getter;
+
+/**
+ * One search result. {@code matchedTerms} counts the query words the item
+ * matched, exactly or within the allowed typos; hits are ordered by it first
+ * and by {@code score} second.
+ */
+@Getter
+public class SearchHit<T> {
+    private final T item;
+    private final int matchedTerms;
+    private final double score;
+
+    public SearchHit(T item, int matchedTerms, double score) {
+        this.item = item;
+        this.matchedTerms = matchedTerms;
+        this.score = score;
+    }
+}
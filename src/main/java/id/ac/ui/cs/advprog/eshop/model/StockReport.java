@@ -0,0 +1,24 @@
+package id.ac.ui.cs.advprog.eshop.model;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+public class StockReport<T> {
+    private final long itemCount;
+    private final long totalUnits;
+    private final Map<String, Long> quantityHistogram;
+    private final List<T> lowStock;
+    private final List<T> mostStocked;
+
+    public StockReport(long itemCount, long totalUnits, Map<String, Long> quantityHistogram,
+                       List<T> lowStock, List<T> mostStocked) {
+        this.itemCount = itemCount;
+        this.totalUnits = totalUnits;
+        this.quantityHistogram = quantityHistogram;
+        this.lowStock = lowStock;
+        this.mostStocked = mostStocked;
+    }
+}
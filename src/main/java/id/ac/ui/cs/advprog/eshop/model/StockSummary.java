@@ -0,0 +1,20 @@
+package id.ac.ui.cs.advprog.eshop.model;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class StockSummary {
+    private final long itemCount;
+    private final long totalUnits;
+    private final long outOfStockCount;
+    private final Map<String, Long> countByGroup;
+
+    public StockSummary(long itemCount, long totalUnits, long outOfStockCount, Map<String, Long> countByGroup) {
+        this.itemCount = itemCount;
+        this.totalUnits = totalUnits;
+        this.outOfStockCount = outOfStockCount;
+        this.countByGroup = countByGroup;
+    }
+}
@@ -0,0 +1,14 @@
+package id.ac.ui.cs.advprog.eshop.model;
+
+import lombok.Getter;
+
+@Getter
+public class StockTotal {
+    private final long itemCount;
+    private final long totalUnits;
+
+    public StockTotal(long itemCount, long totalUnits) {
+        this.itemCount = itemCount;
+        this.totalUnits = totalUnits;
+    }
+}
@@ -0,0 +1,10 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+public enum FsyncPolicy {
+    /** Writers return once their commit group has been forced to disk. */
+    ALWAYS,
+    /** Writers return once written; the log is forced on a fixed interval. */
+    INTERVAL,
+    /** Writers return once written; flushing is left to the operating system. */
+    NEVER
+}
@@ -0,0 +1,83 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Rebuilds both repositories from disk on startup and journals every later
+ * change. Only active with {@code eshop.persistence.enabled=true}; otherwise
+ * the repositories stay purely in memory.
+ */
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+@ConditionalOnProperty(prefix = "eshop.persistence", name = "enabled", havingValue = "true")
+public class PersistenceConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(PersistenceConfiguration.class);
+
+    @Bean(destroyMethod = "close")
+    public RepositoryJournal<Product> productJournal(ProductRepositoryPort productRepository,
+                                                     PersistenceProperties properties) throws IOException {
+        RepositoryJournal<Product> journal = open(properties, "products", new ProductCodec());
+        journal.recover(productRepository::upsert, productRepository::delete);
+        productRepository.addListener(journal);
+        return journal;
+    }
+
+    @Bean(destroyMethod = "close")
+    public RepositoryJournal<Car> carJournal(CarRepositoryPort carRepository,
+                                             PersistenceProperties properties) throws IOException {
+        RepositoryJournal<Car> journal = open(properties, "cars", new CarCodec());
+        journal.recover(carRepository::upsert, carRepository::delete);
+        carRepository.addListener(journal);
+        return journal;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService journalSnapshotScheduler(RepositoryJournal<Product> productJournal,
+                                                             ProductRepositoryPort productRepository,
+                                                             RepositoryJournal<Car> carJournal,
+                                                             CarRepositoryPort carRepository,
+                                                             PersistenceProperties properties) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getSnapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            snapshot("products", productJournal, productRepository::findAll);
+            snapshot("cars", carJournal, carRepository::findAll);
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    private static <T> RepositoryJournal<T> open(PersistenceProperties properties, String name,
+                                                 EntityCodec<T> codec) throws IOException {
+        return new RepositoryJournal<>(Path.of(properties.getDirectory(), name), codec,
+                properties.getFsyncPolicy(), properties.getFsyncInterval());
+    }
+
+    private static <T> void snapshot(String name, RepositoryJournal<T> journal, Supplier<Iterator<T>> values) {
+        try {
+            journal.snapshot(values.get());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot of {} failed, the log keeps growing until the next attempt", name, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "eshop.persistence")
+public class PersistenceProperties {
+    private boolean enabled;
+    private String directory = "data";
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+    private Duration fsyncInterval = Duration.ofMillis(20);
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,118 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import id.ac.ui.cs.advprog.eshop.repository.RepositoryListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Makes one repository durable. Registered as a repository listener, it
+ * appends every change to the write-ahead log while the repository still
+ * holds the id's lock, so the log order matches the order of the changes,
+ * and waits for the record to be committed only after the lock is released.
+ *
+ * <p>Snapshots are fuzzy: the log is rotated first and the repository is
+ * iterated while writes continue. Replaying the log from the rotation point
+ * on top of the snapshot converges to the right state because every record
+ * carries the full entity or a delete by id.
+ */
+public class RepositoryJournal<T> implements RepositoryListener<T>, AutoCloseable {
+    private static final byte UPSERT = 3;
+    private static final byte DELETE = 4;
+
+    private final WriteAheadLog log;
+    private final EntityCodec<T> codec;
+    private final Path snapshotFile;
+    private final ThreadLocal<long[]> pendingLsn = ThreadLocal.withInitial(() -> new long[1]);
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    public RepositoryJournal(Path directory, EntityCodec<T> codec, FsyncPolicy fsyncPolicy,
+                             Duration fsyncInterval) throws IOException {
+        this.log = new WriteAheadLog(directory, "journal", fsyncPolicy, fsyncInterval);
+        this.codec = codec;
+        this.snapshotFile = directory.resolve("journal.snapshot");
+    }
+
+    public void recover(Consumer<T> upsert, Consumer<String> delete) throws IOException {
+        long replayFromSegment = Files.exists(snapshotFile) ? SnapshotFile.read(snapshotFile, codec, upsert) : 0;
+        log.replay(replayFromSegment, record -> apply(record, upsert, delete));
+    }
+
+    @Override
+    public void onChange(T previous, T current) {
+        pendingLsn.get()[0] = log.append(current != null ? encodeUpsert(current) : encodeDelete(codec.idOf(previous)));
+    }
+
+    @Override
+    public void afterWrite() {
+        long[] pending = pendingLsn.get();
+        long lsn = pending[0];
+        if (lsn > 0) {
+            pending[0] = 0;
+            log.awaitDurable(lsn);
+        }
+    }
+
+    public void snapshot(Iterator<T> values) throws IOException {
+        snapshotLock.lock();
+        try {
+            long replayFromSegment = log.rotate();
+            SnapshotFile.write(snapshotFile, replayFromSegment, values, codec);
+            log.deleteSegmentsBefore(replayFromSegment);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private byte[] encodeUpsert(T entity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(UPSERT);
+            codec.write(out, entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] encodeDelete(String id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(DELETE);
+            EntityCodec.writeString(out, id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void apply(byte[] record, Consumer<T> upsert, Consumer<String> delete) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte operation = in.readByte();
+            if (operation == UPSERT) {
+                upsert.accept(codec.read(in));
+            } else if (operation == DELETE) {
+                delete.accept(EntityCodec.readString(in));
+            } else {
+                throw new IOException("Unknown journal record type " + operation);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
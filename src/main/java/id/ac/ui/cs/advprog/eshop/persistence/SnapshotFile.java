@@ -0,0 +1,85 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compacted image of a repository: a header naming the first log segment to
+ * replay on top of it, one record per entity and a CRC32C trailer. It is
+ * written to a temporary file, forced and then atomically renamed, so a crash
+ * leaves either the previous snapshot or the new one.
+ */
+final class SnapshotFile {
+    private static final int MAGIC = 0x45534e50;
+    private static final int VERSION = 3;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private SnapshotFile() {
+    }
+
+    static <T> void write(Path file, long replayFromSegment, Iterator<T> values, EntityCodec<T> codec)
+            throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), BUFFER_BYTES));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(replayFromSegment);
+            while (values.hasNext()) {
+                out.writeBoolean(true);
+                codec.write(out, values.next());
+            }
+            out.writeBoolean(false);
+            out.flush();
+            ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES).putLong(crc.getValue()).flip();
+            while (trailer.hasRemaining()) {
+                channel.write(trailer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Feeds every entity in the snapshot to the consumer and returns the first
+     * log segment that still has to be replayed.
+     */
+    static <T> long read(Path file, EntityCodec<T> codec, Consumer<T> consumer) throws IOException {
+        try (InputStream raw = Files.newInputStream(file)) {
+            BufferedInputStream buffered = new BufferedInputStream(raw, BUFFER_BYTES);
+            CRC32C crc = new CRC32C();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, crc));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            long replayFromSegment = in.readLong();
+            while (in.readBoolean()) {
+                consumer.accept(codec.read(in));
+            }
+            long checksum = crc.getValue();
+            if (new DataInputStream(buffered).readLong() != checksum) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            return replayFromSegment;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log stored as numbered segment files. Appends are only queued,
+ * so callers can append while holding their own locks. A single committer
+ * thread drains everything queued and writes it with one gather write (group
+ * commit), then forces the file according to the {@link FsyncPolicy}.
+ *
+ * <p>Each record is framed as payload length, CRC32C and payload. Rotation
+ * forces a segment before moving on, so only the segment that was open when
+ * the process died can end in a torn frame. Opening the log cuts that
+ * segment back to its last intact frame and starts a new one, so any bad
+ * frame met during replay is real corruption and fails recovery.
+ */
+public class WriteAheadLog implements AutoCloseable {
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_GROUP_SIZE = 4096;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private sealed interface Command permits Append, Rotate { }
+
+    private record Append(long lsn, byte[] payload) implements Command { }
+
+    private record Rotate(CompletableFuture<Long> nextSegment) implements Command { }
+
+    private final Path directory;
+    private final String name;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long firstSegment;
+    private final BlockingQueue<Command> pending = new LinkedBlockingQueue<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock progressLock = new ReentrantLock();
+    private final Condition progressed = progressLock.newCondition();
+    private final Thread committer;
+
+    private long lastAssignedLsn;
+    private volatile long committedLsn;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    private FileChannel channel;
+    private long segment;
+    private boolean unforced;
+    private long lastForceNanos;
+
+    public WriteAheadLog(Path directory, String name, FsyncPolicy fsyncPolicy, Duration fsyncInterval)
+            throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.name = name;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        List<Long> existing = segments();
+        if (!existing.isEmpty()) {
+            truncateTornTail(segmentPath(existing.get(existing.size() - 1)));
+        }
+        this.firstSegment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        this.segment = firstSegment;
+        this.channel = openSegment(segment);
+        this.lastForceNanos = System.nanoTime();
+        this.committer = new Thread(this::commitLoop, "wal-" + name);
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    public long append(byte[] payload) {
+        if (payload.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Log record too large: " + payload.length + " bytes");
+        }
+        appendLock.lock();
+        try {
+            ensureOpen();
+            long lsn = ++lastAssignedLsn;
+            pending.add(new Append(lsn, payload));
+            return lsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public void awaitDurable(long lsn) {
+        if (committedLsn >= lsn) {
+            return;
+        }
+        progressLock.lock();
+        try {
+            while (committedLsn < lsn) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Write-ahead log " + name + " failed", failure);
+                }
+                if (stopped) {
+                    throw new IllegalStateException("Write-ahead log " + name + " is closed");
+                }
+                progressed.awaitUninterruptibly();
+            }
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the current segment and starts a new one. Every record appended
+     * before this call lands in an earlier segment, every later one in the
+     * returned segment or after it.
+     */
+    public long rotate() {
+        CompletableFuture<Long> nextSegment = new CompletableFuture<>();
+        appendLock.lock();
+        try {
+            ensureOpen();
+            pending.add(new Rotate(nextSegment));
+        } finally {
+            appendLock.unlock();
+        }
+        progressLock.lock();
+        try {
+            while (!nextSegment.isDone()) {
+                if (stopped) {
+                    throw new IllegalStateException("Write-ahead log " + name + " stopped before rotating");
+                }
+                progressed.awaitUninterruptibly();
+            }
+        } finally {
+            progressLock.unlock();
+        }
+        try {
+            return nextSegment.join();
+        } catch (CompletionException e) {
+            throw (UncheckedIOException) e.getCause();
+        }
+    }
+
+    /**
+     * Feeds the payload of every record in segments written before this log
+     * was opened, starting at {@code fromSegment}, to the consumer. Throws if
+     * a frame is torn or fails its checksum, naming the segment and offset.
+     */
+    public void replay(long fromSegment, Consumer<byte[]> consumer) throws IOException {
+        for (long existing : segments()) {
+            if (existing >= fromSegment && existing < firstSegment) {
+                Path file = segmentPath(existing);
+                long intact = readSegment(file, consumer);
+                if (intact < Files.size(file)) {
+                    throw new IOException("Corrupt log frame in " + file.getFileName() + " at offset " + intact);
+                }
+            }
+        }
+    }
+
+    public void deleteSegmentsBefore(long keepFrom) throws IOException {
+        for (long existing : segments()) {
+            if (existing < keepFrom) {
+                Files.deleteIfExists(segmentPath(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commitLoop() {
+        List<Command> group = new ArrayList<>();
+        try {
+            while (!closed || !pending.isEmpty()) {
+                Command first = pending.poll(pollNanos(), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    group.add(first);
+                    pending.drainTo(group, MAX_GROUP_SIZE);
+                    commit(group);
+                    group.clear();
+                }
+                if (fsyncPolicy == FsyncPolicy.INTERVAL && unforced
+                        && System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) {
+                    force();
+                }
+            }
+            force();
+            channel.close();
+        } catch (IOException e) {
+            fail(e, group);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(new IOException("Committer interrupted", e), group);
+        } catch (RuntimeException | Error e) {
+            fail(new IOException("Committer failed", e), group);
+            throw e;
+        } finally {
+            stopped = true;
+            signalProgress();
+        }
+    }
+
+    private void commit(List<Command> group) throws IOException {
+        List<ByteBuffer> frames = new ArrayList<>(group.size() * 2);
+        long lastLsn = committedLsn;
+        for (Command command : group) {
+            if (command instanceof Append append) {
+                frames.add(frameHeader(append.payload()));
+                frames.add(ByteBuffer.wrap(append.payload()));
+                lastLsn = append.lsn();
+            } else if (command instanceof Rotate rotate) {
+                write(frames);
+                frames.clear();
+                force();
+                channel.close();
+                segment++;
+                channel = openSegment(segment);
+                rotate.nextSegment().complete(segment);
+            }
+        }
+        write(frames);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            force();
+        }
+        committedLsn = lastLsn;
+        signalProgress();
+    }
+
+    private void write(List<ByteBuffer> frames) throws IOException {
+        if (frames.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = frames.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        unforced = true;
+    }
+
+    private void force() throws IOException {
+        if (unforced) {
+            channel.force(false);
+            unforced = false;
+        }
+        lastForceNanos = System.nanoTime();
+    }
+
+    private long pollNanos() {
+        return fsyncPolicy == FsyncPolicy.INTERVAL ? Math.min(fsyncIntervalNanos, IDLE_POLL_NANOS) : IDLE_POLL_NANOS;
+    }
+
+    /**
+     * Records the failure and completes every rotation still waiting, both in
+     * the group being committed and in the queue. The queue is drained under
+     * the append lock, after which {@link #ensureOpen()} rejects new commands,
+     * so nothing can be queued behind the drain and wait forever.
+     */
+    private void fail(IOException e, List<Command> inFlight) {
+        List<Command> abandoned = new ArrayList<>(inFlight);
+        appendLock.lock();
+        try {
+            failure = e;
+            pending.drainTo(abandoned);
+        } finally {
+            appendLock.unlock();
+        }
+        for (Command command : abandoned) {
+            if (command instanceof Rotate rotate) {
+                rotate.nextSegment().completeExceptionally(new UncheckedIOException(e));
+            }
+        }
+    }
+
+    private void signalProgress() {
+        progressLock.lock();
+        try {
+            progressed.signalAll();
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log " + name + " is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log " + name + " failed", failure);
+        }
+    }
+
+    private static ByteBuffer frameHeader(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        header.putInt(payload.length).putInt((int) crc.getValue()).flip();
+        return header;
+    }
+
+    /** Cuts the segment that was open when the process last stopped back to its last intact frame. */
+    private static void truncateTornTail(Path file) throws IOException {
+        long intact = readSegment(file, payload -> { });
+        try (FileChannel segment = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (intact < segment.size()) {
+                segment.truncate(intact);
+                segment.force(true);
+            }
+        }
+    }
+
+    /**
+     * Feeds the payload of every intact frame up to the first torn or corrupt
+     * one to the consumer and returns the offset where the intact frames end.
+     */
+    private static long readSegment(Path file, Consumer<byte[]> consumer) throws IOException {
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    return offset;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    return offset;
+                }
+                consumer.accept(payload);
+                offset += FRAME_HEADER_BYTES + length;
+            }
+        } catch (EOFException end) {
+            return offset;
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s-%020d.wal", name, number));
+    }
+
+    private List<Long> segments() throws IOException {
+        String prefix = name + "-";
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(file -> file.startsWith(prefix) && file.endsWith(".wal"))
+                    .map(file -> Long.parseLong(file.substring(prefix.length(), file.length() - 4)))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Turns writes away from a follower. Its repositories only mirror the
+ * leader, so a local write would never reach the leader and would be deleted
+ * again by the next snapshot. Every request that can change data is answered
+ * with 503 and the leader's address in {@value #LEADER_HEADER} instead: any
+ * method other than GET, HEAD and OPTIONS, plus the product list's delete
+ * link, the one write the pages still send as a GET.
+ */
+public class FollowerWriteFilter extends OncePerRequestFilter {
+    static final String LEADER_HEADER = "X-Replication-Leader";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String GET_DELETE_PATH = "/product/delete/";
+
+    private final String leader;
+
+    public FollowerWriteFilter(String leader) {
+        this.leader = leader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isWrite(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(LEADER_HEADER, leader);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("This instance is a read-only replication follower; send writes to the leader at "
+                + leader);
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !READ_METHODS.contains(request.getMethod()) || path.startsWith(GET_DELETE_PATH);
+    }
+}
@@ -0,0 +1,33 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.persistence.CarCodec;
+import id.ac.ui.cs.advprog.eshop.persistence.EntityCodec;
+import id.ac.ui.cs.advprog.eshop.persistence.ProductCodec;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.ChangeFeed;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One repository as seen by replication: the leader reads its change feed
+ * and walks it for snapshots, a follower upserts and deletes into it. Leader
+ * and followers must list their streams in the same order.
+ */
+public record ReplicatedStream<T>(ChangeFeed<T> feed, EntityCodec<T> codec, Supplier<Iterator<T>> values,
+                                  Consumer<T> upsert, Consumer<String> delete) {
+
+    public static ReplicatedStream<Product> products(ProductRepositoryPort productRepository) {
+        return new ReplicatedStream<>(productRepository.changes(), new ProductCodec(), productRepository::findAll,
+                productRepository::upsert, productRepository::delete);
+    }
+
+    public static ReplicatedStream<Car> cars(CarRepositoryPort carRepository) {
+        return new ReplicatedStream<>(carRepository.changes(), new CarCodec(), carRepository::findAll,
+                carRepository::upsert, carRepository::delete);
+    }
+}
@@ -0,0 +1,74 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Leader-follower replication of both repositories. {@code
+ * eshop.replication.role=leader} serves the local repositories on {@code
+ * eshop.replication.port}; {@code role=follower} mirrors the leader at
+ * {@code leader-host}:{@code leader-port} and rejects writes of its own,
+ * pointing clients at {@code leader-url}. Any other role, the default, leaves
+ * each instance standalone.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "eshop.replication", name = "role", havingValue = "leader")
+    public ReplicationLeader replicationLeader(ProductRepositoryPort productRepository,
+                                               CarRepositoryPort carRepository,
+                                               ReplicationProperties properties) throws IOException {
+        return new ReplicationLeader(properties.getPort(),
+                streams(productRepository, carRepository), properties.getBatchRecords(),
+                properties.getHeartbeatInterval());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "eshop.replication", name = "role", havingValue = "leader")
+    public MeterBinder replicationLeaderMetrics(ReplicationLeader replicationLeader) {
+        return registry -> Gauge.builder("eshop.replication.followers", replicationLeader,
+                        ReplicationLeader::followerCount)
+                .register(registry);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "eshop.replication", name = "role", havingValue = "follower")
+    public ReplicationFollower replicationFollower(ProductRepositoryPort productRepository,
+                                                   CarRepositoryPort carRepository,
+                                                   ReplicationProperties properties) {
+        return new ReplicationFollower(properties.getLeaderHost(), properties.getLeaderPort(),
+                streams(productRepository, carRepository), properties.getReconnectDelay());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "eshop.replication", name = "role", havingValue = "follower")
+    public MeterBinder replicationFollowerMetrics(ReplicationFollower replicationFollower) {
+        return registry -> Gauge.builder("eshop.replication.lag", replicationFollower,
+                        ReplicationFollower::lagMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "eshop.replication", name = "role", havingValue = "follower")
+    public FollowerWriteFilter followerWriteFilter(ReplicationProperties properties) {
+        String leaderUrl = properties.getLeaderUrl();
+        return new FollowerWriteFilter(leaderUrl == null || leaderUrl.isBlank() ? properties.getLeaderHost() : leaderUrl);
+    }
+
+    private static List<ReplicatedStream<?>> streams(ProductRepositoryPort productRepository,
+                                                     CarRepositoryPort carRepository) {
+        return List.of(ReplicatedStream.products(productRepository), ReplicatedStream.cars(carRepository));
+    }
+}
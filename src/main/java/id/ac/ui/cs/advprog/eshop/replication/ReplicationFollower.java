@@ -0,0 +1,194 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import id.ac.ui.cs.advprog.eshop.persistence.EntityCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the local repositories a copy of a {@link ReplicationLeader}'s. A
+ * single thread connects, tells the leader how far it got, and applies the
+ * frames it receives in order, reconnecting after a pause if the connection
+ * drops. Reads are served from the local repositories as usual; writes
+ * belong on the leader, since a follower's own writes are not sent anywhere.
+ *
+ * <p>Lag is the time between the leader recording the last applied change
+ * and the follower applying it, so it assumes the clocks agree. It drops to
+ * zero on a heartbeat, which the leader only sends once nothing is pending.
+ */
+public class ReplicationFollower implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+
+    private final InetSocketAddress leader;
+    private final List<ReplicatedStream<?>> streams;
+    private final long reconnectMillis;
+    private final long[] nextSequences;
+    private final Set<String>[] snapshotLeftovers;
+    private final Thread worker;
+    private long leaderEpoch;
+    private volatile long lagMillis;
+    private volatile long appliedRecords;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private volatile boolean closed;
+
+    @SuppressWarnings("unchecked")
+    public ReplicationFollower(String host, int port, List<ReplicatedStream<?>> streams, Duration reconnectDelay) {
+        this.leader = InetSocketAddress.createUnresolved(host, port);
+        this.streams = List.copyOf(streams);
+        this.reconnectMillis = reconnectDelay.toMillis();
+        this.nextSequences = new long[streams.size()];
+        this.snapshotLeftovers = new Set[streams.size()];
+        Arrays.fill(nextSequences, -1);
+        this.worker = new Thread(this::run, "replication-follower");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    public long appliedRecords() {
+        return appliedRecords;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        worker.interrupt();
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(leader.getHostString(), leader.getPort()),
+                        CONNECT_TIMEOUT_MILLIS);
+                connection.setTcpNoDelay(true);
+                follow(connection);
+            } catch (IOException e) {
+                if (!closed) {
+                    log.info("Replication from {} interrupted: {}", leader, e.toString());
+                }
+            } finally {
+                connected = false;
+            }
+            try {
+                Thread.sleep(reconnectMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void follow(Socket connection) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), 1 << 16));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        if (in.readInt() != ReplicationFrames.MAGIC || in.readInt() != ReplicationFrames.PROTOCOL_VERSION) {
+            throw new IOException("Not a replication leader: " + leader);
+        }
+        long epoch = in.readLong();
+        if (in.readInt() != streams.size()) {
+            throw new IOException("Leader replicates a different set of repositories");
+        }
+        out.writeLong(leaderEpoch);
+        for (long next : nextSequences) {
+            out.writeLong(next);
+        }
+        out.flush();
+        leaderEpoch = epoch;
+        Arrays.fill(snapshotLeftovers, null);
+        connected = true;
+        ReplicationFrames.Reader frames = new ReplicationFrames.Reader(in);
+        try {
+            while (!closed) {
+                apply(frames.next());
+            }
+        } finally {
+            frames.close();
+        }
+    }
+
+    private void apply(DataInputStream records) throws IOException {
+        if (records.available() == 0) {
+            lagMillis = 0;
+            return;
+        }
+        long lastTimestamp = 0;
+        long applied = 0;
+        while (records.available() > 0) {
+            int index = records.readUnsignedByte();
+            byte kind = records.readByte();
+            long sequence = records.readLong();
+            lastTimestamp = records.readLong();
+            if (index >= streams.size()) {
+                throw new IOException("Unknown replicated stream " + index);
+            }
+            applyRecord(index, streams.get(index), kind, sequence, records);
+            applied++;
+        }
+        appliedRecords += applied;
+        lagMillis = Math.max(0, System.currentTimeMillis() - lastTimestamp);
+    }
+
+    private <T> void applyRecord(int index, ReplicatedStream<T> stream, byte kind, long sequence,
+                                 DataInputStream in) throws IOException {
+        switch (kind) {
+            case ReplicationFrames.UPSERT -> {
+                T entity = stream.codec().read(in);
+                if (snapshotLeftovers[index] != null) {
+                    snapshotLeftovers[index].remove(stream.codec().idOf(entity));
+                }
+                stream.upsert().accept(entity);
+            }
+            case ReplicationFrames.DELETE -> stream.delete().accept(EntityCodec.readString(in));
+            case ReplicationFrames.SNAPSHOT_BEGIN -> {
+                snapshotLeftovers[index] = localIds(stream);
+                return;
+            }
+            case ReplicationFrames.SNAPSHOT_END -> {
+                if (snapshotLeftovers[index] != null) {
+                    snapshotLeftovers[index].forEach(stream.delete());
+                    snapshotLeftovers[index] = null;
+                }
+                nextSequences[index] = sequence;
+                return;
+            }
+            default -> throw new IOException("Unknown replication record kind " + kind);
+        }
+        if (sequence >= 0) {
+            nextSequences[index] = sequence + 1;
+        }
+    }
+
+    private static <T> Set<String> localIds(ReplicatedStream<T> stream) {
+        Set<String> ids = new HashSet<>();
+        for (Iterator<T> values = stream.values().get(); values.hasNext(); ) {
+            ids.add(stream.codec().idOf(values.next()));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,133 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Wire format shared by leader and followers. After a handshake the leader
+ * sends frames of raw length, compressed length and a deflated batch of
+ * records. A record is stream index, kind, sequence number and the leader's
+ * timestamp, followed by the encoded entity for upserts or the id for
+ * deletes. An empty frame is a heartbeat: the follower has everything.
+ */
+final class ReplicationFrames {
+    static final int MAGIC = 0x45535250;
+    static final int PROTOCOL_VERSION = 2;
+    static final byte UPSERT = 1;
+    static final byte DELETE = 2;
+    static final byte SNAPSHOT_BEGIN = 3;
+    static final byte SNAPSHOT_END = 4;
+    private static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+
+    private ReplicationFrames() {
+    }
+
+    /** Collects records for the next frame and deflates them on flush. */
+    static final class Writer {
+        private final DataOutputStream socket;
+        private final ByteArrayOutputStream batch = new ByteArrayOutputStream(1 << 16);
+        private final DataOutputStream records = new DataOutputStream(batch);
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private byte[] compressed = new byte[1 << 16];
+        private int recordCount;
+
+        Writer(DataOutputStream socket) {
+            this.socket = socket;
+        }
+
+        DataOutputStream record(int stream, byte kind, long sequence, long timestamp) throws IOException {
+            records.writeByte(stream);
+            records.writeByte(kind);
+            records.writeLong(sequence);
+            records.writeLong(timestamp);
+            recordCount++;
+            return records;
+        }
+
+        int recordCount() {
+            return recordCount;
+        }
+
+        void flush() throws IOException {
+            byte[] raw = batch.toByteArray();
+            int length = raw.length == 0 ? 0 : deflate(raw);
+            socket.writeInt(raw.length);
+            socket.writeInt(length);
+            socket.write(compressed, 0, length);
+            socket.flush();
+            batch.reset();
+            recordCount = 0;
+        }
+
+        void close() {
+            deflater.end();
+        }
+
+        private int deflate(byte[] raw) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            return length;
+        }
+    }
+
+    /** Reads one frame at a time and hands back its records as a stream. */
+    static final class Reader {
+        private final DataInputStream socket;
+        private final Inflater inflater = new Inflater();
+        private byte[] compressed = new byte[1 << 16];
+
+        Reader(DataInputStream socket) {
+            this.socket = socket;
+        }
+
+        /** Blocks for the next frame; an empty stream is a heartbeat. */
+        DataInputStream next() throws IOException {
+            int rawLength = socket.readInt();
+            int length = socket.readInt();
+            if (rawLength < 0 || rawLength > MAX_FRAME_BYTES || length < 0 || length > MAX_FRAME_BYTES) {
+                throw new IOException("Malformed replication frame");
+            }
+            if (compressed.length < length) {
+                compressed = new byte[Math.max(length, compressed.length * 2)];
+            }
+            socket.readFully(compressed, 0, length);
+            byte[] raw = new byte[rawLength];
+            if (rawLength > 0) {
+                inflater.reset();
+                inflater.setInput(compressed, 0, length);
+                try {
+                    int inflated = 0;
+                    while (inflated < rawLength) {
+                        int count = inflater.inflate(raw, inflated, rawLength - inflated);
+                        if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                            throw new IOException("Truncated replication frame");
+                        }
+                        inflated += count;
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupt replication frame", e);
+                }
+            }
+            return new DataInputStream(new ByteArrayInputStream(raw));
+        }
+
+        void close() {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import id.ac.ui.cs.advprog.eshop.persistence.EntityCodec;
+import id.ac.ui.cs.advprog.eshop.repository.ChangeEvent;
+import id.ac.ui.cs.advprog.eshop.repository.ChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ships the changes of the local repositories to followers over TCP. Each
+ * follower gets its own sender thread that tails the repositories' change
+ * feeds from the follower's position, so writers never wait for the network
+ * and a slow follower only falls behind. Whatever accumulated while the last
+ * batch was on the wire goes out as the next deflated frame.
+ *
+ * <p>A follower that is new, was following a previous leader process, or
+ * fell out of a feed's ring first receives a snapshot of that repository.
+ * The snapshot is taken after noting the feed position, and the feed is
+ * replayed from there on top of it, which converges because every event
+ * carries the full entity or a delete by id.
+ */
+public class ReplicationLeader implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLeader.class);
+
+    private final List<ReplicatedStream<?>> streams;
+    private final int batchRecords;
+    private final long heartbeatMillis;
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    private final ServerSocket server;
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    public ReplicationLeader(int port, List<ReplicatedStream<?>> streams, int batchRecords, Duration heartbeat)
+            throws IOException {
+        this.streams = List.copyOf(streams);
+        this.batchRecords = batchRecords;
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.server = new ServerSocket(port);
+        this.acceptor = new Thread(this::accept, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public int followerCount() {
+        return followers.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Socket follower : followers) {
+            follower.close();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket follower = server.accept();
+                followers.add(follower);
+                Thread sender = new Thread(() -> serve(follower), "replication-sender-" + follower.getPort());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    log.warn("Accepting a replication follower failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket follower) {
+        try (follower) {
+            follower.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(follower.getOutputStream(), 1 << 16));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(follower.getInputStream()));
+            out.writeInt(ReplicationFrames.MAGIC);
+            out.writeInt(ReplicationFrames.PROTOCOL_VERSION);
+            out.writeLong(epoch);
+            out.writeInt(streams.size());
+            out.flush();
+            long followerEpoch = in.readLong();
+            long[] cursors = new long[streams.size()];
+            for (int i = 0; i < cursors.length; i++) {
+                long next = in.readLong();
+                cursors[i] = followerEpoch == epoch ? next : -1;
+            }
+            ReplicationFrames.Writer frames = new ReplicationFrames.Writer(out);
+            try {
+                while (!closed) {
+                    ship(frames, cursors);
+                }
+            } finally {
+                frames.close();
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                log.info("Replication follower {} disconnected: {}", follower.getRemoteSocketAddress(), e.toString());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(follower);
+        }
+    }
+
+    /**
+     * Sends one frame of whatever is new, or waits for the next change and
+     * sends a heartbeat if none comes. The wake-up futures are taken before
+     * reading so a change in between is not missed.
+     */
+    private void ship(ReplicationFrames.Writer frames, long[] cursors) throws IOException, InterruptedException {
+        CompletableFuture<?>[] changed = new CompletableFuture<?>[streams.size()];
+        for (int i = 0; i < changed.length; i++) {
+            changed[i] = streams.get(i).feed().nextChange();
+        }
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = shipStream(i, streams.get(i), frames, cursors[i]);
+        }
+        if (frames.recordCount() > 0) {
+            frames.flush();
+            return;
+        }
+        try {
+            CompletableFuture.anyOf(changed).get(heartbeatMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException idle) {
+            frames.flush();
+        } catch (ExecutionException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+
+    private <T> long shipStream(int index, ReplicatedStream<T> stream, ReplicationFrames.Writer frames, long cursor)
+            throws IOException {
+        if (cursor >= 0) {
+            ChangeFeed.Slice<T> slice = stream.feed().read(cursor, batchRecords);
+            if (!slice.truncated()) {
+                for (ChangeEvent<T> event : slice.events()) {
+                    if (event.type() == ChangeEvent.Type.DELETE) {
+                        EntityCodec.writeString(frames.record(index, ReplicationFrames.DELETE, event.sequence(),
+                                event.timestamp()), event.id());
+                    } else {
+                        stream.codec().write(frames.record(index, ReplicationFrames.UPSERT, event.sequence(),
+                                event.timestamp()), event.entity());
+                    }
+                }
+                return slice.nextSequence();
+            }
+        }
+        return snapshot(index, stream, frames);
+    }
+
+    private <T> long snapshot(int index, ReplicatedStream<T> stream, ReplicationFrames.Writer frames)
+            throws IOException {
+        long resumeFrom = stream.feed().nextSequence();
+        long now = System.currentTimeMillis();
+        frames.record(index, ReplicationFrames.SNAPSHOT_BEGIN, resumeFrom, now);
+        Iterator<T> values = stream.values().get();
+        while (values.hasNext()) {
+            stream.codec().write(frames.record(index, ReplicationFrames.UPSERT, -1, now), values.next());
+            if (frames.recordCount() >= batchRecords) {
+                frames.flush();
+            }
+        }
+        frames.record(index, ReplicationFrames.SNAPSHOT_END, resumeFrom, now);
+        return resumeFrom;
+    }
+}
@@ -0,0 +1,21 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "eshop.replication")
+public class ReplicationProperties {
+    private String role = "none";
+    private int port = 7070;
+    private String leaderHost = "localhost";
+    private int leaderPort = 7070;
+    /** Where a follower sends clients whose writes it turns away; the leader's host when unset. */
+    private String leaderUrl;
+    private int batchRecords = 4096;
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+}
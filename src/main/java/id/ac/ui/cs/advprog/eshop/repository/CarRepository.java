@@ -1,23 +1,75 @@
 package id.ac.ui.cs.advprog.eshop.repository;
 import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
-import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Repository
+@ConditionalOnProperty(prefix = "eshop.repository", name = "car-store", havingValue = "heap", matchIfMissing = true)
 public class CarRepository implements CarRepositoryPort{
-    static int id = 0;
+    private static final DistributionSummary PAGE_SCAN = RepositoryMetrics.scanLength("car", "page");
+    private static final DistributionSummary COLOR_SEARCH_SCAN = RepositoryMetrics.scanLength("car", "color");
 
-    private List<Car> carData = new ArrayList<>();
+    private final ConcurrentOrderedStore<Car> carData = new ConcurrentOrderedStore<>();
+    private final SecondaryIndex<String> colorIndex = SecondaryIndex.hashed();
+    private final IdGenerator idGenerator;
+    private final ModificationTracker modifications = new ModificationTracker();
+    private final ChangeFeed<Car> changes = new ChangeFeed<>(Car::getCarId);
+    private final StockStatistics<Car> statistics = new StockStatistics<>(Car::getCarQuantity, Car::getCarColor);
+
+    public CarRepository() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Autowired
+    public CarRepository(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+        carData.onChange(this::reindex);
+        carData.onChange((previous, current) -> modifications.recordChange());
+        carData.onChange(changes);
+        carData.onChange(statistics);
+    }
 
     public Car create(Car car) {
-        if(car.getCarId() == null) {
-            UUID uuid = UUID.randomUUID();
-            car.setCarId(uuid.toString());
+        assignIdIfMissing(car);
+        assignInitialVersion(car);
+        assignNewGeneration(car);
+        Car existing = carData.insert(car.getCarId(), car);
+        if (existing != null) {
+            throw new VersionConflictException(car.getCarId(), 0, existing.getVersion());
+        }
+        return car;
+    }
+
+    public List<Car> createAll(List<Car> cars) {
+        Map<String, Car> carsById = new LinkedHashMap<>();
+        for (Car car : cars) {
+            if (car != null) {
+                assignIdIfMissing(car);
+                assignInitialVersion(car);
+                assignNewGeneration(car);
+                carsById.put(car.getCarId(), car);
+            }
         }
-        carData.add(car);
+        return carData.insertAll(carsById);
+    }
+
+    public Car upsert(Car car) {
+        assignIdIfMissing(car);
+        assignInitialVersion(car);
+        if (car.getGeneration() == 0) {
+            assignNewGeneration(car);
+        }
+        carData.put(car.getCarId(), car);
         return car;
     }
 
@@ -25,30 +77,119 @@ public class CarRepository implements CarRepositoryPort{
         return carData.iterator();
     }
 
+    public Stream<Car> stream() {
+        return carData.stream();
+    }
+
+    public Page<Car> findPage(String cursor, int size) {
+        Page<Car> page = carData.page(cursor, size);
+        PAGE_SCAN.record(page.getItems().size());
+        return page;
+    }
+
     public Car findById(String id) {
-        for (Car car : carData) {
-            if (car.getCarId().equals(id)) {
-                return car;
-            }
+        if (id == null) {
+            return null;
         }
-        return null;
+        return carData.get(id);
     }
 
     public Car update(String id, Car updatedCar) {
-        for (int i = 0; i < carData.size(); i++) {
-            Car car = carData.get(i);
-            if (car.getCarId().equals(id)) {
-                car.setCarName(updatedCar.getCarName());
-                car.setCarColor(updatedCar.getCarColor());
-                car.setCarQuantity(updatedCar.getCarQuantity());
-                return car;
-            }
+        if (id == null) {
+            return null;
         }
-        return null;
+        return carData.replace(id, current -> {
+            if (!isExpectedVersion(current, updatedCar)) {
+                throw new VersionConflictException(id, updatedCar.getVersion(), current.getVersion());
+            }
+            return applyUpdates(current, updatedCar);
+        });
     }
 
     public void delete(String id) {
-        carData.removeIf(car -> car.getCarId().equals(id));
+        if (id != null) {
+            carData.remove(id);
+        }
     }
 
+    public int updateAll(List<Car> cars) {
+        Map<String, UnaryOperator<Car>> updatersById = new LinkedHashMap<>();
+        for (Car updated : cars) {
+            if (updated != null && updated.getCarId() != null) {
+                updatersById.put(updated.getCarId(),
+                        current -> isExpectedVersion(current, updated) ? applyUpdates(current, updated) : null);
+            }
+        }
+        return carData.replaceAll(updatersById);
+    }
+
+    public int deleteAll(List<String> ids) {
+        return carData.removeAll(ids.stream().filter(Objects::nonNull).distinct().toList());
+    }
+
+    public List<Car> findByColor(String color, int limit) {
+        List<Car> cars = carData.getAll(colorIndex.find(color, limit));
+        COLOR_SEARCH_SCAN.record(cars.size());
+        return cars;
+    }
+
+    public void addListener(RepositoryListener<Car> listener) {
+        carData.onChange(listener);
+    }
+
+    public int count() {
+        return carData.size();
+    }
+
+    public ModificationTracker modifications() {
+        return modifications;
+    }
+
+    public ChangeFeed<Car> changes() {
+        return changes;
+    }
+
+    public StockStatistics<Car> statistics() {
+        return statistics;
+    }
+
+    private void reindex(Car previous, Car current) {
+        if (previous != null) {
+            colorIndex.remove(previous.getCarColor(), previous.getCarId());
+        }
+        if (current != null) {
+            colorIndex.add(current.getCarColor(), current.getCarId());
+        }
+    }
+
+    private void assignIdIfMissing(Car car) {
+        if (car.getCarId() == null) {
+            car.setCarId(idGenerator.nextId());
+        }
+    }
+
+    private void assignInitialVersion(Car car) {
+        if (car.getVersion() == 0) {
+            car.setVersion(1);
+        }
+    }
+
+    private void assignNewGeneration(Car car) {
+        car.setGeneration(ModificationTracker.nextGeneration());
+    }
+
+    private boolean isExpectedVersion(Car current, Car updated) {
+        return updated.getVersion() == 0 || updated.getVersion() == current.getVersion();
+    }
+
+    private Car applyUpdates(Car current, Car source) {
+        Car next = new Car();
+        next.setCarId(current.getCarId());
+        next.setCarName(source.getCarName());
+        next.setCarColor(source.getCarColor());
+        next.setCarQuantity(source.getCarQuantity());
+        next.setVersion(current.getVersion() + 1);
+        next.setGeneration(current.getGeneration());
+        return next;
+    }
 }
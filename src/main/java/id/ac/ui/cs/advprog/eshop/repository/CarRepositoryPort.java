@@ -1,12 +1,60 @@
 package id.ac.ui.cs.advprog.eshop.repository;
 
 import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Car storage shared by the heap and partitioned stores. The batch writes
+ * {@link #createAll}, {@link #updateAll} and {@link #deleteAll} are atomic
+ * only with respect to other writers: no write to the same ids interleaves
+ * with a batch, but readers take no locks and can observe a batch partly
+ * applied.
+ */
 public interface CarRepositoryPort {
+    /**
+     * Stores a new car.
+     * @throws VersionConflictException if its id is already taken
+     */
     Car create(Car car);
+    /** Stores the cars whose ids are not taken yet and returns those, skipping the rest. */
+    List<Car> createAll(List<Car> cars);
+    /**
+     * Stores the car as given, inserting or overwriting without a version
+     * check. Only for copies of writes already accepted elsewhere: recovery,
+     * replication and moves between partitions. Keeps the given generation,
+     * stamping a new one only when it has none.
+     */
+    Car upsert(Car car);
     Iterator<Car> findAll();
+    /**
+     * Unordered stream straight over the stored entities, splitting well for
+     * parallel reductions. Like {@link #findAll()} it is weakly consistent.
+     */
+    Stream<Car> stream();
+    Page<Car> findPage(String cursor, int size);
+    /**
+     * Whether {@link #findPage} lists a new entity after every entity already
+     * stored, so a create can only change the last page.
+     */
+    default boolean createsAppendToPages() {
+        return true;
+    }
+    List<Car> findByColor(String color, int limit);
     Car findById(String id);
+    /**
+     * Compare-and-set on {@code updatedCar.getVersion()}; version 0 skips the check.
+     * @throws VersionConflictException if the stored version differs
+     */
     Car update(String id, Car updatedCar);
     void delete(String id);
+    int updateAll(List<Car> cars);
+    int deleteAll(List<String> ids);
+    void addListener(RepositoryListener<Car> listener);
+    int count();
+    ModificationTracker modifications();
+    ChangeFeed<Car> changes();
+    StockStatistics<Car> statistics();
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CatalogSizeMetrics implements MeterBinder {
+    @Autowired
+    private ProductRepositoryPort productRepository;
+
+    @Autowired
+    private CarRepositoryPort carRepository;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("eshop.catalog.size", productRepository, ProductRepositoryPort::count)
+                .description("Entities currently stored")
+                .tag("entity", "product")
+                .register(registry);
+        Gauge.builder("eshop.catalog.size", carRepository, CarRepositoryPort::count)
+                .description("Entities currently stored")
+                .tag("entity", "car")
+                .register(registry);
+        bindStock(registry, "product", productRepository.statistics());
+        bindStock(registry, "car", carRepository.statistics());
+    }
+
+    private static void bindStock(MeterRegistry registry, String entity, StockStatistics<?> statistics) {
+        Gauge.builder("eshop.catalog.units", statistics, StockStatistics::totalUnits)
+                .description("Units in stock over all entities")
+                .tag("entity", entity)
+                .register(registry);
+        Gauge.builder("eshop.catalog.out.of.stock", statistics, StockStatistics::outOfStockCount)
+                .description("Entities with no units left")
+                .tag("entity", entity)
+                .register(registry);
+    }
+}
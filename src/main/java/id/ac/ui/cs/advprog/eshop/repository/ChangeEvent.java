@@ -0,0 +1,11 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+/**
+ * One committed change in a {@link ChangeFeed}. {@code entity} is the value
+ * after the change and null for deletes.
+ */
+public record ChangeEvent<T>(long sequence, Type type, String id, T entity, long timestamp) {
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+}
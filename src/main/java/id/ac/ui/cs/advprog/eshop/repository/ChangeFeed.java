@@ -0,0 +1,110 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Ordered feed of the changes applied to one repository, kept in a bounded
+ * ring. Every change gets the next sequence number while the repository
+ * still holds the id's lock, so the feed orders the changes of one id as
+ * they were committed. Writers never wait for readers: a full ring simply
+ * overwrites its oldest events, and a reader that fell that far behind is
+ * told so and resumes from the oldest event still held.
+ *
+ * <p>A reader stops at the first sequence number that has been claimed but
+ * not yet stored, so it never skips an event that is about to appear.
+ */
+public final class ChangeFeed<T> implements RepositoryListener<T> {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Events read from one position. {@code truncated} means events before
+     * the first one returned were overwritten before the reader got to them.
+     */
+    public record Slice<T>(List<ChangeEvent<T>> events, long nextSequence, boolean truncated) { }
+
+    private final AtomicReferenceArray<ChangeEvent<T>> ring;
+    private final int mask;
+    private final Function<T, String> idOf;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Void>> nextChange =
+            new AtomicReference<>(new CompletableFuture<>());
+
+    public ChangeFeed(Function<T, String> idOf) {
+        this(DEFAULT_CAPACITY, idOf);
+    }
+
+    public ChangeFeed(int capacity, Function<T, String> idOf) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Change feed capacity must be a power of two: " + capacity);
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.idOf = idOf;
+    }
+
+    @Override
+    public void onChange(T previous, T current) {
+        ChangeEvent.Type type = previous == null ? ChangeEvent.Type.CREATE
+                : current == null ? ChangeEvent.Type.DELETE
+                : ChangeEvent.Type.UPDATE;
+        long sequence = nextSequence.getAndIncrement();
+        ChangeEvent<T> event = new ChangeEvent<>(sequence, type,
+                idOf.apply(current != null ? current : previous), current, System.currentTimeMillis());
+        ring.accumulateAndGet((int) sequence & mask, event,
+                (stored, mine) -> stored == null || stored.sequence() < mine.sequence() ? mine : stored);
+    }
+
+    @Override
+    public void afterWrite() {
+        nextChange.getAndSet(new CompletableFuture<>()).complete(null);
+    }
+
+    public Slice<T> read(long fromSequence, int limit) {
+        long from = Math.max(fromSequence, 0);
+        long oldest = Math.max(0, nextSequence.get() - ring.length());
+        boolean truncated = from < oldest;
+        long sequence = Math.max(from, oldest);
+        List<ChangeEvent<T>> events = new ArrayList<>(Math.min(limit, 256));
+        while (events.size() < limit) {
+            ChangeEvent<T> event = ring.get((int) sequence & mask);
+            if (event == null || event.sequence() < sequence) {
+                break;
+            }
+            if (event.sequence() > sequence) {
+                if (!events.isEmpty()) {
+                    break;
+                }
+                truncated = true;
+                sequence = Math.max(sequence + 1, nextSequence.get() - ring.length());
+                continue;
+            }
+            events.add(event);
+            sequence++;
+        }
+        return new Slice<>(List.copyOf(events), sequence, truncated);
+    }
+
+    /**
+     * Completes after the next write. Check for events after taking the
+     * future, not before, so a change in between is not missed. Dependents
+     * run on the writing thread, so use the async variants for anything that
+     * may block.
+     */
+    public CompletableFuture<Void> nextChange() {
+        return nextChange.get();
+    }
+
+    public long nextSequence() {
+        return nextSequence.get();
+    }
+
+    public int capacity() {
+        return ring.length();
+    }
+}
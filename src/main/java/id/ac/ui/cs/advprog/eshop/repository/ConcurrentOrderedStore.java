@@ -0,0 +1,266 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Id-keyed store with O(1) lookups that still iterates in insertion order.
+ * Each entry gets a sequence number when first inserted; the hash index maps
+ * ids to their entry and the skip list keeps entries ordered by sequence.
+ * Writers lock only the stripe owning the id, readers never lock. Values are
+ * treated as immutable snapshots, so a reader sees either the old or the new
+ * value of an update and never a mix of both.
+ *
+ * <p>Pages use the insertion sequence of their last entry as the cursor, so a
+ * cursor stays valid and never skips or repeats entries when earlier entries
+ * are inserted or removed between requests.
+ *
+ * <p>Batch writes lock every stripe they touch once, in stripe order, and
+ * reserve one block of sequence numbers for all new entries, so concurrent
+ * writers never interleave with a batch. A batch is atomic only with respect
+ * to writers: readers take no locks and can see it partly applied.
+ *
+ * <p>{@link #insert} and {@link #insertAll} leave an id that is already
+ * taken alone, so creating can never overwrite a stored value; {@link #put}
+ * inserts or overwrites without looking, for copies of values that were
+ * already accepted elsewhere.
+ *
+ * <p>An updater passed to {@link #replace} or {@link #replaceAll} runs under
+ * the id's stripe lock, so it can compare-and-set on the current value; an
+ * updater returning {@code null} leaves the entry untouched.
+ *
+ * <p>Listeners are notified under the id's stripe lock with the previous and
+ * the new value ({@code null} for inserts and removals respectively), so
+ * derived structures observe the changes of one id in order.
+ */
+final class ConcurrentOrderedStore<T> {
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private record Entry<T>(long sequence, T value) { }
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<String, Entry<T>> entriesById = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, T> entriesBySequence = new ConcurrentSkipListMap<>();
+    private final LockStripes stripes = new LockStripes();
+    private final List<RepositoryListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    void onChange(RepositoryListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    T get(String id) {
+        Entry<T> entry = entriesById.get(id);
+        return entry == null ? null : entry.value();
+    }
+
+    /** Stores the value unless the id is taken; returns the value already stored, or null once inserted. */
+    T insert(String id, T value) {
+        ReentrantLock lock = stripes.forKey(id);
+        lock.lock();
+        try {
+            Entry<T> current = entriesById.get(id);
+            if (current != null) {
+                return current.value();
+            }
+            store(id, null, sequence.incrementAndGet(), value);
+            return null;
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+    }
+
+    void put(String id, T value) {
+        ReentrantLock lock = stripes.forKey(id);
+        lock.lock();
+        try {
+            Entry<T> current = entriesById.get(id);
+            store(id, current, current == null ? sequence.incrementAndGet() : current.sequence(), value);
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+    }
+
+    T replace(String id, UnaryOperator<T> updater) {
+        ReentrantLock lock = stripes.forKey(id);
+        lock.lock();
+        try {
+            return replaceLocked(id, updater);
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+    }
+
+    boolean remove(String id) {
+        ReentrantLock lock = stripes.forKey(id);
+        lock.lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+    }
+
+    /** Inserts the values whose ids are not taken and returns them, in the map's order. */
+    List<T> insertAll(Map<String, T> valuesById) {
+        List<ReentrantLock> locked = stripes.lockAll(valuesById.keySet());
+        try {
+            List<T> inserted = new ArrayList<>(valuesById.size());
+            for (Map.Entry<String, T> value : valuesById.entrySet()) {
+                if (!entriesById.containsKey(value.getKey())) {
+                    inserted.add(value.getValue());
+                }
+            }
+            long nextPosition = sequence.getAndAdd(inserted.size()) + 1;
+            for (Map.Entry<String, T> value : valuesById.entrySet()) {
+                if (!entriesById.containsKey(value.getKey())) {
+                    store(value.getKey(), null, nextPosition++, value.getValue());
+                }
+            }
+            return inserted;
+        } finally {
+            LockStripes.unlockAll(locked);
+            fireAfterWrite();
+        }
+    }
+
+    int replaceAll(Map<String, UnaryOperator<T>> updatersById) {
+        List<ReentrantLock> locked = stripes.lockAll(updatersById.keySet());
+        try {
+            int replaced = 0;
+            for (Map.Entry<String, UnaryOperator<T>> updater : updatersById.entrySet()) {
+                if (replaceLocked(updater.getKey(), updater.getValue()) != null) {
+                    replaced++;
+                }
+            }
+            return replaced;
+        } finally {
+            LockStripes.unlockAll(locked);
+            fireAfterWrite();
+        }
+    }
+
+    int removeAll(Collection<String> ids) {
+        List<ReentrantLock> locked = stripes.lockAll(ids);
+        try {
+            int removed = 0;
+            for (String id : ids) {
+                if (removeLocked(id)) {
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            LockStripes.unlockAll(locked);
+            fireAfterWrite();
+        }
+    }
+
+    Iterator<T> iterator() {
+        return Collections.unmodifiableCollection(entriesBySequence.values()).iterator();
+    }
+
+    /** Streams over the hash index, whose spliterator splits evenly, in no particular order. */
+    Stream<T> stream() {
+        return entriesById.values().stream().map(Entry::value);
+    }
+
+    Page<T> page(String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<T> items = new ArrayList<>(limit);
+        long lastSequence = 0;
+        for (Map.Entry<Long, T> entry : entriesBySequence.tailMap(parseCursor(cursor), false).entrySet()) {
+            if (items.size() == limit) {
+                return new Page<>(items, Long.toString(lastSequence));
+            }
+            items.add(entry.getValue());
+            lastSequence = entry.getKey();
+        }
+        return new Page<>(items, null);
+    }
+
+    List<T> getAll(List<String> ids) {
+        List<T> values = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            T value = get(id);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    int size() {
+        return entriesById.size();
+    }
+
+    private void store(String id, Entry<T> current, long position, T value) {
+        entriesBySequence.put(position, value);
+        entriesById.put(id, new Entry<>(position, value));
+        fireChange(current == null ? null : current.value(), value);
+    }
+
+    private T replaceLocked(String id, UnaryOperator<T> updater) {
+        Entry<T> current = entriesById.get(id);
+        if (current == null) {
+            return null;
+        }
+        T next = updater.apply(current.value());
+        if (next == null) {
+            return null;
+        }
+        store(id, current, current.sequence(), next);
+        return next;
+    }
+
+    private boolean removeLocked(String id) {
+        Entry<T> removed = entriesById.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        entriesBySequence.remove(removed.sequence());
+        fireChange(removed.value(), null);
+        return true;
+    }
+
+    private void fireChange(T previous, T current) {
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onChange(previous, current);
+        }
+    }
+
+    private void fireAfterWrite() {
+        for (RepositoryListener<T> listener : listeners) {
+            listener.afterWrite();
+        }
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
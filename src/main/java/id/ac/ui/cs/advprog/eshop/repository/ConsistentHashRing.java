@@ -0,0 +1,66 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Maps ids onto partitions through a hash ring with a number of virtual
+ * nodes per partition. The points of a partition depend only on its index,
+ * so the ring for {@code n + 1} partitions keeps every point of the ring for
+ * {@code n} and only the ids falling on the new partition's points move.
+ */
+final class ConsistentHashRing {
+    private final long[] points;
+    private final int[] owners;
+    private final int partitionCount;
+
+    private ConsistentHashRing(long[] points, int[] owners, int partitionCount) {
+        this.points = points;
+        this.owners = owners;
+        this.partitionCount = partitionCount;
+    }
+
+    static ConsistentHashRing of(int partitionCount, int virtualNodes) {
+        if (partitionCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one partition and one virtual node");
+        }
+        long[][] nodes = new long[partitionCount * virtualNodes][];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                nodes[partition * virtualNodes + node] =
+                        new long[] {hash("partition-" + partition + "#" + node), partition};
+            }
+        }
+        Arrays.sort(nodes, Comparator.<long[]>comparingLong(node -> node[0]).thenComparingLong(node -> node[1]));
+        long[] points = new long[nodes.length];
+        int[] owners = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            points[i] = nodes[i][0];
+            owners[i] = (int) nodes[i][1];
+        }
+        return new ConsistentHashRing(points, owners, partitionCount);
+    }
+
+    int partitionOf(String id) {
+        int index = Arrays.binarySearch(points, hash(id));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    int partitionCount() {
+        return partitionCount;
+    }
+
+    /** FNV-1a over the chars, then MurmurHash3's finalizer to spread it over the ring. */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,8 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+/**
+ * Source of ids for entities created without one.
+ */
+public interface IdGenerator {
+    String nextId();
+}
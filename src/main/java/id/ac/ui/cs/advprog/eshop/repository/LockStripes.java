@@ -0,0 +1,61 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks that ids hash onto. They are ReentrantLocks rather than
+ * monitors, so a virtual thread waiting for a stripe unmounts instead of
+ * pinning its carrier thread.
+ */
+final class LockStripes {
+    private final ReentrantLock[] stripes;
+
+    LockStripes() {
+        int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    ReentrantLock forKey(String key) {
+        return stripes[indexOf(key)];
+    }
+
+    List<ReentrantLock> lockAll(Collection<String> keys) {
+        boolean[] needed = new boolean[stripes.length];
+        for (String key : keys) {
+            needed[indexOf(key)] = true;
+        }
+        List<ReentrantLock> locked = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            if (needed[i]) {
+                stripes[i].lock();
+                locked.add(stripes[i]);
+            }
+        }
+        return locked;
+    }
+
+    /** Returns once every stripe that was held when called has been released. */
+    void awaitHolders() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+            stripe.unlock();
+        }
+    }
+
+    static void unlockAll(List<ReentrantLock> locked) {
+        for (int i = locked.size() - 1; i >= 0; i--) {
+            locked.get(i).unlock();
+        }
+    }
+
+    private int indexOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,128 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One memory-mapped column file. The mapping grows by doubling; a grown
+ * mapping covers the same file, so readers still holding the previous
+ * mapping keep seeing every write made through the new one.
+ *
+ * <p>Writes land in the page cache and the operating system writes them back
+ * when it chooses; {@link #force} and {@link #close} flush them to the device.
+ */
+final class MappedColumn implements AutoCloseable {
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long MAX_BYTES = Integer.MAX_VALUE & ~7L;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile MappedByteBuffer buffer;
+
+    MappedColumn(Path file, long initialBytes) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = map(Math.min(MAX_BYTES, Math.max(initialBytes, channel.size())));
+    }
+
+    long capacity() {
+        return buffer.capacity();
+    }
+
+    void ensureCapacity(long bytes) {
+        if (bytes <= buffer.capacity()) {
+            return;
+        }
+        if (bytes > MAX_BYTES) {
+            throw new IllegalStateException("Column " + file.getFileName() + " cannot grow past " + MAX_BYTES + " bytes");
+        }
+        growLock.lock();
+        try {
+            long size = buffer.capacity();
+            if (bytes <= size) {
+                return;
+            }
+            while (size < bytes) {
+                size = Math.min(MAX_BYTES, size * 2);
+            }
+            buffer = map(size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow column " + file.getFileName(), e);
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    int getInt(long offset) {
+        return (int) INTS.get(buffer, (int) offset);
+    }
+
+    int getIntVolatile(long offset) {
+        return (int) INTS.getVolatile(buffer, (int) offset);
+    }
+
+    void putInt(long offset, int value) {
+        INTS.set(buffer, (int) offset, value);
+    }
+
+    void putIntVolatile(long offset, int value) {
+        INTS.setVolatile(buffer, (int) offset, value);
+    }
+
+    long getLong(long offset) {
+        return (long) LONGS.get(buffer, (int) offset);
+    }
+
+    long getLongVolatile(long offset) {
+        return (long) LONGS.getVolatile(buffer, (int) offset);
+    }
+
+    void putLong(long offset, long value) {
+        LONGS.set(buffer, (int) offset, value);
+    }
+
+    boolean compareAndSetLong(long offset, long expected, long value) {
+        return LONGS.compareAndSet(buffer, (int) offset, expected, value);
+    }
+
+    byte getByte(long offset) {
+        return buffer.get((int) offset);
+    }
+
+    void getBytes(long offset, byte[] target) {
+        buffer.get((int) offset, target);
+    }
+
+    void putByte(long offset, byte value) {
+        buffer.put((int) offset, value);
+    }
+
+    void putBytes(long offset, byte[] source) {
+        buffer.put((int) offset, source);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private MappedByteBuffer map(long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+}
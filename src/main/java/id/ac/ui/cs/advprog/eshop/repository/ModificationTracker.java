@@ -0,0 +1,56 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the changes applied to one repository and remembers when the last
+ * one happened, so callers can tell whether anything changed without reading
+ * the data. Tags combine the counter, or an entity version, with the
+ * tracker's creation time, so a restarted repository never hands out a tag
+ * it used before for different data.
+ *
+ * <p>Versions restart at 1 when an id is deleted and created again, so an
+ * entity tag also carries the id and the entity's generation: a number
+ * repositories stamp on an entity each time its id is inserted and keep
+ * through updates and moves between partitions.
+ *
+ * <p>Repositories record a change only after it is visible to readers, so a
+ * caller that reads the tag and the last-modified time before the data can
+ * at worst label newer data with an older tag, never the other way round.
+ */
+public final class ModificationTracker {
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long lastModified = epoch;
+
+    void recordChange() {
+        changes.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    public long changeCount() {
+        return changes.get();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    public String catalogTag() {
+        return Long.toString(epoch, 36) + "-" + Long.toString(changes.get(), 36);
+    }
+
+    public String entityTag(String id, long generation, long version) {
+        return Long.toString(epoch, 36) + "-" + URLEncoder.encode(id, StandardCharsets.UTF_8)
+                + "-g" + Long.toString(generation, 36) + "-v" + Long.toString(version, 36);
+    }
+
+    /** Unique within the process, so no two creates share a generation even across partitions. */
+    static long nextGeneration() {
+        return GENERATIONS.incrementAndGet();
+    }
+}
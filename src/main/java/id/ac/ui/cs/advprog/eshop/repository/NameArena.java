@@ -0,0 +1,124 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+/**
+ * Name storage for {@link OffHeapProductRepository}: length-prefixed UTF-8
+ * strings in a mapped file, each in a slot sized to the next power of two
+ * that fits it. Slots freed by renames and deletes go on a free list for
+ * their size and are handed out again before the file grows, so a steady
+ * update load keeps the arena at a stable size. A slot only ever holds names
+ * of its own size, so its size can always be read back from its length
+ * prefix; that is how {@link #reclaimExcept} walks the file on open to rebuild
+ * the free lists, which live on the heap.
+ */
+final class NameArena implements AutoCloseable {
+    static final long NO_NAME = -1L;
+    private static final long HEADER_BYTES = Long.BYTES;
+    private static final int MIN_SLOT_BYTES = 16;
+
+    private final MappedColumn arena;
+    private final ReentrantLock freeLock = new ReentrantLock();
+    private final List<ArrayDeque<Long>> freeSlots = new ArrayList<>();
+
+    NameArena(Path file, long initialBytes) throws IOException {
+        arena = new MappedColumn(file, initialBytes);
+        if (arena.getLong(0) < HEADER_BYTES) {
+            arena.putLong(0, HEADER_BYTES);
+        }
+        for (int size = 0; size < Integer.SIZE; size++) {
+            freeSlots.add(new ArrayDeque<>());
+        }
+    }
+
+    String read(long offset) {
+        if (offset == NO_NAME) {
+            return null;
+        }
+        byte[] bytes = new byte[arena.getInt(offset)];
+        arena.getBytes(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    long allocate(String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        long slotBytes = slotBytes(bytes.length);
+        Long offset = takeFree(slotBytes);
+        if (offset == null) {
+            long end;
+            do {
+                offset = arena.getLongVolatile(0);
+                end = offset + slotBytes;
+                arena.ensureCapacity(end);
+            } while (!arena.compareAndSetLong(0, offset, end));
+        }
+        arena.putInt(offset, bytes.length);
+        arena.putBytes(offset + Integer.BYTES, bytes);
+        return offset;
+    }
+
+    /**
+     * Returns the slot to its free list. The caller must already have pointed
+     * its row elsewhere, so only readers that will fail their seqlock check
+     * can still be looking at the old bytes.
+     */
+    void free(long offset) {
+        if (offset == NO_NAME) {
+            return;
+        }
+        long slotBytes = slotBytes(arena.getInt(offset));
+        freeLock.lock();
+        try {
+            freeSlots.get(Long.numberOfTrailingZeros(slotBytes)).push(offset);
+        } finally {
+            freeLock.unlock();
+        }
+    }
+
+    /** Puts every slot that none of {@code liveOffsets} points at on its free list. */
+    void reclaimExcept(LongStream liveOffsets) {
+        BitSet live = new BitSet();
+        liveOffsets.filter(offset -> offset != NO_NAME)
+                .forEach(offset -> live.set(slotIndex(offset)));
+        long end = arena.getLong(0);
+        for (long offset = HEADER_BYTES; offset < end; offset += slotBytes(arena.getInt(offset))) {
+            if (!live.get(slotIndex(offset))) {
+                free(offset);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        arena.close();
+    }
+
+    private Long takeFree(long slotBytes) {
+        freeLock.lock();
+        try {
+            return freeSlots.get(Long.numberOfTrailingZeros(slotBytes)).poll();
+        } finally {
+            freeLock.unlock();
+        }
+    }
+
+    private static long slotBytes(int nameBytes) {
+        long needed = Integer.BYTES + (long) nameBytes;
+        return Math.max(MIN_SLOT_BYTES, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int slotIndex(long offset) {
+        return Math.toIntExact((offset - HEADER_BYTES) / MIN_SLOT_BYTES);
+    }
+}
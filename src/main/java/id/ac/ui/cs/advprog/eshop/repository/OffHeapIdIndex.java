@@ -0,0 +1,168 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Open-addressing hash index from id to row, stored in a direct buffer so it
+ * adds nothing to the heap. Each slot packs the id hash and the row into one
+ * long, letting most probes skip the id comparison. Lookups never lock;
+ * inserts and removals claim slots with compare-and-set and only exclude
+ * each other from a resize, which drops tombstones and doubles the table
+ * when it is more than half full.
+ */
+final class OffHeapIdIndex {
+    interface RowKeys {
+        boolean matches(int row, byte[] key);
+    }
+
+    private static final VarHandle SLOTS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long EMPTY = 0L;
+    private static final long TOMBSTONE = -1L;
+    private static final int MIN_SLOTS = 1024;
+    private static final int MAX_SLOTS = 1 << 27;
+
+    private final RowKeys rowKeys;
+    private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger occupied = new AtomicInteger();
+    private volatile ByteBuffer table;
+
+    OffHeapIdIndex(RowKeys rowKeys, int expectedEntries) {
+        this.rowKeys = rowKeys;
+        this.table = allocate(slotsFor(expectedEntries));
+    }
+
+    int find(byte[] key) {
+        ByteBuffer slots = table;
+        int mask = slotCount(slots) - 1;
+        int hash = hash(key);
+        for (int probe = 0, i = hash & mask; probe <= mask; probe++, i = (i + 1) & mask) {
+            long slot = (long) SLOTS.getVolatile(slots, i * Long.BYTES);
+            if (slot == EMPTY) {
+                return -1;
+            }
+            if (slot != TOMBSTONE && hashOf(slot) == hash && rowKeys.matches(rowOf(slot), key)) {
+                return rowOf(slot);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a key that is known to be absent. Callers serialise operations on
+     * the same key, so only different keys ever race for a slot.
+     */
+    void insert(byte[] key, int row) {
+        resizeLock.readLock().lock();
+        try {
+            ByteBuffer slots = table;
+            int mask = slotCount(slots) - 1;
+            int hash = hash(key);
+            long entry = ((long) hash << 32) | ((row + 1) & 0xffffffffL);
+            int i = hash & mask;
+            while (true) {
+                long slot = (long) SLOTS.getVolatile(slots, i * Long.BYTES);
+                if ((slot == EMPTY || slot == TOMBSTONE) && SLOTS.compareAndSet(slots, i * Long.BYTES, slot, entry)) {
+                    if (slot == EMPTY) {
+                        occupied.incrementAndGet();
+                    }
+                    live.incrementAndGet();
+                    break;
+                }
+                if (slot != EMPTY && slot != TOMBSTONE) {
+                    i = (i + 1) & mask;
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        if (occupied.get() > slotCount(table) / 2) {
+            resize();
+        }
+    }
+
+    void remove(byte[] key, int row) {
+        resizeLock.readLock().lock();
+        try {
+            ByteBuffer slots = table;
+            int mask = slotCount(slots) - 1;
+            for (int probe = 0, i = hash(key) & mask; probe <= mask; probe++, i = (i + 1) & mask) {
+                long slot = (long) SLOTS.getVolatile(slots, i * Long.BYTES);
+                if (slot == EMPTY) {
+                    return;
+                }
+                if (slot != TOMBSTONE && rowOf(slot) == row) {
+                    SLOTS.setVolatile(slots, i * Long.BYTES, TOMBSTONE);
+                    live.decrementAndGet();
+                    return;
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        return live.get();
+    }
+
+    private void resize() {
+        resizeLock.writeLock().lock();
+        try {
+            ByteBuffer current = table;
+            if (occupied.get() <= slotCount(current) / 2) {
+                return;
+            }
+            ByteBuffer resized = allocate(slotsFor(live.get()));
+            int mask = slotCount(resized) - 1;
+            for (int i = 0; i < slotCount(current); i++) {
+                long slot = (long) SLOTS.get(current, i * Long.BYTES);
+                if (slot != EMPTY && slot != TOMBSTONE) {
+                    int target = hashOf(slot) & mask;
+                    while ((long) SLOTS.get(resized, target * Long.BYTES) != EMPTY) {
+                        target = (target + 1) & mask;
+                    }
+                    SLOTS.set(resized, target * Long.BYTES, slot);
+                }
+            }
+            occupied.set(live.get());
+            table = resized;
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    private static ByteBuffer allocate(int slots) {
+        return ByteBuffer.allocateDirect(slots * Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private static int slotsFor(int entries) {
+        int wanted = (int) Math.min(MAX_SLOTS, Math.max(MIN_SLOTS, entries * 4L));
+        return Integer.highestOneBit(wanted - 1) << 1;
+    }
+
+    private static int slotCount(ByteBuffer slots) {
+        return slots.capacity() / Long.BYTES;
+    }
+
+    private static int hash(byte[] key) {
+        int hash = 1;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hashOf(long slot) {
+        return (int) (slot >>> 32);
+    }
+
+    private static int rowOf(long slot) {
+        return (int) slot - 1;
+    }
+}
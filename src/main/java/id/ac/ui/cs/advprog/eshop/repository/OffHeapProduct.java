@@ -0,0 +1,91 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+
+/**
+ * Read-only flyweight over one row of {@link OffHeapProductRepository}. The
+ * name and quantity are captured when the row is read, inside the row's
+ * seqlock, because the name's arena slot may be reused once the row is
+ * renamed; a view therefore keeps describing the version it was read from
+ * even after the row is updated. The id is decoded from its column only when
+ * asked for. The record version and generation are read from their own
+ * columns under the same seqlock.
+ */
+public final class OffHeapProduct extends Product {
+    private final OffHeapProductRepository store;
+    private final int row;
+    private final long nameOffset;
+    private final String name;
+    private final int quantity;
+    private final long version;
+    private final long generation;
+
+    OffHeapProduct(OffHeapProductRepository store, int row, long nameOffset, String name, int quantity,
+                   long version, long generation) {
+        this.store = store;
+        this.row = row;
+        this.nameOffset = nameOffset;
+        this.name = name;
+        this.quantity = quantity;
+        this.version = version;
+        this.generation = generation;
+    }
+
+    @Override
+    public String getProductId() {
+        return store.readId(row);
+    }
+
+    @Override
+    public String getProductName() {
+        return name;
+    }
+
+    @Override
+    public int getProductQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public void setProductId(String productId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setProductName(String productName) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setProductQuantity(int productQuantity) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setVersion(long version) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setGeneration(long generation) {
+        throw readOnly();
+    }
+
+    long nameOffset() {
+        return nameOffset;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Off-heap products are read-only views; use update instead");
+    }
+}
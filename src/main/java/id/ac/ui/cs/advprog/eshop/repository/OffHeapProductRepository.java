@@ -0,0 +1,644 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Product store that keeps records off the Java heap, in memory-mapped
+ * column files: a fixed-width id column, a name column holding offsets into
+ * a {@link NameArena}, a quantity column, and per-row status, sequence,
+ * record version and generation columns. Lookups go through an {@link OffHeapIdIndex} and return
+ * {@link OffHeapProduct} flyweights, so the records themselves cost the heap
+ * almost nothing. Name prefix search uses a sorted {@link SecondaryIndex}
+ * from name to row, the one part of the store kept on the heap.
+ *
+ * <p>Rows are appended in insertion order and not reused while the store is
+ * open, so iteration and keyset pages follow insertion order just like
+ * {@link ProductRepository}. Writers lock the id's stripe; readers use the
+ * row sequence as a seqlock and retry while a write is in flight. The record
+ * version and generation have columns of their own, so {@link #upsert}
+ * stores the ones it is given, as the other stores do. A write that keeps the
+ * name keeps its arena slot, and a rename or delete frees the old one for
+ * reuse.
+ *
+ * <p>The columns survive a restart: on open, live rows are moved down over
+ * deleted ones, keeping their order, and the indexes and the arena's free
+ * lists are rebuilt from the files in the configured directory. Writes reach
+ * the files through the page cache and are forced to disk only on
+ * {@link #close}, so a process crash loses nothing but a machine crash can
+ * lose recent writes; durability across power loss comes from the journal.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "eshop.repository", name = "product-store", havingValue = "offheap")
+public class OffHeapProductRepository implements ProductRepositoryPort, AutoCloseable {
+    private static final int ID_WIDTH = 64;
+    private static final int MAX_ID_BYTES = ID_WIDTH - 1;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_INITIAL_ROWS = 1 << 14;
+    private static final int FREE = 0;
+    private static final int LIVE = 1;
+    private static final int DELETED = 2;
+    private static final DistributionSummary PAGE_SCAN = RepositoryMetrics.scanLength("product", "page");
+    private static final DistributionSummary NAME_SEARCH_SCAN = RepositoryMetrics.scanLength("product", "name-prefix");
+
+    private final MappedColumn ids;
+    private final MappedColumn names;
+    private final MappedColumn quantities;
+    private final MappedColumn statuses;
+    private final MappedColumn sequences;
+    private final MappedColumn recordVersions;
+    private final MappedColumn generations;
+    private final NameArena nameArena;
+    private final OffHeapIdIndex index;
+    private final SecondaryIndex<Integer> nameIndex = SecondaryIndex.sorted();
+    private final LockStripes stripes = new LockStripes();
+    private final ReentrantLock allocationLock = new ReentrantLock();
+    private final AtomicInteger rowCount = new AtomicInteger();
+    private final List<RepositoryListener<Product>> listeners = new CopyOnWriteArrayList<>();
+    private final IdGenerator idGenerator;
+    private final ModificationTracker modifications = new ModificationTracker();
+    private final ChangeFeed<Product> changes = new ChangeFeed<>(Product::getProductId);
+    private final StockStatistics<Product> statistics = new StockStatistics<>(Product::getProductQuantity);
+
+    @Autowired
+    public OffHeapProductRepository(@Value("${eshop.repository.offheap.directory:data/products-offheap}") String directory,
+                                    IdGenerator idGenerator) throws IOException {
+        this(Path.of(directory), DEFAULT_INITIAL_ROWS, idGenerator);
+    }
+
+    OffHeapProductRepository(Path directory, int initialRows) throws IOException {
+        this(directory, initialRows, new TimeOrderedIdGenerator());
+    }
+
+    OffHeapProductRepository(Path directory, int initialRows, IdGenerator idGenerator) throws IOException {
+        this.idGenerator = idGenerator;
+        Files.createDirectories(directory);
+        ids = new MappedColumn(directory.resolve("ids.col"), (long) initialRows * ID_WIDTH);
+        names = new MappedColumn(directory.resolve("names.col"), (long) initialRows * Long.BYTES);
+        quantities = new MappedColumn(directory.resolve("quantities.col"), (long) initialRows * Integer.BYTES);
+        statuses = new MappedColumn(directory.resolve("statuses.col"), (long) initialRows * Integer.BYTES);
+        sequences = new MappedColumn(directory.resolve("versions.col"), (long) initialRows * Integer.BYTES);
+        recordVersions = new MappedColumn(directory.resolve("record-versions.col"), (long) initialRows * Long.BYTES);
+        generations = new MappedColumn(directory.resolve("generations.col"), (long) initialRows * Long.BYTES);
+        nameArena = new NameArena(directory.resolve("names.arena"), (long) initialRows * 32);
+        index = new OffHeapIdIndex(this::idMatches, initialRows);
+        reopenRows();
+        listeners.add(changes);
+        stream().forEach(product -> statistics.onChange(null, product));
+        listeners.add(statistics);
+    }
+
+    public Product create(Product product) {
+        assignIdIfMissing(product);
+        assignInitialVersion(product);
+        assignNewGeneration(product);
+        byte[] key = encodeId(product.getProductId());
+        ReentrantLock lock = stripes.forKey(product.getProductId());
+        lock.lock();
+        try {
+            OffHeapProduct existing = insertLocked(key, product);
+            if (existing != null) {
+                throw new VersionConflictException(product.getProductId(), 0, existing.getVersion());
+            }
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+        return product;
+    }
+
+    public List<Product> createAll(List<Product> products) {
+        Map<String, Product> productsById = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product != null) {
+                assignIdIfMissing(product);
+                assignInitialVersion(product);
+                assignNewGeneration(product);
+                encodeId(product.getProductId());
+                productsById.put(product.getProductId(), product);
+            }
+        }
+        List<Product> created = new ArrayList<>(productsById.size());
+        List<ReentrantLock> locked = stripes.lockAll(productsById.keySet());
+        try {
+            for (Product product : productsById.values()) {
+                if (insertLocked(encodeId(product.getProductId()), product) == null) {
+                    created.add(product);
+                }
+            }
+        } finally {
+            LockStripes.unlockAll(locked);
+            fireAfterWrite();
+        }
+        return created;
+    }
+
+    public Product upsert(Product product) {
+        assignIdIfMissing(product);
+        byte[] key = encodeId(product.getProductId());
+        long version = product.getVersion() == 0 ? 1 : product.getVersion();
+        long generation = product.getGeneration() == 0 ? ModificationTracker.nextGeneration() : product.getGeneration();
+        ReentrantLock lock = stripes.forKey(product.getProductId());
+        lock.lock();
+        try {
+            return upsertLocked(key, product, version, generation);
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+    }
+
+    public Iterator<Product> findAll() {
+        return new Iterator<>() {
+            private int nextRow;
+            private Product next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Product next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Product current = next;
+                next = advance();
+                return current;
+            }
+
+            private Product advance() {
+                while (nextRow < rowCount.get()) {
+                    Product product = readRow(nextRow++);
+                    if (product != null) {
+                        return product;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    public Stream<Product> stream() {
+        return IntStream.range(0, rowCount.get())
+                .<Product>mapToObj(this::readRow)
+                .filter(Objects::nonNull);
+    }
+
+    public Page<Product> findPage(String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Product> items = new ArrayList<>(limit);
+        int firstRow = parseCursor(cursor);
+        int lastRow = -1;
+        for (int row = firstRow; row < rowCount.get(); row++) {
+            Product product = readRow(row);
+            if (product == null) {
+                continue;
+            }
+            if (items.size() == limit) {
+                PAGE_SCAN.record(row - firstRow);
+                return new Page<>(items, Integer.toString(lastRow + 1));
+            }
+            items.add(product);
+            lastRow = row;
+        }
+        PAGE_SCAN.record(rowCount.get() - firstRow);
+        return new Page<>(items, null);
+    }
+
+    public List<Product> findByNamePrefix(String prefix, int limit) {
+        List<Product> result = new ArrayList<>();
+        for (int row : nameIndex.findByPrefix(prefix, limit)) {
+            Product product = readRow(row);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        NAME_SEARCH_SCAN.record(result.size());
+        return result;
+    }
+
+    public boolean delete(String id) {
+        if (id == null || id.isBlank()) {
+            return false;
+        }
+        ReentrantLock lock = stripes.forKey(id);
+        lock.lock();
+        try {
+            return deleteLocked(id);
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+    }
+
+    public Product findById(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        int row = findRow(id);
+        return row < 0 ? null : readRow(row);
+    }
+
+    public boolean update(Product updated) {
+        if (!isValidForUpdate(updated)) {
+            return false;
+        }
+        ReentrantLock lock = stripes.forKey(updated.getProductId());
+        lock.lock();
+        try {
+            return updateLocked(updated, true);
+        } finally {
+            lock.unlock();
+            fireAfterWrite();
+        }
+    }
+
+    public int updateAll(List<Product> products) {
+        Map<String, Product> productsById = new LinkedHashMap<>();
+        for (Product updated : products) {
+            if (isValidForUpdate(updated)) {
+                productsById.put(updated.getProductId(), updated);
+            }
+        }
+        List<ReentrantLock> locked = stripes.lockAll(productsById.keySet());
+        try {
+            int replaced = 0;
+            for (Product updated : productsById.values()) {
+                if (updateLocked(updated, false)) {
+                    replaced++;
+                }
+            }
+            return replaced;
+        } finally {
+            LockStripes.unlockAll(locked);
+            fireAfterWrite();
+        }
+    }
+
+    public int deleteAll(List<String> ids) {
+        List<String> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !id.isBlank())
+                .distinct()
+                .toList();
+        List<ReentrantLock> locked = stripes.lockAll(distinctIds);
+        try {
+            int removed = 0;
+            for (String id : distinctIds) {
+                if (deleteLocked(id)) {
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            LockStripes.unlockAll(locked);
+            fireAfterWrite();
+        }
+    }
+
+    public void addListener(RepositoryListener<Product> listener) {
+        listeners.add(listener);
+    }
+
+    public int count() {
+        return index.size();
+    }
+
+    public ModificationTracker modifications() {
+        return modifications;
+    }
+
+    public ChangeFeed<Product> changes() {
+        return changes;
+    }
+
+    public StockStatistics<Product> statistics() {
+        return statistics;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (MappedColumn column : List.of(ids, names, quantities, statuses, sequences, recordVersions, generations)) {
+            column.close();
+        }
+        nameArena.close();
+    }
+
+    String readId(int row) {
+        long offset = (long) row * ID_WIDTH;
+        byte[] bytes = new byte[ids.getByte(offset) & 0xff];
+        ids.getBytes(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Inserts the product unless its id is taken; returns the stored product, or null once inserted. */
+    private OffHeapProduct insertLocked(byte[] key, Product product) {
+        int row = index.find(key);
+        if (row >= 0) {
+            return readRow(row);
+        }
+        upsertLocked(key, product, product.getVersion(), product.getGeneration());
+        return null;
+    }
+
+    /** Stores the product with the given version and generation; never modifies the argument. */
+    private OffHeapProduct upsertLocked(byte[] key, Product product, long version, long generation) {
+        int row = index.find(key);
+        OffHeapProduct previous = row < 0 ? null : readRow(row);
+        long nameOffset = storeName(previous, product.getProductName());
+        if (row < 0) {
+            row = allocateRow();
+            long offset = (long) row * ID_WIDTH;
+            ids.putByte(offset, (byte) key.length);
+            ids.putBytes(offset + 1, key);
+            writeRow(row, nameOffset, product.getProductQuantity(), LIVE, version, generation);
+            index.insert(key, row);
+        } else {
+            writeRow(row, nameOffset, product.getProductQuantity(), LIVE, version, generation);
+        }
+        releaseName(previous, nameOffset);
+        OffHeapProduct current = new OffHeapProduct(this, row, nameOffset, product.getProductName(),
+                product.getProductQuantity(), version, generation);
+        reindexName(row, previous, current);
+        fireChange(previous, current);
+        return current;
+    }
+
+    private boolean updateLocked(Product updated, boolean failOnConflict) {
+        int row = findRow(updated.getProductId());
+        OffHeapProduct previous = row < 0 ? null : readRow(row);
+        if (previous == null) {
+            return false;
+        }
+        if (updated.getVersion() != 0 && updated.getVersion() != previous.getVersion()) {
+            if (failOnConflict) {
+                throw new VersionConflictException(updated.getProductId(), updated.getVersion(), previous.getVersion());
+            }
+            return false;
+        }
+        long nameOffset = storeName(previous, updated.getProductName());
+        long version = previous.getVersion() + 1;
+        writeRow(row, nameOffset, updated.getProductQuantity(), LIVE, version, previous.getGeneration());
+        releaseName(previous, nameOffset);
+        OffHeapProduct current = new OffHeapProduct(this, row, nameOffset, updated.getProductName(),
+                updated.getProductQuantity(), version, previous.getGeneration());
+        reindexName(row, previous, current);
+        fireChange(previous, current);
+        return true;
+    }
+
+    private boolean deleteLocked(String id) {
+        int row = findRow(id);
+        OffHeapProduct previous = row < 0 ? null : readRow(row);
+        if (previous == null) {
+            return false;
+        }
+        writeRow(row, NameArena.NO_NAME, previous.getProductQuantity(), DELETED, previous.getVersion(),
+                previous.getGeneration());
+        nameArena.free(previous.nameOffset());
+        index.remove(encodeId(id), row);
+        reindexName(row, previous, null);
+        fireChange(previous, null);
+        return true;
+    }
+
+    private int findRow(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        return key.length > MAX_ID_BYTES ? -1 : index.find(key);
+    }
+
+    private OffHeapProduct readRow(int row) {
+        long offset = (long) row * Integer.BYTES;
+        long wideOffset = (long) row * Long.BYTES;
+        while (true) {
+            int sequence = sequences.getIntVolatile(offset);
+            if ((sequence & 1) == 0) {
+                long nameOffset = names.getLong(wideOffset);
+                int quantity = quantities.getInt(offset);
+                int status = statuses.getInt(offset);
+                long version = recordVersions.getLong(wideOffset);
+                long generation = generations.getLong(wideOffset);
+                String name = status == LIVE ? nameArena.read(nameOffset) : null;
+                VarHandle.loadLoadFence();
+                if (sequences.getIntVolatile(offset) == sequence) {
+                    return status == LIVE
+                            ? new OffHeapProduct(this, row, nameOffset, name, quantity, version, generation)
+                            : null;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void writeRow(int row, long nameOffset, int quantity, int status, long version, long generation) {
+        long offset = (long) row * Integer.BYTES;
+        long wideOffset = (long) row * Long.BYTES;
+        int sequence = sequences.getInt(offset);
+        sequences.putIntVolatile(offset, sequence + 1);
+        VarHandle.storeStoreFence();
+        names.putLong(wideOffset, nameOffset);
+        quantities.putInt(offset, quantity);
+        statuses.putInt(offset, status);
+        recordVersions.putLong(wideOffset, version);
+        generations.putLong(wideOffset, generation);
+        sequences.putIntVolatile(offset, sequence + 2);
+    }
+
+    private int allocateRow() {
+        allocationLock.lock();
+        try {
+            int row = rowCount.get();
+            long rows = row + 1L;
+            ids.ensureCapacity(rows * ID_WIDTH);
+            names.ensureCapacity(rows * Long.BYTES);
+            quantities.ensureCapacity(rows * Integer.BYTES);
+            statuses.ensureCapacity(rows * Integer.BYTES);
+            sequences.ensureCapacity(rows * Integer.BYTES);
+            recordVersions.ensureCapacity(rows * Long.BYTES);
+            generations.ensureCapacity(rows * Long.BYTES);
+            rowCount.set(row + 1);
+            return row;
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    /** Keeps the previous row's arena slot when the name is unchanged. */
+    private long storeName(OffHeapProduct previous, String name) {
+        if (previous != null && Objects.equals(previous.getProductName(), name)) {
+            return previous.nameOffset();
+        }
+        return nameArena.allocate(name);
+    }
+
+    private void releaseName(OffHeapProduct previous, long nameOffset) {
+        if (previous != null && previous.nameOffset() != nameOffset) {
+            nameArena.free(previous.nameOffset());
+        }
+    }
+
+    private void reindexName(int row, Product previous, Product current) {
+        if (previous != null && (current == null
+                || !Objects.equals(previous.getProductName(), current.getProductName()))) {
+            nameIndex.remove(previous.getProductName(), row);
+        }
+        if (current != null) {
+            nameIndex.add(current.getProductName(), row);
+        }
+    }
+
+    /**
+     * Moves every live row down over the deleted ones, keeping their order.
+     * A row is copied before its old place is freed, so a crash in between
+     * leaves two live copies; the later one is dropped on the next open.
+     * Rows written before versions and generations had columns of their own
+     * take the version from the sequence and a fresh generation.
+     */
+    private void reopenRows() {
+        int rows = (int) (statuses.capacity() / Integer.BYTES);
+        int live = 0;
+        int lastUsed = -1;
+        for (int row = 0; row < rows; row++) {
+            long offset = (long) row * Integer.BYTES;
+            int status = statuses.getInt(offset);
+            if (status == FREE) {
+                continue;
+            }
+            lastUsed = row;
+            int sequence = sequences.getInt(offset);
+            if ((sequence & 1) != 0) {
+                sequences.putInt(offset, ++sequence);
+            }
+            long wideOffset = (long) row * Long.BYTES;
+            if (recordVersions.getLong(wideOffset) == 0) {
+                recordVersions.putLong(wideOffset, Math.max(1, sequence >>> 1));
+            }
+            if (generations.getLong(wideOffset) == 0) {
+                generations.putLong(wideOffset, ModificationTracker.nextGeneration());
+            }
+            byte[] key = status == LIVE ? encodeId(readId(row)) : null;
+            if (key == null || index.find(key) >= 0) {
+                continue;
+            }
+            if (row != live) {
+                moveRow(row, live);
+            }
+            index.insert(key, live);
+            nameIndex.add(nameArena.read(names.getLong((long) live * Long.BYTES)), live);
+            live++;
+        }
+        for (int row = live; row <= lastUsed; row++) {
+            statuses.putInt((long) row * Integer.BYTES, FREE);
+            sequences.putInt((long) row * Integer.BYTES, 0);
+            recordVersions.putLong((long) row * Long.BYTES, 0);
+            generations.putLong((long) row * Long.BYTES, 0);
+        }
+        rowCount.set(live);
+        nameArena.reclaimExcept(IntStream.range(0, live).mapToLong(row -> names.getLong((long) row * Long.BYTES)));
+    }
+
+    private void moveRow(int from, int to) {
+        byte[] id = new byte[ID_WIDTH];
+        ids.getBytes((long) from * ID_WIDTH, id);
+        ids.putBytes((long) to * ID_WIDTH, id);
+        names.putLong((long) to * Long.BYTES, names.getLong((long) from * Long.BYTES));
+        quantities.putInt((long) to * Integer.BYTES, quantities.getInt((long) from * Integer.BYTES));
+        sequences.putInt((long) to * Integer.BYTES, sequences.getInt((long) from * Integer.BYTES));
+        recordVersions.putLong((long) to * Long.BYTES, recordVersions.getLong((long) from * Long.BYTES));
+        generations.putLong((long) to * Long.BYTES, generations.getLong((long) from * Long.BYTES));
+        statuses.putInt((long) to * Integer.BYTES, LIVE);
+        statuses.putInt((long) from * Integer.BYTES, FREE);
+    }
+
+    private boolean idMatches(int row, byte[] key) {
+        long offset = (long) row * ID_WIDTH;
+        if ((ids.getByte(offset) & 0xff) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (ids.getByte(offset + 1 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fireChange(Product previous, Product current) {
+        modifications.recordChange();
+        for (RepositoryListener<Product> listener : listeners) {
+            listener.onChange(previous, current);
+        }
+    }
+
+    private void fireAfterWrite() {
+        for (RepositoryListener<Product> listener : listeners) {
+            listener.afterWrite();
+        }
+    }
+
+    private void assignIdIfMissing(Product product) {
+        if (product.getProductId() == null || product.getProductId().isBlank()) {
+            product.setProductId(idGenerator.nextId());
+        }
+    }
+
+    private void assignInitialVersion(Product product) {
+        if (product.getVersion() == 0) {
+            product.setVersion(1);
+        }
+    }
+
+    private void assignNewGeneration(Product product) {
+        product.setGeneration(ModificationTracker.nextGeneration());
+    }
+
+    private boolean isValidForUpdate(Product product) {
+        return product != null
+                && product.getProductId() != null
+                && !product.getProductId().isBlank();
+    }
+
+    private static byte[] encodeId(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Product id longer than " + MAX_ID_BYTES + " bytes: " + id);
+        }
+        return key;
+    }
+
+    private static int parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -1,22 +1,77 @@
 package id.ac.ui.cs.advprog.eshop.repository;
 
 import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
-import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Repository
+@ConditionalOnProperty(prefix = "eshop.repository", name = "product-store", havingValue = "heap", matchIfMissing = true)
 public class ProductRepository implements ProductRepositoryPort{
-    private final List<Product> productData = new ArrayList<>();
+    private static final DistributionSummary PAGE_SCAN = RepositoryMetrics.scanLength("product", "page");
+    private static final DistributionSummary NAME_SEARCH_SCAN = RepositoryMetrics.scanLength("product", "name-prefix");
+
+    private final ConcurrentOrderedStore<Product> productData = new ConcurrentOrderedStore<>();
+    private final SecondaryIndex<String> nameIndex = SecondaryIndex.sorted();
+    private final IdGenerator idGenerator;
+    private final ModificationTracker modifications = new ModificationTracker();
+    private final ChangeFeed<Product> changes = new ChangeFeed<>(Product::getProductId);
+    private final StockStatistics<Product> statistics = new StockStatistics<>(Product::getProductQuantity);
+
+    public ProductRepository() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Autowired
+    public ProductRepository(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+        productData.onChange(this::reindex);
+        productData.onChange((previous, current) -> modifications.recordChange());
+        productData.onChange(changes);
+        productData.onChange(statistics);
+    }
 
     public Product create(Product product) {
-        if (product.getProductId() == null || product.getProductId().isBlank()) {
-            product.setProductId(UUID.randomUUID().toString());
+        assignIdIfMissing(product);
+        assignInitialVersion(product);
+        assignNewGeneration(product);
+        Product existing = productData.insert(product.getProductId(), product);
+        if (existing != null) {
+            throw new VersionConflictException(product.getProductId(), 0, existing.getVersion());
         }
-        productData.add(product);
+        return product;
+    }
+
+    public List<Product> createAll(List<Product> products) {
+        Map<String, Product> productsById = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product != null) {
+                assignIdIfMissing(product);
+                assignInitialVersion(product);
+                assignNewGeneration(product);
+                productsById.put(product.getProductId(), product);
+            }
+        }
+        return productData.insertAll(productsById);
+    }
+
+    public Product upsert(Product product) {
+        assignIdIfMissing(product);
+        assignInitialVersion(product);
+        if (product.getGeneration() == 0) {
+            assignNewGeneration(product);
+        }
+        productData.put(product.getProductId(), product);
         return product;
     }
 
@@ -24,36 +79,114 @@ public class ProductRepository implements ProductRepositoryPort{
         return productData.iterator();
     }
 
+    public Stream<Product> stream() {
+        return productData.stream();
+    }
+
+    public Page<Product> findPage(String cursor, int size) {
+        Page<Product> page = productData.page(cursor, size);
+        PAGE_SCAN.record(page.getItems().size());
+        return page;
+    }
+
     public boolean delete(String id) {
         if (id == null || id.isBlank()) {
             return false;
         }
-        return productData.removeIf(p -> id.equals(p.getProductId()));
+        return productData.remove(id);
     }
 
     public Product findById(String id) {
         if (id == null || id.isBlank()) {
             return null;
         }
-
-        return productData.stream()
-                .filter(p -> id.equals(p.getProductId()))
-                .findFirst()
-                .orElse(null);
+        return productData.get(id);
     }
 
     public boolean update(Product updated) {
         if (!isValidForUpdate(updated)) {
             return false;
         }
+        return productData.replace(updated.getProductId(), current -> {
+            if (!isExpectedVersion(current, updated)) {
+                throw new VersionConflictException(current.getProductId(), updated.getVersion(), current.getVersion());
+            }
+            return applyUpdates(current, updated);
+        }) != null;
+    }
 
-        for (Product current : productData) {
-            if (updated.getProductId().equals(current.getProductId())) {
-                applyUpdates(current, updated);
-                return true;
+    public int updateAll(List<Product> products) {
+        Map<String, UnaryOperator<Product>> updatersById = new LinkedHashMap<>();
+        for (Product updated : products) {
+            if (isValidForUpdate(updated)) {
+                updatersById.put(updated.getProductId(),
+                        current -> isExpectedVersion(current, updated) ? applyUpdates(current, updated) : null);
             }
         }
-        return false;
+        return productData.replaceAll(updatersById);
+    }
+
+    public int deleteAll(List<String> ids) {
+        return productData.removeAll(ids.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !id.isBlank())
+                .distinct()
+                .toList());
+    }
+
+    public List<Product> findByNamePrefix(String prefix, int limit) {
+        List<Product> products = productData.getAll(nameIndex.findByPrefix(prefix, limit));
+        NAME_SEARCH_SCAN.record(products.size());
+        return products;
+    }
+
+    public void addListener(RepositoryListener<Product> listener) {
+        productData.onChange(listener);
+    }
+
+    public int count() {
+        return productData.size();
+    }
+
+    public ModificationTracker modifications() {
+        return modifications;
+    }
+
+    public ChangeFeed<Product> changes() {
+        return changes;
+    }
+
+    public StockStatistics<Product> statistics() {
+        return statistics;
+    }
+
+    private void reindex(Product previous, Product current) {
+        if (previous != null) {
+            nameIndex.remove(previous.getProductName(), previous.getProductId());
+        }
+        if (current != null) {
+            nameIndex.add(current.getProductName(), current.getProductId());
+        }
+    }
+
+    private void assignIdIfMissing(Product product) {
+        if (product.getProductId() == null || product.getProductId().isBlank()) {
+            product.setProductId(idGenerator.nextId());
+        }
+    }
+
+    private void assignInitialVersion(Product product) {
+        if (product.getVersion() == 0) {
+            product.setVersion(1);
+        }
+    }
+
+    private void assignNewGeneration(Product product) {
+        product.setGeneration(ModificationTracker.nextGeneration());
+    }
+
+    private boolean isExpectedVersion(Product current, Product updated) {
+        return updated.getVersion() == 0 || updated.getVersion() == current.getVersion();
     }
 
     private boolean isValidForUpdate(Product product) {
@@ -62,8 +195,13 @@ public class ProductRepository implements ProductRepositoryPort{
                 && !product.getProductId().isBlank();
     }
 
-    private void applyUpdates(Product target, Product source) {
-        target.setProductName(source.getProductName());
-        target.setProductQuantity(source.getProductQuantity());
+    private Product applyUpdates(Product target, Product source) {
+        Product next = new Product();
+        next.setProductId(target.getProductId());
+        next.setProductName(source.getProductName());
+        next.setProductQuantity(source.getProductQuantity());
+        next.setVersion(target.getVersion() + 1);
+        next.setGeneration(target.getGeneration());
+        return next;
     }
 }
@@ -1,12 +1,60 @@
 package id.ac.ui.cs.advprog.eshop.repository;
 
 import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.Page;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Product storage shared by the heap, off-heap and partitioned stores. The batch
+ * writes {@link #createAll}, {@link #updateAll} and {@link #deleteAll} are
+ * atomic only with respect to other writers: no write to the same ids
+ * interleaves with a batch, but readers take no locks and can observe a
+ * batch partly applied.
+ */
 public interface ProductRepositoryPort {
+    /**
+     * Stores a new product.
+     * @throws VersionConflictException if its id is already taken
+     */
     Product create(Product product);
+    /** Stores the products whose ids are not taken yet and returns those, skipping the rest. */
+    List<Product> createAll(List<Product> products);
+    /**
+     * Stores the product as given, inserting or overwriting without a version
+     * check. Only for copies of writes already accepted elsewhere: recovery,
+     * replication and moves between partitions. Keeps the given generation,
+     * stamping a new one only when it has none.
+     */
+    Product upsert(Product product);
     Iterator<Product> findAll();
+    /**
+     * Unordered stream straight over the stored entities, splitting well for
+     * parallel reductions. Like {@link #findAll()} it is weakly consistent.
+     */
+    Stream<Product> stream();
+    Page<Product> findPage(String cursor, int size);
+    /**
+     * Whether {@link #findPage} lists a new entity after every entity already
+     * stored, so a create can only change the last page.
+     */
+    default boolean createsAppendToPages() {
+        return true;
+    }
+    List<Product> findByNamePrefix(String prefix, int limit);
     boolean delete(String id);
     Product findById(String id);
+    /**
+     * Compare-and-set on {@code updated.getVersion()}; version 0 skips the check.
+     * @throws VersionConflictException if the stored version differs
+     */
     boolean update(Product updated);
+    int updateAll(List<Product> products);
+    int deleteAll(List<String> ids);
+    void addListener(RepositoryListener<Product> listener);
+    int count();
+    ModificationTracker modifications();
+    ChangeFeed<Product> changes();
+    StockStatistics<Product> statistics();
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(prefix = "eshop.repository", name = "id-generator", havingValue = "random-uuid")
+public class RandomUuidIdGenerator implements IdGenerator {
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
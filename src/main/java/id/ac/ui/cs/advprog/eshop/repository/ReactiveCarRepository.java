@@ -0,0 +1,50 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Repository
+public class ReactiveCarRepository implements ReactiveCarRepositoryPort {
+    @Autowired
+    private CarRepositoryPort carRepository;
+
+    @Override
+    public Mono<Car> create(Car car) {
+        return Mono.fromCallable(() -> carRepository.create(car)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Car> findAll() {
+        return Flux.fromIterable(() -> carRepository.findAll());
+    }
+
+    @Override
+    public Mono<Page<Car>> findPage(String cursor, int size) {
+        return Mono.fromSupplier(() -> carRepository.findPage(cursor, size));
+    }
+
+    @Override
+    public Flux<Car> findByColor(String color, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(carRepository.findByColor(color, limit)));
+    }
+
+    @Override
+    public Mono<Car> findById(String id) {
+        return Mono.fromSupplier(() -> carRepository.findById(id));
+    }
+
+    @Override
+    public Mono<Car> update(String id, Car updatedCar) {
+        return Mono.fromCallable(() -> carRepository.update(id, updatedCar)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> delete(String id) {
+        return Mono.fromRunnable(() -> carRepository.delete(id)).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+}
@@ -0,0 +1,22 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCarRepositoryPort {
+    Mono<Car> create(Car car);
+
+    Flux<Car> findAll();
+
+    Mono<Page<Car>> findPage(String cursor, int size);
+
+    Flux<Car> findByColor(String color, int limit);
+
+    Mono<Car> findById(String id);
+
+    Mono<Car> update(String id, Car updatedCar);
+
+    Mono<Void> delete(String id);
+}
@@ -0,0 +1,57 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive view of whichever {@link ProductRepositoryPort} is active. Reads
+ * only touch in-memory snapshots, so they run on the subscribing thread and
+ * {@link #findAll()} walks the store's iterator one element per request.
+ * Writes may wait for the write-ahead log, so they are moved to the
+ * bounded elastic scheduler instead of blocking the caller.
+ */
+@Repository
+public class ReactiveProductRepository implements ReactiveProductRepositoryPort {
+    @Autowired
+    private ProductRepositoryPort productRepository;
+
+    @Override
+    public Mono<Product> create(Product product) {
+        return Mono.fromCallable(() -> productRepository.create(product)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Product> findAll() {
+        return Flux.fromIterable(() -> productRepository.findAll());
+    }
+
+    @Override
+    public Mono<Page<Product>> findPage(String cursor, int size) {
+        return Mono.fromSupplier(() -> productRepository.findPage(cursor, size));
+    }
+
+    @Override
+    public Flux<Product> findByNamePrefix(String prefix, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(productRepository.findByNamePrefix(prefix, limit)));
+    }
+
+    @Override
+    public Mono<Product> findById(String id) {
+        return Mono.fromSupplier(() -> productRepository.findById(id));
+    }
+
+    @Override
+    public Mono<Boolean> update(Product updatedProduct) {
+        return Mono.fromCallable(() -> productRepository.update(updatedProduct)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Boolean> delete(String id) {
+        return Mono.fromCallable(() -> productRepository.delete(id)).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,22 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductRepositoryPort {
+    Mono<Product> create(Product product);
+
+    Flux<Product> findAll();
+
+    Mono<Page<Product>> findPage(String cursor, int size);
+
+    Flux<Product> findByNamePrefix(String prefix, int limit);
+
+    Mono<Product> findById(String id);
+
+    Mono<Boolean> update(Product updatedProduct);
+
+    Mono<Boolean> delete(String id);
+}
@@ -0,0 +1,16 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+/**
+ * Observes repository writes. {@link #onChange} runs while the written id is
+ * locked, with {@code previous == null} for creates and {@code current == null}
+ * for deletes, so it sees the changes of one id in commit order and must not
+ * block. {@link #afterWrite} runs on the same thread once the lock is released
+ * and may block, e.g. to wait for the change to become durable.
+ */
+@FunctionalInterface
+public interface RepositoryListener<T> {
+    void onChange(T previous, T current);
+
+    default void afterWrite() {
+    }
+}
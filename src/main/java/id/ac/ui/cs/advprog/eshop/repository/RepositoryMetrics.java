@@ -0,0 +1,22 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Meters shared by the repositories. They live on the global registry, which
+ * Spring Boot feeds into its own registries, so repositories stay plain
+ * objects that tests can construct without a registry.
+ */
+final class RepositoryMetrics {
+    private RepositoryMetrics() {
+    }
+
+    static DistributionSummary scanLength(String entity, String operation) {
+        return DistributionSummary.builder("eshop.repository.scan.length")
+                .description("Entries visited by one repository scan")
+                .baseUnit("entries")
+                .tags("entity", entity, "operation", operation)
+                .register(Metrics.globalRegistry);
+    }
+}
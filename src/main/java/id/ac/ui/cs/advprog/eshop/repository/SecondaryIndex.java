@@ -0,0 +1,110 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Case-insensitive multimap from an attribute value to the ids holding it;
+ * an id is whatever the store uses to find a record again, such as the
+ * record id or a row number. A sorted index also answers prefix queries.
+ * Lookups walk only the matching ids, so they cost O(result) rather than
+ * O(catalog).
+ */
+final class SecondaryIndex<I> {
+    private final ConcurrentMap<String, Set<I>> idsByKey;
+    private final LockStripes stripes = new LockStripes();
+
+    private SecondaryIndex(ConcurrentMap<String, Set<I>> idsByKey) {
+        this.idsByKey = idsByKey;
+    }
+
+    static <I> SecondaryIndex<I> sorted() {
+        return new SecondaryIndex<>(new ConcurrentSkipListMap<>());
+    }
+
+    static <I> SecondaryIndex<I> hashed() {
+        return new SecondaryIndex<>(new ConcurrentHashMap<>());
+    }
+
+    void add(String value, I id) {
+        if (value == null) {
+            return;
+        }
+        String key = normalize(value);
+        ReentrantLock lock = stripes.forKey(key);
+        lock.lock();
+        try {
+            idsByKey.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(String value, I id) {
+        if (value == null) {
+            return;
+        }
+        String key = normalize(value);
+        ReentrantLock lock = stripes.forKey(key);
+        lock.lock();
+        try {
+            Set<I> ids = idsByKey.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                idsByKey.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<I> find(String value, int limit) {
+        List<I> result = new ArrayList<>();
+        if (value != null) {
+            collect(idsByKey.get(normalize(value)), result, limit);
+        }
+        return result;
+    }
+
+    List<I> findByPrefix(String prefix, int limit) {
+        if (!(idsByKey instanceof ConcurrentNavigableMap<String, Set<I>> sortedIds)) {
+            throw new UnsupportedOperationException("Prefix lookups need a sorted index");
+        }
+        List<I> result = new ArrayList<>();
+        if (prefix == null) {
+            return result;
+        }
+        String from = normalize(prefix);
+        for (Map.Entry<String, Set<I>> entry
+                : sortedIds.subMap(from, true, from + Character.MAX_VALUE, true).entrySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            collect(entry.getValue(), result, limit);
+        }
+        return result;
+    }
+
+    private static <I> void collect(Set<I> ids, List<I> result, int limit) {
+        if (ids == null) {
+            return;
+        }
+        for (I id : ids) {
+            if (result.size() >= limit) {
+                return;
+            }
+            result.add(id);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
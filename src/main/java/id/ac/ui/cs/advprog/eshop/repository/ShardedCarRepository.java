@@ -0,0 +1,180 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Car repository spread over {@code eshop.repository.sharding.partitions}
+ * in-process {@link CarRepository} partitions. Any other
+ * {@link CarRepositoryPort} can serve as a partition as well, see
+ * {@link ShardedRepository} for routing and rebalancing.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "eshop.repository", name = "car-store", havingValue = "sharded")
+public class ShardedCarRepository extends ShardedRepository<Car, CarRepositoryPort> implements CarRepositoryPort {
+    private final IdGenerator idGenerator;
+
+    @Autowired
+    public ShardedCarRepository(@Value("${eshop.repository.sharding.partitions:4}") int partitions,
+                                @Value("${eshop.repository.sharding.virtual-nodes:256}") int virtualNodes,
+                                IdGenerator idGenerator) {
+        this(inProcessPartitions(partitions, idGenerator), virtualNodes, idGenerator);
+    }
+
+    ShardedCarRepository(List<CarRepositoryPort> partitions, int virtualNodes, IdGenerator idGenerator) {
+        super(partitions, virtualNodes, new StockStatistics<>(Car::getCarQuantity, Car::getCarColor));
+        this.idGenerator = idGenerator;
+    }
+
+    /** Adds one more in-process partition and rebalances onto it. */
+    public void addPartition() {
+        addPartition(new CarRepository(idGenerator));
+    }
+
+    public Car create(Car car) {
+        assignIdIfMissing(car);
+        return write(car.getCarId(), partition -> partition.create(car));
+    }
+
+    public List<Car> createAll(List<Car> cars) {
+        Map<String, Car> carsById = new LinkedHashMap<>();
+        for (Car car : cars) {
+            if (car != null) {
+                assignIdIfMissing(car);
+                carsById.put(car.getCarId(), car);
+            }
+        }
+        return insertAll(List.copyOf(carsById.values()), Car::getCarId, CarRepositoryPort::createAll);
+    }
+
+    public Car upsert(Car car) {
+        assignIdIfMissing(car);
+        return write(car.getCarId(), partition -> partition.upsert(car));
+    }
+
+    public Iterator<Car> findAll() {
+        return iterator();
+    }
+
+    public Stream<Car> stream() {
+        return streamAcross();
+    }
+
+    public Page<Car> findPage(String cursor, int size) {
+        return pageAcross(cursor, size);
+    }
+
+    public List<Car> findByColor(String color, int limit) {
+        List<Car> cars = scatter(partition -> partition.findByColor(color, limit));
+        return cars.size() > limit ? List.copyOf(cars.subList(0, limit)) : cars;
+    }
+
+    public Car findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        return read(id);
+    }
+
+    public Car update(String id, Car updatedCar) {
+        if (id == null) {
+            return null;
+        }
+        return write(id, partition -> partition.update(id, updatedCar));
+    }
+
+    public void delete(String id) {
+        if (id != null) {
+            write(id, partition -> {
+                partition.delete(id);
+                return null;
+            });
+        }
+    }
+
+    public int updateAll(List<Car> cars) {
+        Map<String, Car> carsById = new LinkedHashMap<>();
+        for (Car updated : cars) {
+            if (updated != null && updated.getCarId() != null) {
+                carsById.put(updated.getCarId(), updated);
+            }
+        }
+        return writeAll(List.copyOf(carsById.values()), Car::getCarId, CarRepositoryPort::updateAll);
+    }
+
+    public int deleteAll(List<String> ids) {
+        return writeAll(ids.stream().filter(Objects::nonNull).distinct().toList(), id -> id,
+                CarRepositoryPort::deleteAll);
+    }
+
+    @Override
+    String idOf(Car car) {
+        return car.getCarId();
+    }
+
+    @Override
+    Car find(CarRepositoryPort partition, String id) {
+        return partition.findById(id);
+    }
+
+    @Override
+    void store(CarRepositoryPort partition, Car car) {
+        partition.upsert(car);
+    }
+
+    @Override
+    void remove(CarRepositoryPort partition, String id) {
+        partition.delete(id);
+    }
+
+    @Override
+    Iterator<Car> values(CarRepositoryPort partition) {
+        return partition.findAll();
+    }
+
+    @Override
+    Stream<Car> stream(CarRepositoryPort partition) {
+        return partition.stream();
+    }
+
+    @Override
+    Page<Car> page(CarRepositoryPort partition, String cursor, int size) {
+        return partition.findPage(cursor, size);
+    }
+
+    @Override
+    void listen(CarRepositoryPort partition, RepositoryListener<Car> listener) {
+        partition.addListener(listener);
+    }
+
+    @Override
+    int size(CarRepositoryPort partition) {
+        return partition.count();
+    }
+
+    private void assignIdIfMissing(Car car) {
+        if (car.getCarId() == null) {
+            car.setCarId(idGenerator.nextId());
+        }
+    }
+
+    private static List<CarRepositoryPort> inProcessPartitions(int count, IdGenerator idGenerator) {
+        List<CarRepositoryPort> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(new CarRepository(idGenerator));
+        }
+        return partitions;
+    }
+}
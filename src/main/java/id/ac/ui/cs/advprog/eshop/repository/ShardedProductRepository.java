@@ -0,0 +1,194 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Product repository spread over {@code eshop.repository.sharding.partitions}
+ * in-process {@link ProductRepository} partitions. Any other
+ * {@link ProductRepositoryPort} can serve as a partition as well, see
+ * {@link ShardedRepository} for routing and rebalancing.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "eshop.repository", name = "product-store", havingValue = "sharded")
+public class ShardedProductRepository extends ShardedRepository<Product, ProductRepositoryPort>
+        implements ProductRepositoryPort {
+    private static final Comparator<Product> BY_NAME = Comparator.comparing(
+            product -> product.getProductName() == null ? "" : product.getProductName().trim().toLowerCase(Locale.ROOT));
+
+    private final IdGenerator idGenerator;
+
+    @Autowired
+    public ShardedProductRepository(@Value("${eshop.repository.sharding.partitions:4}") int partitions,
+                                    @Value("${eshop.repository.sharding.virtual-nodes:256}") int virtualNodes,
+                                    IdGenerator idGenerator) {
+        this(inProcessPartitions(partitions, idGenerator), virtualNodes, idGenerator);
+    }
+
+    ShardedProductRepository(List<ProductRepositoryPort> partitions, int virtualNodes, IdGenerator idGenerator) {
+        super(partitions, virtualNodes, new StockStatistics<>(Product::getProductQuantity));
+        this.idGenerator = idGenerator;
+    }
+
+    /** Adds one more in-process partition and rebalances onto it. */
+    public void addPartition() {
+        addPartition(new ProductRepository(idGenerator));
+    }
+
+    public Product create(Product product) {
+        assignIdIfMissing(product);
+        return write(product.getProductId(), partition -> partition.create(product));
+    }
+
+    public List<Product> createAll(List<Product> products) {
+        Map<String, Product> productsById = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product != null) {
+                assignIdIfMissing(product);
+                productsById.put(product.getProductId(), product);
+            }
+        }
+        return insertAll(List.copyOf(productsById.values()), Product::getProductId, ProductRepositoryPort::createAll);
+    }
+
+    public Product upsert(Product product) {
+        assignIdIfMissing(product);
+        return write(product.getProductId(), partition -> partition.upsert(product));
+    }
+
+    public Iterator<Product> findAll() {
+        return iterator();
+    }
+
+    public Stream<Product> stream() {
+        return streamAcross();
+    }
+
+    public Page<Product> findPage(String cursor, int size) {
+        return pageAcross(cursor, size);
+    }
+
+    public List<Product> findByNamePrefix(String prefix, int limit) {
+        List<Product> products = scatter(partition -> partition.findByNamePrefix(prefix, limit));
+        products.sort(BY_NAME);
+        return products.size() > limit ? List.copyOf(products.subList(0, limit)) : products;
+    }
+
+    public boolean delete(String id) {
+        if (id == null || id.isBlank()) {
+            return false;
+        }
+        return write(id, partition -> partition.delete(id));
+    }
+
+    public Product findById(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        return read(id);
+    }
+
+    public boolean update(Product updated) {
+        if (!isValidForUpdate(updated)) {
+            return false;
+        }
+        return write(updated.getProductId(), partition -> partition.update(updated));
+    }
+
+    public int updateAll(List<Product> products) {
+        Map<String, Product> productsById = new LinkedHashMap<>();
+        for (Product updated : products) {
+            if (isValidForUpdate(updated)) {
+                productsById.put(updated.getProductId(), updated);
+            }
+        }
+        return writeAll(List.copyOf(productsById.values()), Product::getProductId, ProductRepositoryPort::updateAll);
+    }
+
+    public int deleteAll(List<String> ids) {
+        return writeAll(ids.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !id.isBlank())
+                .distinct()
+                .toList(), id -> id, ProductRepositoryPort::deleteAll);
+    }
+
+    @Override
+    String idOf(Product product) {
+        return product.getProductId();
+    }
+
+    @Override
+    Product find(ProductRepositoryPort partition, String id) {
+        return partition.findById(id);
+    }
+
+    @Override
+    void store(ProductRepositoryPort partition, Product product) {
+        partition.upsert(product);
+    }
+
+    @Override
+    void remove(ProductRepositoryPort partition, String id) {
+        partition.delete(id);
+    }
+
+    @Override
+    Iterator<Product> values(ProductRepositoryPort partition) {
+        return partition.findAll();
+    }
+
+    @Override
+    Stream<Product> stream(ProductRepositoryPort partition) {
+        return partition.stream();
+    }
+
+    @Override
+    Page<Product> page(ProductRepositoryPort partition, String cursor, int size) {
+        return partition.findPage(cursor, size);
+    }
+
+    @Override
+    void listen(ProductRepositoryPort partition, RepositoryListener<Product> listener) {
+        partition.addListener(listener);
+    }
+
+    @Override
+    int size(ProductRepositoryPort partition) {
+        return partition.count();
+    }
+
+    private void assignIdIfMissing(Product product) {
+        if (product.getProductId() == null || product.getProductId().isBlank()) {
+            product.setProductId(idGenerator.nextId());
+        }
+    }
+
+    private boolean isValidForUpdate(Product product) {
+        return product != null
+                && product.getProductId() != null
+                && !product.getProductId().isBlank();
+    }
+
+    private static List<ProductRepositoryPort> inProcessPartitions(int count, IdGenerator idGenerator) {
+        List<ProductRepositoryPort> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ProductRepository(idGenerator));
+        }
+        return partitions;
+    }
+}
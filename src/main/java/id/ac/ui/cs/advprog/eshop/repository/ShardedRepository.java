@@ -0,0 +1,380 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Spreads one repository over partitions by consistent hash of the id, so
+ * the catalog is not bound to a single store and writes to different ids
+ * contend on different partitions. Single-id operations go to the owning
+ * partition; searches ask every partition in parallel and merge the
+ * answers; iteration and pages walk the partitions one after another.
+ *
+ * <p>Writers take the id's routing stripe before looking up its owner.
+ * {@link #addPartition} publishes the grown ring, waits for writers that
+ * routed by the old one, and then moves the ids the new partition owns one
+ * at a time under the same stripes, while reads and writes go on. A write
+ * to an id that has not moved yet moves it first; a read that misses on the
+ * new owner looks at the old one, then at the new one again. The moves are
+ * not passed on to this repository's listeners, so they only see client
+ * writes. Ids only ever move to the partition being added, which comes last,
+ * so an iteration or page walk running during a rebalance never skips an
+ * entity but may return one that moved twice.
+ *
+ * <p>Partitions call {@code afterWrite} while the routing stripe is still
+ * held, so it is only noted there and passed on once the stripe is released.
+ * A listener that blocks in it, such as a journal waiting for an fsync, then
+ * does not hold up other writers hashing to the same stripe.
+ */
+abstract class ShardedRepository<T, P> {
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final ThreadLocal<Boolean> MIGRATING = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> AFTER_WRITE_PENDING = ThreadLocal.withInitial(() -> false);
+
+    private record Topology<P>(List<P> partitions, ConsistentHashRing ring, ConsistentHashRing previousRing) {
+        P owner(String id) {
+            return partitions.get(ring.partitionOf(id));
+        }
+
+        P previousOwner(String id) {
+            return partitions.get(previousRing.partitionOf(id));
+        }
+
+        boolean migrating() {
+            return previousRing != null;
+        }
+    }
+
+    private final int virtualNodes;
+    private final LockStripes routing = new LockStripes();
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+    private final List<RepositoryListener<T>> listeners = new CopyOnWriteArrayList<>();
+    private final RepositoryListener<T> relay = new RepositoryListener<>() {
+        @Override
+        public void onChange(T previous, T current) {
+            if (!MIGRATING.get()) {
+                for (RepositoryListener<T> listener : listeners) {
+                    listener.onChange(previous, current);
+                }
+            }
+        }
+
+        @Override
+        public void afterWrite() {
+            if (!MIGRATING.get()) {
+                AFTER_WRITE_PENDING.set(true);
+            }
+        }
+    };
+    private final ModificationTracker modifications = new ModificationTracker();
+    private final ChangeFeed<T> changes;
+    private final StockStatistics<T> statistics;
+    private volatile Topology<P> topology;
+
+    ShardedRepository(List<P> partitions, int virtualNodes, StockStatistics<T> statistics) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("A sharded repository needs at least one partition");
+        }
+        this.virtualNodes = virtualNodes;
+        this.changes = new ChangeFeed<>(this::idOf);
+        this.statistics = statistics;
+        this.topology = new Topology<>(List.copyOf(partitions), ConsistentHashRing.of(partitions.size(), virtualNodes),
+                null);
+        listeners.add((previous, current) -> modifications.recordChange());
+        listeners.add(changes);
+        listeners.add(statistics);
+        for (P partition : partitions) {
+            values(partition).forEachRemaining(entity -> statistics.onChange(null, entity));
+            listen(partition, relay);
+        }
+    }
+
+    abstract String idOf(T entity);
+
+    abstract T find(P partition, String id);
+
+    abstract void store(P partition, T entity);
+
+    abstract void remove(P partition, String id);
+
+    abstract Iterator<T> values(P partition);
+
+    abstract Stream<T> stream(P partition);
+
+    abstract Page<T> page(P partition, String cursor, int size);
+
+    abstract void listen(P partition, RepositoryListener<T> listener);
+
+    abstract int size(P partition);
+
+    /**
+     * Adds a partition and moves the ids it now owns onto it. Returns once
+     * every id is in place; concurrent reads and writes keep working
+     * throughout. Partitions are added one at a time.
+     */
+    public void addPartition(P partition) {
+        rebalanceLock.lock();
+        try {
+            Topology<P> current = topology;
+            List<P> partitions = new ArrayList<>(current.partitions());
+            partitions.add(partition);
+            listen(partition, relay);
+            Topology<P> migrating = new Topology<>(List.copyOf(partitions),
+                    ConsistentHashRing.of(partitions.size(), virtualNodes), current.ring());
+            topology = migrating;
+            routing.awaitHolders();
+            for (P source : current.partitions()) {
+                for (Iterator<T> values = values(source); values.hasNext(); ) {
+                    String id = idOf(values.next());
+                    if (migrating.owner(id) != source) {
+                        ReentrantLock lock = routing.forKey(id);
+                        lock.lock();
+                        try {
+                            move(id, source, migrating.owner(id));
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }
+            }
+            topology = new Topology<>(migrating.partitions(), migrating.ring(), null);
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    public int partitionCount() {
+        return topology.partitions().size();
+    }
+
+    public ModificationTracker modifications() {
+        return modifications;
+    }
+
+    public ChangeFeed<T> changes() {
+        return changes;
+    }
+
+    public StockStatistics<T> statistics() {
+        return statistics;
+    }
+
+    public void addListener(RepositoryListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    public int count() {
+        int count = 0;
+        for (P partition : topology.partitions()) {
+            count += size(partition);
+        }
+        return count;
+    }
+
+    /** Runs a single-id write on the id's owner while holding its routing stripe. */
+    <R> R write(String id, Function<P, R> operation) {
+        ReentrantLock lock = routing.forKey(id);
+        lock.lock();
+        try {
+            return operation.apply(ownerForWrite(topology, id));
+        } finally {
+            lock.unlock();
+            relayAfterWrite();
+        }
+    }
+
+    /**
+     * Groups a batch by owner and hands each partition its share, holding
+     * the routing stripes of the whole batch so it routes by one topology.
+     */
+    <E> int writeAll(List<E> items, Function<E, String> idOf, ToIntBiFunction<P, List<E>> operation) {
+        List<String> ids = items.stream().map(idOf).toList();
+        List<ReentrantLock> locked = routing.lockAll(ids);
+        try {
+            Topology<P> current = topology;
+            Map<P, List<E>> itemsByOwner = new IdentityHashMap<>();
+            for (E item : items) {
+                itemsByOwner.computeIfAbsent(ownerForWrite(current, idOf.apply(item)), owner -> new ArrayList<>())
+                        .add(item);
+            }
+            int written = 0;
+            for (Map.Entry<P, List<E>> share : itemsByOwner.entrySet()) {
+                written += operation.applyAsInt(share.getKey(), share.getValue());
+            }
+            return written;
+        } finally {
+            LockStripes.unlockAll(locked);
+            relayAfterWrite();
+        }
+    }
+
+    /** {@link #writeAll} for creates: returns the items the partitions stored, in input order. */
+    <E> List<E> insertAll(List<E> items, Function<E, String> idOf, BiFunction<P, List<E>, List<E>> operation) {
+        Set<E> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+        writeAll(items, idOf, (partition, share) -> {
+            List<E> stored = operation.apply(partition, share);
+            inserted.addAll(stored);
+            return stored.size();
+        });
+        return items.stream().filter(inserted::contains).toList();
+    }
+
+    T read(String id) {
+        while (true) {
+            Topology<P> current = topology;
+            T found = find(current.owner(id), id);
+            if (found == null && current.migrating() && current.previousOwner(id) != current.owner(id)) {
+                found = find(current.previousOwner(id), id);
+                if (found == null) {
+                    found = find(current.owner(id), id);
+                }
+            }
+            if (found != null || topology == current) {
+                return found;
+            }
+        }
+    }
+
+    /** Asks every partition in parallel and concatenates the answers, dropping ids seen twice mid-move. */
+    List<T> scatter(Function<P, List<T>> query) {
+        Map<String, T> found = new LinkedHashMap<>();
+        for (List<T> answer : topology.partitions().parallelStream().map(query).toList()) {
+            for (T entity : answer) {
+                found.putIfAbsent(idOf(entity), entity);
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int nextPartition;
+            private Iterator<T> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    List<P> partitions = topology.partitions();
+                    if (nextPartition >= partitions.size()) {
+                        return false;
+                    }
+                    current = values(partitions.get(nextPartition++));
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    /**
+     * Concatenates the partitions' streams as a balanced tree, so a parallel
+     * reduction splits across partitions first and then within each one.
+     */
+    Stream<T> streamAcross() {
+        List<P> partitions = topology.partitions();
+        return concat(partitions, 0, partitions.size());
+    }
+
+    private Stream<T> concat(List<P> partitions, int from, int to) {
+        if (to - from == 1) {
+            return stream(partitions.get(from));
+        }
+        int middle = (from + to) >>> 1;
+        return Stream.concat(concat(partitions, from, middle), concat(partitions, middle, to));
+    }
+
+    /** A create lands in its owner's partition, which may come before the page being read. */
+    public boolean createsAppendToPages() {
+        return false;
+    }
+
+    /**
+     * Pages through the partitions in order. The cursor is the partition
+     * index and that partition's own cursor, e.g. {@code 2:118}.
+     */
+    Page<T> pageAcross(String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int partition = 0;
+        String partitionCursor = null;
+        int separator = cursor == null ? -1 : cursor.indexOf(':');
+        if (separator > 0) {
+            try {
+                partition = Integer.parseInt(cursor.substring(0, separator));
+                partitionCursor = cursor.substring(separator + 1);
+            } catch (NumberFormatException e) {
+                partition = 0;
+            }
+        }
+        List<P> partitions = topology.partitions();
+        List<T> items = new ArrayList<>(limit);
+        while (partition < partitions.size()) {
+            Page<T> page = page(partitions.get(partition), partitionCursor, limit - items.size());
+            items.addAll(page.getItems());
+            if (page.hasNext()) {
+                return new Page<>(items, partition + ":" + page.getNextCursor());
+            }
+            partition++;
+            partitionCursor = null;
+            if (items.size() == limit) {
+                return new Page<>(items, partition < partitions.size() ? partition + ":" : null);
+            }
+        }
+        return new Page<>(items, null);
+    }
+
+    private void relayAfterWrite() {
+        if (AFTER_WRITE_PENDING.get()) {
+            AFTER_WRITE_PENDING.set(false);
+            for (RepositoryListener<T> listener : listeners) {
+                listener.afterWrite();
+            }
+        }
+    }
+
+    private P ownerForWrite(Topology<P> current, String id) {
+        P owner = current.owner(id);
+        if (current.migrating()) {
+            move(id, current.previousOwner(id), owner);
+        }
+        return owner;
+    }
+
+    private void move(String id, P from, P to) {
+        if (from == to) {
+            return;
+        }
+        T entity = find(from, id);
+        if (entity == null) {
+            return;
+        }
+        MIGRATING.set(true);
+        try {
+            store(to, entity);
+            remove(from, id);
+        } finally {
+            MIGRATING.set(false);
+        }
+    }
+}
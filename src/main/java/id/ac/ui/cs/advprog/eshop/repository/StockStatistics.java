@@ -0,0 +1,89 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stock totals of one repository, kept up to date by every write instead of
+ * being recomputed per request. A write subtracts the previous value and
+ * adds the new one, so each change costs O(1) whatever the catalog size.
+ * The counters are {@link LongAdder}s, which spread concurrent updates over
+ * cells, so writers to different ids do not contend on one total.
+ *
+ * <p>A summary sums each counter separately, so while writes are in flight
+ * it may combine totals from slightly different moments; once writes settle
+ * it is exact. Group keys are compared case-insensitively, like the color
+ * index.
+ */
+public final class StockStatistics<T> implements RepositoryListener<T> {
+    private final ToIntFunction<T> quantityOf;
+    private final Function<T, String> groupOf;
+    private final LongAdder itemCount = new LongAdder();
+    private final LongAdder totalUnits = new LongAdder();
+    private final LongAdder outOfStock = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> countByGroup = new ConcurrentHashMap<>();
+
+    public StockStatistics(ToIntFunction<T> quantityOf) {
+        this(quantityOf, null);
+    }
+
+    public StockStatistics(ToIntFunction<T> quantityOf, Function<T, String> groupOf) {
+        this.quantityOf = quantityOf;
+        this.groupOf = groupOf;
+    }
+
+    @Override
+    public void onChange(T previous, T current) {
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (current != null) {
+            count(current, 1);
+        }
+    }
+
+    public long totalUnits() {
+        return totalUnits.sum();
+    }
+
+    public long outOfStockCount() {
+        return outOfStock.sum();
+    }
+
+    public StockSummary summary() {
+        Map<String, Long> groups = new TreeMap<>();
+        countByGroup.forEach((group, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                groups.put(group, sum);
+            }
+        });
+        return new StockSummary(itemCount.sum(), totalUnits.sum(), outOfStock.sum(), groups);
+    }
+
+    private void count(T entity, int sign) {
+        int quantity = quantityOf.applyAsInt(entity);
+        itemCount.add(sign);
+        totalUnits.add((long) sign * quantity);
+        if (quantity <= 0) {
+            outOfStock.add(sign);
+        }
+        if (groupOf != null) {
+            groupCounter(groupOf.apply(entity)).add(sign);
+        }
+    }
+
+    private LongAdder groupCounter(String group) {
+        String key = group == null ? "" : group.trim().toLowerCase(Locale.ROOT);
+        LongAdder counter = countByGroup.get(key);
+        return counter != null ? counter : countByGroup.computeIfAbsent(key, ignored -> new LongAdder());
+    }
+}
@@ -0,0 +1,78 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 128-bit ids: 48 bits of epoch milliseconds, a 16-bit sequence
+ * and 64 random bits, held as two longs and rendered once as 26 characters
+ * of Crockford base32 (the ULID text form), so ids sort by creation time.
+ *
+ * <p>Every thread keeps its own last timestamp and sequence and draws the
+ * random bits from {@link ThreadLocalRandom}, so generating an id never
+ * touches {@code SecureRandom} or shared state. Ids from one thread are
+ * strictly increasing even when the clock stalls or steps back; threads
+ * creating ids in the same millisecond are told apart by the random bits.
+ * The ids are unique, not unguessable.
+ */
+@Component
+@ConditionalOnProperty(prefix = "eshop.repository", name = "id-generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedIdGenerator implements IdGenerator {
+    static final int ID_LENGTH = 26;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_SEQUENCE = 0xffff;
+
+    private static final class Source {
+        private long lastMillis = -1;
+        private int sequence;
+    }
+
+    private final LongSupplier clock;
+    private final ThreadLocal<Source> sources = ThreadLocal.withInitial(Source::new);
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        Source source = sources.get();
+        long now = clock.getAsLong();
+        if (now > source.lastMillis) {
+            source.lastMillis = now;
+            source.sequence = 0;
+        } else if (source.sequence == MAX_SEQUENCE) {
+            source.lastMillis++;
+            source.sequence = 0;
+        } else {
+            source.sequence++;
+        }
+        return format(source.lastMillis << 16 | source.sequence, ThreadLocalRandom.current().nextLong());
+    }
+
+    static String format(long high, long low) {
+        byte[] text = new byte[ID_LENGTH];
+        for (int i = ID_LENGTH - 1, shift = 0; i >= 0; i--, shift += 5) {
+            text[i] = ALPHABET[fiveBits(high, low, shift)];
+        }
+        return new String(text, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int fiveBits(long high, long low, int shift) {
+        if (shift >= Long.SIZE) {
+            return (int) (high >>> (shift - Long.SIZE)) & 31;
+        }
+        if (shift + 5 <= Long.SIZE) {
+            return (int) (low >>> shift) & 31;
+        }
+        return (int) ((low >>> shift) | (high << (Long.SIZE - shift))) & 31;
+    }
+}
@@ -0,0 +1,32 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+/**
+ * Thrown by an update whose expected version no longer matches the stored
+ * record, meaning someone else saved it since the caller read it. Nothing is
+ * written; the caller should reload the record and retry. A create whose id
+ * is already taken throws it too, with expected version 0.
+ */
+public class VersionConflictException extends RuntimeException {
+    private final String id;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public VersionConflictException(String id, long expectedVersion, long actualVersion) {
+        super("Record " + id + " is at version " + actualVersion + ", write expected " + expectedVersion);
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
@@ -0,0 +1,60 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
+import id.ac.ui.cs.advprog.eshop.model.StockTotal;
+
+import java.util.List;
+import java.util.Map;
+
+public class CachingCarService extends CachingCrudService<Car> implements CarService {
+    private final CarService delegate;
+
+    public CachingCarService(CarService delegate, Cache<String, Car> cache) {
+        super(delegate, cache, Car::getCarId);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Car> searchByColor(String color, int limit) {
+        return delegate.searchByColor(color, limit);
+    }
+
+    @Override
+    public StockReport<Car> stockReport(int lowStockThreshold, int top) {
+        return delegate.stockReport(lowStockThreshold, top);
+    }
+
+    @Override
+    public StockSummary stockSummary() {
+        return delegate.stockSummary();
+    }
+
+    @Override
+    public Map<String, StockTotal> totalsByColor() {
+        return delegate.totalsByColor();
+    }
+
+    @Override
+    public Reservation reserve(String id, int quantity) {
+        return delegate.reserve(id, quantity);
+    }
+
+    @Override
+    public boolean commit(String reservationId) {
+        return delegate.commit(reservationId);
+    }
+
+    @Override
+    public boolean release(String reservationId) {
+        return delegate.release(reservationId);
+    }
+
+    @Override
+    public long available(String id) {
+        return delegate.available(id);
+    }
+}
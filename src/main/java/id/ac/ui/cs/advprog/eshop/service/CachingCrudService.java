@@ -0,0 +1,104 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.repository.RepositoryListener;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of a {@link CrudService}. Only {@code findById}
+ * is cached; everything else goes straight to the delegate. Entries are
+ * invalidated from the repository's change listener rather than from this
+ * class's write methods, so writes that bypass the service invalidate too.
+ * The listener runs after the repository has published the new value, and
+ * Caffeine makes an invalidation wait for an in-flight load of the same id,
+ * so a stale load can never outlive the write that replaced it.
+ */
+public class CachingCrudService<T> implements CrudService<T, String>, RepositoryListener<T> {
+    private final CrudService<T, String> delegate;
+    private final Cache<String, T> cache;
+    private final Function<T, String> idOf;
+
+    public CachingCrudService(CrudService<T, String> delegate, Cache<String, T> cache, Function<T, String> idOf) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.idOf = idOf;
+    }
+
+    @Override
+    public T create(T entity) {
+        return delegate.create(entity);
+    }
+
+    @Override
+    public List<T> createAll(List<T> entities) {
+        return delegate.createAll(entities);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Page<T> findPage(String cursor, int size) {
+        return delegate.findPage(cursor, size);
+    }
+
+    @Override
+    public Iterator<T> iterateAll() {
+        return delegate.iterateAll();
+    }
+
+    @Override
+    public T findById(String id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public boolean delete(String id) {
+        return delegate.delete(id);
+    }
+
+    @Override
+    public boolean update(T entity) {
+        return delegate.update(entity);
+    }
+
+    @Override
+    public int updateAll(List<T> entities) {
+        return delegate.updateAll(entities);
+    }
+
+    @Override
+    public int deleteAll(List<String> ids) {
+        return delegate.deleteAll(ids);
+    }
+
+    @Override
+    public void onChange(T previous, T current) {
+        String id = idOf.apply(previous != null ? previous : current);
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    Cache<String, T> cache() {
+        return cache;
+    }
+}
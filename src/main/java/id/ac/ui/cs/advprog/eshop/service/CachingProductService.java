@@ -0,0 +1,59 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
+import id.ac.ui.cs.advprog.eshop.model.SearchHit;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
+
+import java.util.List;
+
+public class CachingProductService extends CachingCrudService<Product> implements ProductService {
+    private final ProductService delegate;
+
+    public CachingProductService(ProductService delegate, Cache<String, Product> cache) {
+        super(delegate, cache, Product::getProductId);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Product> searchByName(String prefix, int limit) {
+        return delegate.searchByName(prefix, limit);
+    }
+
+    @Override
+    public List<SearchHit<Product>> search(String query, int limit) {
+        return delegate.search(query, limit);
+    }
+
+    @Override
+    public StockReport<Product> stockReport(int lowStockThreshold, int top) {
+        return delegate.stockReport(lowStockThreshold, top);
+    }
+
+    @Override
+    public StockSummary stockSummary() {
+        return delegate.stockSummary();
+    }
+
+    @Override
+    public Reservation reserve(String id, int quantity) {
+        return delegate.reserve(id, quantity);
+    }
+
+    @Override
+    public boolean commit(String reservationId) {
+        return delegate.commit(reservationId);
+    }
+
+    @Override
+    public boolean release(String reservationId) {
+        return delegate.release(reservationId);
+    }
+
+    @Override
+    public long available(String id) {
+        return delegate.available(id);
+    }
+}
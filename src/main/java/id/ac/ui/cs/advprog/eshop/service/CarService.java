@@ -1,4 +1,21 @@
 package id.ac.ui.cs.advprog.eshop.service;
 import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
+import id.ac.ui.cs.advprog.eshop.model.StockTotal;
+import java.util.List;
+import java.util.Map;
 
-public interface CarService extends CrudService<Car, String> { }
+public interface CarService extends CrudService<Car, String>, StockService {
+    List<Car> searchByColor(String color, int limit);
+    /**
+     * Totals, quantity histogram, the {@code top} items at or below
+     * {@code lowStockThreshold} with the fewest units and the {@code top}
+     * items with the most, reduced in parallel over the whole fleet.
+     */
+    StockReport<Car> stockReport(int lowStockThreshold, int top);
+    /** Totals and cars per color, kept up to date by every write, so reading them costs O(colors). */
+    StockSummary stockSummary();
+    /** Cars and units per color, colors compared case-insensitively. */
+    Map<String, StockTotal> totalsByColor();
+}
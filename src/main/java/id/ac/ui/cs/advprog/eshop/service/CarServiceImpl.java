@@ -1,23 +1,43 @@
 package id.ac.ui.cs.advprog.eshop.service;
 import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
+import id.ac.ui.cs.advprog.eshop.model.StockTotal;
 import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CarServiceImpl implements CarService{
+    private static final Counter FIND_BY_ID_HITS = Metrics.counter("eshop.service.find.by.id", "entity", "car", "result", "hit");
+    private static final Counter FIND_BY_ID_MISSES = Metrics.counter("eshop.service.find.by.id", "entity", "car", "result", "miss");
+
     @Autowired
     private CarRepositoryPort carRepository;
 
+    @Autowired
+    private CarStockLedger carStock;
+
     @Override
     public Car create(Car car) {
         if (car == null) return null;
         return carRepository.create(car);
     }
 
+    @Override
+    public List<Car> createAll(List<Car> cars) {
+        if (cars == null) return List.of();
+        return carRepository.createAll(cars);
+    }
+
     @Override
     public List<Car> findAll() {
         Iterator<Car> carIterator = carRepository.findAll();
@@ -26,9 +46,40 @@ public class CarServiceImpl implements CarService{
         return allCar;
     }
 
+    @Override
+    public Page<Car> findPage(String cursor, int size) {
+        return carRepository.findPage(cursor, size);
+    }
+
+    @Override
+    public Iterator<Car> iterateAll() {
+        return carRepository.findAll();
+    }
+
+    @Override
+    public List<Car> searchByColor(String color, int limit) {
+        return carRepository.findByColor(color, limit);
+    }
+
+    @Override
+    public StockReport<Car> stockReport(int lowStockThreshold, int top) {
+        return StockAggregate.report(carRepository.stream(), Car::getCarQuantity, Car::getCarId, lowStockThreshold, top);
+    }
+
+    @Override
+    public StockSummary stockSummary() {
+        return carRepository.statistics().summary();
+    }
+
+    @Override
+    public Map<String, StockTotal> totalsByColor() {
+        return StockAggregate.totalsBy(carRepository.stream(), Car::getCarColor, Car::getCarQuantity);
+    }
+
     @Override
     public Car findById(String carId) {
         Car car = carRepository.findById(carId);
+        (car == null ? FIND_BY_ID_MISSES : FIND_BY_ID_HITS).increment();
         return car;
     }
 
@@ -39,10 +90,42 @@ public class CarServiceImpl implements CarService{
         return true;
     }
 
+    @Override
+    public int updateAll(List<Car> cars) {
+        if (cars == null) return 0;
+        return carRepository.updateAll(cars);
+    }
+
+    @Override
+    public int deleteAll(List<String> ids) {
+        if (ids == null) return 0;
+        return carRepository.deleteAll(ids);
+    }
+
     @Override
     public boolean delete(String id) {
         if (id == null || id.isBlank()) return false;
         carRepository.delete(id);
         return true;
     }
+
+    @Override
+    public Reservation reserve(String id, int quantity) {
+        return carStock.reserve(id, quantity);
+    }
+
+    @Override
+    public boolean commit(String reservationId) {
+        return carStock.commit(reservationId);
+    }
+
+    @Override
+    public boolean release(String reservationId) {
+        return carStock.release(reservationId);
+    }
+
+    @Override
+    public long available(String id) {
+        return carStock.available(id);
+    }
 }
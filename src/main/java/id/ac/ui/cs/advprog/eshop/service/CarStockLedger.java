@@ -0,0 +1,67 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Component
+public class CarStockLedger extends StockLedger<Car> {
+    private final CarRepositoryPort carRepository;
+
+    public CarStockLedger(CarRepositoryPort carRepository) {
+        this(carRepository, DEFAULT_HOLD_TIMEOUT, Clock.systemUTC());
+    }
+
+    @Autowired
+    public CarStockLedger(CarRepositoryPort carRepository,
+                          @Value("${eshop.stock.hold-timeout:15m}") Duration holdTimeout) {
+        this(carRepository, holdTimeout, Clock.systemUTC());
+    }
+
+    CarStockLedger(CarRepositoryPort carRepository, Duration holdTimeout, Clock clock) {
+        super(holdTimeout, clock);
+        this.carRepository = carRepository;
+        carRepository.addListener(this);
+    }
+
+    @Override
+    protected Car find(String id) {
+        return carRepository.findById(id);
+    }
+
+    @Override
+    protected boolean store(Car updated) {
+        return carRepository.update(updated.getCarId(), updated) != null;
+    }
+
+    @Override
+    protected String idOf(Car car) {
+        return car.getCarId();
+    }
+
+    @Override
+    protected long versionOf(Car car) {
+        return car.getVersion();
+    }
+
+    @Override
+    protected int quantityOf(Car car) {
+        return car.getCarQuantity();
+    }
+
+    @Override
+    protected Car withQuantity(Car car, int quantity) {
+        Car next = new Car();
+        next.setCarId(car.getCarId());
+        next.setCarName(car.getCarName());
+        next.setCarColor(car.getCarColor());
+        next.setCarQuantity(quantity);
+        next.setVersion(car.getVersion());
+        return next;
+    }
+}
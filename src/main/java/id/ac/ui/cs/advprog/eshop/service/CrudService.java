@@ -1,10 +1,17 @@
 package id.ac.ui.cs.advprog.eshop.service;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import java.util.Iterator;
 import java.util.List;
 
 public interface CrudService<T, ID> {
     T create(T entity);
+    List<T> createAll(List<T> entities);
     List<T> findAll();
+    Page<T> findPage(String cursor, int size);
+    Iterator<T> iterateAll();
     T findById(ID id);
     boolean delete(ID id);
     boolean update(T entity);
+    int updateAll(List<T> entities);
+    int deleteAll(List<ID> ids);
 }
\ No newline at end of file
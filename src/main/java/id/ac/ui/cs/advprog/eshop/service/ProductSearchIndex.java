@@ -0,0 +1,33 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductSearchIndex extends SearchIndex<Product> {
+    private final ProductRepositoryPort productRepository;
+
+    @Autowired
+    public ProductSearchIndex(ProductRepositoryPort productRepository) {
+        this.productRepository = productRepository;
+        productRepository.addListener(this);
+        indexAll(productRepository.stream());
+    }
+
+    @Override
+    protected String idOf(Product product) {
+        return product.getProductId();
+    }
+
+    @Override
+    protected String textOf(Product product) {
+        return product.getProductName();
+    }
+
+    @Override
+    protected Product find(String id) {
+        return productRepository.findById(id);
+    }
+}
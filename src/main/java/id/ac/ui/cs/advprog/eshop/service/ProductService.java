@@ -1,5 +1,22 @@
 package id.ac.ui.cs.advprog.eshop.service;
 
 import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.SearchHit;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
 
-public interface ProductService extends CrudService<Product, String> { }
+import java.util.List;
+
+public interface ProductService extends CrudService<Product, String>, StockService {
+    List<Product> searchByName(String prefix, int limit);
+    /** Ranked full-text matches on the product name, tolerating typos. */
+    List<SearchHit<Product>> search(String query, int limit);
+    /**
+     * Totals, quantity histogram, the {@code top} items at or below
+     * {@code lowStockThreshold} with the fewest units and the {@code top}
+     * items with the most, reduced in parallel over the whole catalog.
+     */
+    StockReport<Product> stockReport(int lowStockThreshold, int top);
+    /** Totals kept up to date by every write, so reading them costs O(1). */
+    StockSummary stockSummary();
+}
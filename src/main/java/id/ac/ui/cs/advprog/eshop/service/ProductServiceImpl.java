@@ -1,7 +1,14 @@
 package id.ac.ui.cs.advprog.eshop.service;
 
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
 import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.SearchHit;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
 import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -11,15 +18,28 @@ import java.util.List;
 
 @Service
 public class ProductServiceImpl implements ProductService {
+    private static final Counter FIND_BY_ID_HITS = Metrics.counter("eshop.service.find.by.id", "entity", "product", "result", "hit");
+    private static final Counter FIND_BY_ID_MISSES = Metrics.counter("eshop.service.find.by.id", "entity", "product", "result", "miss");
 
     @Autowired
     private ProductRepositoryPort productRepository;
 
+    @Autowired
+    private ProductStockLedger productStock;
+
+    @Autowired
+    private ProductSearchIndex productSearch;
+
     @Override
     public Product create(Product product) {
         return productRepository.create(product);
     }
 
+    @Override
+    public List<Product> createAll(List<Product> products) {
+        return productRepository.createAll(products);
+    }
+
     @Override
     public List<Product> findAll() {
         Iterator<Product> productIterator = productRepository.findAll();
@@ -28,6 +48,37 @@ public class ProductServiceImpl implements ProductService {
         return allProduct;
     }
 
+    @Override
+    public Page<Product> findPage(String cursor, int size) {
+        return productRepository.findPage(cursor, size);
+    }
+
+    @Override
+    public Iterator<Product> iterateAll() {
+        return productRepository.findAll();
+    }
+
+    @Override
+    public List<Product> searchByName(String prefix, int limit) {
+        return productRepository.findByNamePrefix(prefix, limit);
+    }
+
+    @Override
+    public List<SearchHit<Product>> search(String query, int limit) {
+        return productSearch.search(query, limit);
+    }
+
+    @Override
+    public StockReport<Product> stockReport(int lowStockThreshold, int top) {
+        return StockAggregate.report(productRepository.stream(), Product::getProductQuantity, Product::getProductId,
+                lowStockThreshold, top);
+    }
+
+    @Override
+    public StockSummary stockSummary() {
+        return productRepository.statistics().summary();
+    }
+
     @Override
     public boolean delete(String id) {
         return productRepository.delete(id);
@@ -35,11 +86,43 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Product findById(String id) {
-        return productRepository.findById(id);
+        Product product = productRepository.findById(id);
+        (product == null ? FIND_BY_ID_MISSES : FIND_BY_ID_HITS).increment();
+        return product;
     }
 
     @Override
     public boolean update(Product product) {
         return productRepository.update(product);
     }
+
+    @Override
+    public int updateAll(List<Product> products) {
+        return productRepository.updateAll(products);
+    }
+
+    @Override
+    public int deleteAll(List<String> ids) {
+        return productRepository.deleteAll(ids);
+    }
+
+    @Override
+    public Reservation reserve(String id, int quantity) {
+        return productStock.reserve(id, quantity);
+    }
+
+    @Override
+    public boolean commit(String reservationId) {
+        return productStock.commit(reservationId);
+    }
+
+    @Override
+    public boolean release(String reservationId) {
+        return productStock.release(reservationId);
+    }
+
+    @Override
+    public long available(String id) {
+        return productStock.available(id);
+    }
 }
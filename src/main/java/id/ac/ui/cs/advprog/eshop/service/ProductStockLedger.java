@@ -0,0 +1,66 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Component
+public class ProductStockLedger extends StockLedger<Product> {
+    private final ProductRepositoryPort productRepository;
+
+    public ProductStockLedger(ProductRepositoryPort productRepository) {
+        this(productRepository, DEFAULT_HOLD_TIMEOUT, Clock.systemUTC());
+    }
+
+    @Autowired
+    public ProductStockLedger(ProductRepositoryPort productRepository,
+                              @Value("${eshop.stock.hold-timeout:15m}") Duration holdTimeout) {
+        this(productRepository, holdTimeout, Clock.systemUTC());
+    }
+
+    ProductStockLedger(ProductRepositoryPort productRepository, Duration holdTimeout, Clock clock) {
+        super(holdTimeout, clock);
+        this.productRepository = productRepository;
+        productRepository.addListener(this);
+    }
+
+    @Override
+    protected Product find(String id) {
+        return productRepository.findById(id);
+    }
+
+    @Override
+    protected boolean store(Product updated) {
+        return productRepository.update(updated);
+    }
+
+    @Override
+    protected String idOf(Product product) {
+        return product.getProductId();
+    }
+
+    @Override
+    protected long versionOf(Product product) {
+        return product.getVersion();
+    }
+
+    @Override
+    protected int quantityOf(Product product) {
+        return product.getProductQuantity();
+    }
+
+    @Override
+    protected Product withQuantity(Product product, int quantity) {
+        Product next = new Product();
+        next.setProductId(product.getProductId());
+        next.setProductName(product.getProductName());
+        next.setProductQuantity(quantity);
+        next.setVersion(product.getVersion());
+        return next;
+    }
+}
@@ -0,0 +1,8 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveCarService extends ReactiveCrudService<Car, String> {
+    Flux<Car> searchByColor(String color, int limit);
+}
@@ -0,0 +1,53 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.repository.ReactiveCarRepositoryPort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveCarServiceImpl implements ReactiveCarService {
+    @Autowired
+    private ReactiveCarRepositoryPort carRepository;
+
+    @Override
+    public Mono<Car> create(Car car) {
+        if (car == null) return Mono.empty();
+        return carRepository.create(car);
+    }
+
+    @Override
+    public Flux<Car> findAll() {
+        return carRepository.findAll();
+    }
+
+    @Override
+    public Mono<Page<Car>> findPage(String cursor, int size) {
+        return carRepository.findPage(cursor, size);
+    }
+
+    @Override
+    public Flux<Car> searchByColor(String color, int limit) {
+        return carRepository.findByColor(color, limit);
+    }
+
+    @Override
+    public Mono<Car> findById(String carId) {
+        return carRepository.findById(carId);
+    }
+
+    @Override
+    public Mono<Boolean> update(Car car) {
+        if (car == null || car.getCarId() == null || car.getCarId().isBlank()) return Mono.just(false);
+        return carRepository.update(car.getCarId(), car).hasElement();
+    }
+
+    @Override
+    public Mono<Boolean> delete(String id) {
+        if (id == null || id.isBlank()) return Mono.just(false);
+        return carRepository.delete(id).thenReturn(true);
+    }
+}
@@ -0,0 +1,19 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCrudService<T, ID> {
+    Mono<T> create(T entity);
+
+    Flux<T> findAll();
+
+    Mono<Page<T>> findPage(String cursor, int size);
+
+    Mono<T> findById(ID id);
+
+    Mono<Boolean> update(T entity);
+
+    Mono<Boolean> delete(ID id);
+}
@@ -0,0 +1,8 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveProductService extends ReactiveCrudService<Product, String> {
+    Flux<Product> searchByName(String prefix, int limit);
+}
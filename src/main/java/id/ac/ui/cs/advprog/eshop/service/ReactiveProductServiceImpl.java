@@ -0,0 +1,50 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.ReactiveProductRepositoryPort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+    @Autowired
+    private ReactiveProductRepositoryPort productRepository;
+
+    @Override
+    public Mono<Product> create(Product product) {
+        return productRepository.create(product);
+    }
+
+    @Override
+    public Flux<Product> findAll() {
+        return productRepository.findAll();
+    }
+
+    @Override
+    public Mono<Page<Product>> findPage(String cursor, int size) {
+        return productRepository.findPage(cursor, size);
+    }
+
+    @Override
+    public Flux<Product> searchByName(String prefix, int limit) {
+        return productRepository.findByNamePrefix(prefix, limit);
+    }
+
+    @Override
+    public Mono<Product> findById(String id) {
+        return productRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Boolean> update(Product product) {
+        return productRepository.update(product);
+    }
+
+    @Override
+    public Mono<Boolean> delete(String id) {
+        return productRepository.delete(id);
+    }
+}
@@ -0,0 +1,446 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.SearchHit;
+import id.ac.ui.cs.advprog.eshop.repository.RepositoryListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Typo-tolerant full-text search over one text attribute, kept up to date as
+ * a repository listener. Text is folded to lowercase without accents and
+ * split into terms; an inverted index maps each term to the documents
+ * holding it, shortest text first. A second index maps the bigrams of every
+ * term, bucketed by term length, to the terms, so the terms within the
+ * allowed edit distance of a query word are found by counting shared
+ * bigrams and confirming only the few that share enough, rather than by
+ * comparing against the whole vocabulary. Words of up to two letters must
+ * match exactly, up to five may have one typo and longer ones two; the last
+ * query word also matches as a prefix.
+ *
+ * <p>Hits are ranked by how many query words they match, then by the sum of
+ * each word's best inverse document frequency, scaled down for typos and
+ * prefixes and for text longer than average. Because shorter text scores
+ * higher, walking the postings in order lets a query stop as soon as no
+ * document further on can enter the top hits, so a common word costs about
+ * as much as a rare one.
+ *
+ * <p>Reindexing an id happens inside one atomic update of its document
+ * entry, so a write and the initial load of the same id never interleave,
+ * and a write that leaves the text as it was costs one map lookup. The
+ * initial load only fills in ids that are not indexed yet, and reads each
+ * one back from the repository inside that update, so it can neither
+ * overwrite a newer write nor bring back a document deleted since the load
+ * started.
+ */
+public abstract class SearchIndex<T> implements RepositoryListener<T> {
+    static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_EXPANSIONS = 50;
+    static final int MIN_PREFIX_LENGTH = 3;
+    private static final double TYPO_PENALTY = 0.25;
+    private static final double PREFIX_SIMILARITY = 0.8;
+    private static final double LENGTH_WEIGHT = 0.5;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record Document(String id, String text, Term[] terms) { }
+
+    /** Shorter text first, which is also higher score first among hits matching the same words. */
+    private static final Comparator<Document> DOCUMENT_ORDER = (a, b) -> {
+        int byLength = Integer.compare(a.terms().length, b.terms().length);
+        if (byLength != 0) {
+            return byLength;
+        }
+        int byText = a.text().compareTo(b.text());
+        return byText != 0 ? byText : a.id().compareTo(b.id());
+    };
+
+    private static final class Term {
+        private final String text;
+        private final ConcurrentSkipListSet<Document> documents = new ConcurrentSkipListSet<>(DOCUMENT_ORDER);
+        private volatile int size;
+
+        private Term(String text) {
+            this.text = text;
+        }
+    }
+
+    /** The terms a query word expands to, highest weight first, and each one's position in that order. */
+    private record QueryTerm(Term[] terms, double[] weights, Map<Term, Integer> ordinals, long postings) { }
+
+    private record Scored(Document document, int matched, double score) { }
+
+    private static final Comparator<Scored> WORST_FIRST = (a, b) -> {
+        if (a.matched() != b.matched()) {
+            return Integer.compare(a.matched(), b.matched());
+        }
+        int byScore = Double.compare(a.score(), b.score());
+        return byScore != 0 ? byScore : DOCUMENT_ORDER.compare(b.document(), a.document());
+    };
+
+    private final ConcurrentMap<String, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Term> postings = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<String> vocabulary = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<String, Set<String>> termsByGram = new ConcurrentHashMap<>();
+    private final LongAdder totalTerms = new LongAdder();
+
+    protected abstract String idOf(T item);
+
+    protected abstract String textOf(T item);
+
+    protected abstract T find(String id);
+
+    @Override
+    public void onChange(T previous, T current) {
+        if (current != null) {
+            index(idOf(current), textOf(current));
+        } else if (previous != null) {
+            index(idOf(previous), null);
+        }
+    }
+
+    /** Indexes items already in the repository; safe to overlap with writes the listener is indexing. */
+    protected final void indexAll(Stream<T> items) {
+        items.forEach(item -> documents.computeIfAbsent(idOf(item), id -> {
+            T current = find(id);
+            return current == null ? null : newDocument(id, textOf(current));
+        }));
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /** The best {@code limit} hits for {@code query}, best first, read back from the repository. */
+    public List<SearchHit<T>> search(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        List<String> words = analyze(query);
+        int documentCount = documents.size();
+        List<QueryTerm> queryTerms = new ArrayList<>();
+        for (int i = 0; i < words.size() && i < MAX_QUERY_TERMS; i++) {
+            QueryTerm queryTerm = expand(words.get(i), i == words.size() - 1, documentCount);
+            if (queryTerm.terms().length > 0) {
+                queryTerms.add(queryTerm);
+            }
+        }
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        queryTerms.sort(Comparator.comparingLong(QueryTerm::postings));
+        double averageLength = Math.max(1, totalTerms.sum()) / (double) Math.max(1, documentCount);
+
+        List<Scored> ranked = new ArrayList<>(collect(queryTerms, limit, averageLength));
+        ranked.sort(WORST_FIRST.reversed());
+        List<SearchHit<T>> hits = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            T item = find(scored.document().id());
+            if (item != null) {
+                hits.add(new SearchHit<>(item, scored.matched(), scored.score()));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Pass {@code s} scores the documents holding query word {@code s}, rarest
+     * word first, each under the term that gives it the highest weight and
+     * skipping those an earlier pass has scored. A document found under term
+     * {@code k} of word {@code s} thus matches at most {@code n - s} words and
+     * scores at most the weight of term {@code k} plus the best weights of the
+     * later words, over its length norm. Postings run from short to long
+     * text, so that bound only falls along a term's postings, and the walk
+     * stops once it cannot beat the worst of a full {@code best}, either on
+     * score or, for an equal score, on document order.
+     */
+    private PriorityQueue<Scored> collect(List<QueryTerm> queryTerms, int limit, double averageLength) {
+        PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        double[] laterWeight = new double[queryTerms.size() + 1];
+        for (int s = queryTerms.size() - 1; s >= 0; s--) {
+            laterWeight[s] = laterWeight[s + 1] + queryTerms.get(s).weights()[0];
+        }
+        for (int s = 0; s < queryTerms.size(); s++) {
+            int reachable = queryTerms.size() - s;
+            QueryTerm queryTerm = queryTerms.get(s);
+            for (int k = 0; k < queryTerm.terms().length; k++) {
+                if (best.size() == limit && best.peek().matched() > reachable) {
+                    return best;
+                }
+                double weight = queryTerm.weights()[k] + laterWeight[s + 1];
+                for (Document document : queryTerm.terms()[k].documents) {
+                    if (best.size() == limit && best.peek().matched() == reachable) {
+                        Scored worst = best.peek();
+                        double bound = weight / lengthNorm(document, averageLength);
+                        if (bound < worst.score()
+                                || bound == worst.score() && DOCUMENT_ORDER.compare(document, worst.document()) > 0) {
+                            break;
+                        }
+                    }
+                    Scored scored = score(document, queryTerms, s, k, averageLength);
+                    if (scored != null && (best.size() < limit || WORST_FIRST.compare(scored, best.peek()) > 0)) {
+                        best.add(scored);
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The score of {@code document}, or null when it is scored elsewhere:
+     * under an earlier word, or under an earlier term of word {@code pass}
+     * than {@code ordinal}.
+     */
+    private static Scored score(Document document, List<QueryTerm> queryTerms, int pass, int ordinal,
+                                double averageLength) {
+        int matched = 0;
+        double sum = 0;
+        for (int i = 0; i < queryTerms.size(); i++) {
+            Map<Term, Integer> ordinals = queryTerms.get(i).ordinals();
+            int bestOrdinal = Integer.MAX_VALUE;
+            for (Term term : document.terms()) {
+                Integer termOrdinal = ordinals.get(term);
+                if (termOrdinal != null && termOrdinal < bestOrdinal) {
+                    bestOrdinal = termOrdinal;
+                }
+            }
+            if (bestOrdinal == Integer.MAX_VALUE) {
+                continue;
+            }
+            if (i < pass || i == pass && bestOrdinal < ordinal) {
+                return null;
+            }
+            matched++;
+            sum += queryTerms.get(i).weights()[bestOrdinal];
+        }
+        return new Scored(document, matched, sum / lengthNorm(document, averageLength));
+    }
+
+    private static double lengthNorm(Document document, double averageLength) {
+        return 1 - LENGTH_WEIGHT + LENGTH_WEIGHT * document.terms().length / averageLength;
+    }
+
+    private void index(String id, String text) {
+        documents.compute(id, (key, indexed) -> {
+            if (indexed != null && indexed.text().equals(text)) {
+                return indexed;
+            }
+            if (indexed != null) {
+                for (Term term : indexed.terms()) {
+                    removePosting(term, indexed);
+                }
+                totalTerms.add(-indexed.terms().length);
+            }
+            return newDocument(key, text);
+        });
+    }
+
+    /** Builds the document and adds its postings; called inside the update of its entry. */
+    private Document newDocument(String id, String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> words = analyze(text);
+        Term[] terms = new Term[words.size()];
+        Document document = new Document(id, text, terms);
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = addPosting(words.get(i), document);
+        }
+        totalTerms.add(terms.length);
+        return document;
+    }
+
+    private Term addPosting(String text, Document document) {
+        return postings.compute(text, (key, term) -> {
+            if (term == null) {
+                term = new Term(key);
+                vocabulary.add(key);
+                for (String gram : grams(key)) {
+                    termsByGram.compute(gramKey(gram, key.length()), (ignored, terms) -> {
+                        Set<String> next = terms == null ? ConcurrentHashMap.newKeySet() : terms;
+                        next.add(key);
+                        return next;
+                    });
+                }
+            }
+            if (term.documents.add(document)) {
+                term.size++;
+            }
+            return term;
+        });
+    }
+
+    private void removePosting(Term term, Document document) {
+        postings.computeIfPresent(term.text, (key, current) -> {
+            if (current.documents.remove(document)) {
+                current.size--;
+            }
+            if (current.size > 0) {
+                return current;
+            }
+            vocabulary.remove(key);
+            for (String gram : grams(key)) {
+                termsByGram.computeIfPresent(gramKey(gram, key.length()), (ignored, terms) -> {
+                    terms.remove(key);
+                    return terms.isEmpty() ? null : terms;
+                });
+            }
+            return null;
+        });
+    }
+
+    private QueryTerm expand(String word, boolean last, int documentCount) {
+        Map<String, Double> similarity = new HashMap<>();
+        if (postings.containsKey(word)) {
+            similarity.put(word, 1.0);
+        }
+        int edits = maxEdits(word.length());
+        if (edits > 0) {
+            addTypos(word, edits, similarity);
+        }
+        if (last && word.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (String term : vocabulary.tailSet(word, false)) {
+                if (!term.startsWith(word) || expanded++ == MAX_EXPANSIONS) {
+                    break;
+                }
+                similarity.merge(term, PREFIX_SIMILARITY, Math::max);
+            }
+        }
+
+        List<Term> terms = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        long postingCount = 0;
+        for (Map.Entry<String, Double> candidate : similarity.entrySet()) {
+            Term term = postings.get(candidate.getKey());
+            int size = term == null ? 0 : term.size;
+            if (size > 0) {
+                terms.add(term);
+                weights.add(candidate.getValue() * Math.log(1 + (double) documentCount / size));
+                postingCount += size;
+            }
+        }
+        Integer[] order = new Integer[terms.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(weights.get(b), weights.get(a)));
+        int kept = Math.min(order.length, MAX_EXPANSIONS);
+        Term[] keptTerms = new Term[kept];
+        double[] keptWeights = new double[kept];
+        Map<Term, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < kept; i++) {
+            keptTerms[i] = terms.get(order[i]);
+            keptWeights[i] = weights.get(order[i]);
+            ordinals.put(keptTerms[i], i);
+        }
+        return new QueryTerm(keptTerms, keptWeights, ordinals, postingCount);
+    }
+
+    /**
+     * One edit removes at most two of a word's distinct bigrams, so a term
+     * within {@code edits} of {@code word} shares all but {@code 2 * edits}
+     * of them; only terms sharing that many are compared in full.
+     */
+    private void addTypos(String word, int edits, Map<String, Double> similarity) {
+        Set<String> grams = new LinkedHashSet<>(List.of(grams(word)));
+        Map<String, Integer> shared = new HashMap<>();
+        for (int length = Math.max(1, word.length() - edits); length <= word.length() + edits; length++) {
+            for (String gram : grams) {
+                for (String term : termsByGram.getOrDefault(gramKey(gram, length), Set.of())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        int required = Math.max(1, grams.size() - 2 * edits);
+        shared.forEach((term, count) -> {
+            if (count < required || term.equals(word)) {
+                return;
+            }
+            int distance = editDistance(word, term, edits);
+            if (distance <= edits) {
+                similarity.merge(term, 1 - TYPO_PENALTY * distance, Math::max);
+            }
+        });
+    }
+
+    /** Lowercase terms without accents, in order of first appearance, each once. */
+    static List<String> analyze(String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    /** Levenshtein distance, or {@code max + 1} as soon as it must exceed {@code max}. */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static String[] grams(String term) {
+        String padded = '$' + term + '$';
+        String[] grams = new String[padded.length() - 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = padded.substring(i, i + 2);
+        }
+        return grams;
+    }
+
+    private static String gramKey(String gram, int termLength) {
+        return termLength + gram;
+    }
+}
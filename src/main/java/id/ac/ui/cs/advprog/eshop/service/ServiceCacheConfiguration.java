@@ -0,0 +1,68 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Puts a bounded Caffeine cache (W-TinyLFU eviction) in front of the
+ * product and car services. The caching services are {@code @Primary}, so
+ * controllers get them while the plain implementations stay available as
+ * their delegates. Hit, miss and eviction counts are published as the
+ * standard {@code cache.*} meters. Disable with {@code eshop.cache.enabled=false}.
+ */
+@Configuration
+@EnableConfigurationProperties(ServiceCacheProperties.class)
+@ConditionalOnProperty(prefix = "eshop.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceCacheConfiguration {
+
+    @Bean
+    @Primary
+    public CachingProductService cachingProductService(ProductServiceImpl productService,
+                                                       ProductRepositoryPort productRepository,
+                                                       ServiceCacheProperties properties) {
+        CachingProductService cachingService = new CachingProductService(productService,
+                build(properties.getProducts()));
+        productRepository.addListener(cachingService);
+        return cachingService;
+    }
+
+    @Bean
+    @Primary
+    public CachingCarService cachingCarService(CarServiceImpl carService,
+                                               CarRepositoryPort carRepository,
+                                               ServiceCacheProperties properties) {
+        CachingCarService cachingService = new CachingCarService(carService, build(properties.getCars()));
+        carRepository.addListener(cachingService);
+        return cachingService;
+    }
+
+    @Bean
+    public MeterBinder serviceCacheMetrics(CachingProductService cachingProductService,
+                                           CachingCarService cachingCarService) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, cachingProductService.cache(), "products");
+            CaffeineCacheMetrics.monitor(registry, cachingCarService.cache(), "cars");
+        };
+    }
+
+    private static <T> Cache<String, T> build(ServiceCacheProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .recordStats();
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,22 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "eshop.cache")
+public class ServiceCacheProperties {
+    private boolean enabled = true;
+    private Spec products = new Spec();
+    private Spec cars = new Spec();
+    private Spec pages = new Spec();
+
+    @Getter @Setter
+    public static class Spec {
+        private long maximumSize = 10_000;
+        private Duration expireAfterAccess;
+    }
+}
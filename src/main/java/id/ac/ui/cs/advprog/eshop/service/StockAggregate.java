@@ -0,0 +1,131 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockTotal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Accumulator of one parallel stock reduction over a repository stream.
+ * Every fork-join task fills its own instance and finished halves are
+ * merged pairwise, so nothing is shared or locked while the catalog is
+ * scanned. The top-k lists are bounded heaps, so no task keeps more than
+ * {@code top} candidates per list however large its share is.
+ */
+final class StockAggregate<T> {
+    private static final String[] BUCKETS = {"0", "1-9", "10-99", "100-999", "1000-9999", "10000+"};
+
+    private final ToIntFunction<T> quantityOf;
+    private final Comparator<T> lowestFirst;
+    private final Comparator<T> highestFirst;
+    private final int lowStockThreshold;
+    private final int top;
+    private final long[] histogram = new long[BUCKETS.length];
+    private final PriorityQueue<T> lowest;
+    private final PriorityQueue<T> highest;
+    private long itemCount;
+    private long totalUnits;
+
+    private StockAggregate(ToIntFunction<T> quantityOf, Function<T, String> idOf, int lowStockThreshold,
+                           int top) {
+        this.quantityOf = quantityOf;
+        this.lowestFirst = Comparator.comparingInt(quantityOf).thenComparing(idOf);
+        this.highestFirst = Comparator.comparingInt(quantityOf).reversed().thenComparing(idOf);
+        this.lowStockThreshold = lowStockThreshold;
+        this.top = top;
+        this.lowest = new PriorityQueue<>(lowestFirst.reversed());
+        this.highest = new PriorityQueue<>(highestFirst.reversed());
+    }
+
+    /**
+     * Totals, quantity histogram, the {@code top} items at or below
+     * {@code lowStockThreshold} with the fewest units and the {@code top}
+     * items with the most.
+     */
+    static <T> StockReport<T> report(Stream<T> items, ToIntFunction<T> quantityOf, Function<T, String> idOf,
+                                     int lowStockThreshold, int top) {
+        return items.parallel()
+                .collect(() -> new StockAggregate<>(quantityOf, idOf, lowStockThreshold, top),
+                        StockAggregate::add, StockAggregate::merge)
+                .toReport();
+    }
+
+    /** Item count and units per group, with group keys compared case-insensitively. */
+    static <T> Map<String, StockTotal> totalsBy(Stream<T> items, Function<T, String> keyOf,
+                                                ToIntFunction<T> quantityOf) {
+        return items.parallel()
+                .collect(Collectors.groupingBy(item -> normalize(keyOf.apply(item)), TreeMap::new,
+                        Collectors.teeing(Collectors.counting(),
+                                Collectors.summingLong(quantityOf::applyAsInt),
+                                StockTotal::new)));
+    }
+
+    private void add(T item) {
+        int quantity = quantityOf.applyAsInt(item);
+        itemCount++;
+        totalUnits += quantity;
+        histogram[bucketOf(quantity)]++;
+        if (quantity <= lowStockThreshold) {
+            offer(lowest, item, lowestFirst);
+        }
+        offer(highest, item, highestFirst);
+    }
+
+    private void merge(StockAggregate<T> other) {
+        itemCount += other.itemCount;
+        totalUnits += other.totalUnits;
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+        other.lowest.forEach(item -> offer(lowest, item, lowestFirst));
+        other.highest.forEach(item -> offer(highest, item, highestFirst));
+    }
+
+    private StockReport<T> toReport() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS.length; i++) {
+            buckets.put(BUCKETS[i], histogram[i]);
+        }
+        return new StockReport<>(itemCount, totalUnits, buckets, sorted(lowest, lowestFirst),
+                sorted(highest, highestFirst));
+    }
+
+    /** Keeps the {@code top} best items; the heap's head is the worst one kept. */
+    private void offer(PriorityQueue<T> heap, T item, Comparator<T> better) {
+        if (heap.size() < top) {
+            heap.add(item);
+        } else if (top > 0 && better.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    private static <T> List<T> sorted(PriorityQueue<T> heap, Comparator<T> order) {
+        List<T> items = new ArrayList<>(heap);
+        items.sort(order);
+        return items;
+    }
+
+    private static int bucketOf(int quantity) {
+        int bucket = quantity <= 0 ? 0 : 1;
+        for (long bound = 10; bucket > 0 && quantity >= bound && bucket < BUCKETS.length - 1; bound *= 10) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+}
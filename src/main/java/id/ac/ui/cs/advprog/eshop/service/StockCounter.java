@@ -0,0 +1,162 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Units of one item that can still be reserved, split over padded cells the
+ * way {@link java.util.concurrent.atomic.LongAdder} splits a sum. Taking is a
+ * compare-and-set on one cell that never drives it below zero, so the units
+ * handed out can never exceed the units put in. A counter starts with one
+ * cell and doubles when takers collide, so a hot item spreads its stock over
+ * as many cells as there are processors.
+ *
+ * <p>Everything that puts units into cells (returns, restocks, rebalancing)
+ * holds the lock. Taking units away that no cell has left is recorded as
+ * debt, which later returns pay off before any cell is refilled, so a cell
+ * never holds units while the counter is in debt.
+ */
+final class StockCounter {
+    private static final int PAD = 16;
+    private static final int MAX_CELLS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile AtomicLongArray cells = new AtomicLongArray(PAD);
+    private long debt;
+    long version;
+
+    StockCounter(long units, long version) {
+        this.version = version;
+        add(units);
+    }
+
+    boolean tryTake(int units) {
+        while (true) {
+            AtomicLongArray current = cells;
+            int count = current.length() / PAD;
+            int home = probe() & (count - 1);
+            boolean contended = false;
+            for (int i = 0; i < count; i++) {
+                int index = ((home + i) & (count - 1)) * PAD;
+                for (long value = current.get(index); value >= units; value = current.get(index)) {
+                    if (current.compareAndSet(index, value, value - units)) {
+                        if (contended || i > 0) {
+                            tryRebalance(contended);
+                        }
+                        return true;
+                    }
+                    contended = true;
+                }
+            }
+            if (current == cells) {
+                return takeSpread(units);
+            }
+        }
+    }
+
+    /**
+     * Adds units, or removes them if negative. Removal takes what the cells
+     * still hold and records the rest as debt.
+     */
+    void add(long units) {
+        lock.lock();
+        try {
+            AtomicLongArray current = cells;
+            if (units >= 0) {
+                long paid = Math.min(debt, units);
+                debt -= paid;
+                current.getAndAdd((probe() & (current.length() / PAD - 1)) * PAD, units - paid);
+                return;
+            }
+            long missing = -units;
+            for (int index = 0; index < current.length() && missing > 0; index += PAD) {
+                missing -= drain(current, index, missing);
+            }
+            debt += missing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long available() {
+        AtomicLongArray current = cells;
+        long sum = 0;
+        for (int index = 0; index < current.length(); index += PAD) {
+            sum += current.get(index);
+        }
+        lock.lock();
+        try {
+            return sum - debt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int cellCount() {
+        return cells.length() / PAD;
+    }
+
+    /**
+     * Covers a request no single cell can fill by pooling all cells. Units
+     * taken concurrently by other threads while the pool is gathered are
+     * simply not part of it.
+     */
+    private boolean takeSpread(int units) {
+        lock.lock();
+        try {
+            long pooled = drainAll(cells);
+            boolean taken = pooled >= units;
+            spread(cells, taken ? pooled - units : pooled);
+            return taken;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tryRebalance(boolean grow) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            AtomicLongArray current = cells;
+            AtomicLongArray next = grow && current.length() / PAD < MAX_CELLS
+                    ? new AtomicLongArray(current.length() * 2)
+                    : current;
+            long pooled = drainAll(current);
+            spread(next, pooled);
+            cells = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long drainAll(AtomicLongArray current) {
+        long pooled = 0;
+        for (int index = 0; index < current.length(); index += PAD) {
+            pooled += current.getAndSet(index, 0);
+        }
+        return pooled;
+    }
+
+    private static long drain(AtomicLongArray current, int index, long atMost) {
+        while (true) {
+            long value = current.get(index);
+            long taken = Math.min(value, atMost);
+            if (taken <= 0 || current.compareAndSet(index, value, value - taken)) {
+                return Math.max(taken, 0);
+            }
+        }
+    }
+
+    private static void spread(AtomicLongArray target, long units) {
+        int count = target.length() / PAD;
+        long share = units / count;
+        for (int i = 0; i < count; i++) {
+            target.getAndAdd(i * PAD, i == 0 ? share + units % count : share);
+        }
+    }
+
+    private static int probe() {
+        return (int) (Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L >>> 32);
+    }
+}
@@ -0,0 +1,222 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
+import id.ac.ui.cs.advprog.eshop.repository.IdGenerator;
+import id.ac.ui.cs.advprog.eshop.repository.RepositoryListener;
+import id.ac.ui.cs.advprog.eshop.repository.TimeOrderedIdGenerator;
+import id.ac.ui.cs.advprog.eshop.repository.VersionConflictException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserve, commit and release for the stored quantity of an entity. The
+ * stored quantity is the stock on hand; a {@link StockCounter} per entity
+ * tracks what is left of it after open reservations, so reserving never
+ * touches the repository and never oversells. Committing writes the reduced
+ * quantity back with a compare-and-set on the entity version.
+ *
+ * <p>Registered as a repository listener, the ledger moves the counter by
+ * the difference whenever the quantity is edited elsewhere. Each counter
+ * remembers the version it has seen, so an edit that raced with seeding the
+ * counter is not applied twice, and a commit's own write is only applied as
+ * far as it differs from what the reservation already took.
+ *
+ * <p>Every hold expires, by default {@link #DEFAULT_HOLD_TIMEOUT} after it
+ * was taken, so a client that never commits or releases does not keep the
+ * units forever. A sweep on a shared background thread returns the units of
+ * expired holds to their counters, and commit and release treat a hold that
+ * expired before the sweep reached it as already released.
+ */
+public abstract class StockLedger<T> implements RepositoryListener<T>, AutoCloseable {
+    public static final Duration DEFAULT_HOLD_TIMEOUT = Duration.ofMinutes(15);
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "stock-hold-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Hold(Reservation reservation, StockCounter counter) { }
+
+    private final ConcurrentMap<String, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Hold> holds = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> committedChange = ThreadLocal.withInitial(() -> new long[1]);
+    private final IdGenerator reservationIds = new TimeOrderedIdGenerator();
+    private final Duration holdTimeout;
+    private final Clock clock;
+    private final ScheduledFuture<?> sweep;
+
+    protected StockLedger(Duration holdTimeout, Clock clock) {
+        requirePositive(holdTimeout);
+        this.holdTimeout = holdTimeout;
+        this.clock = clock;
+        this.sweep = SWEEPER.scheduleWithFixedDelay(this::expireHolds, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public Reservation reserve(String id, int quantity) {
+        return reserve(id, quantity, holdTimeout);
+    }
+
+    /** Reserves units held for {@code holdFor} instead of the ledger's hold timeout. */
+    public Reservation reserve(String id, int quantity, Duration holdFor) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reserved quantity must be positive: " + quantity);
+        }
+        requirePositive(holdFor);
+        StockCounter counter = counter(id);
+        if (counter == null || !counter.tryTake(quantity)) {
+            return null;
+        }
+        Reservation reservation = new Reservation(reservationIds.nextId(), id, quantity,
+                clock.instant().plus(holdFor));
+        holds.put(reservation.getReservationId(), new Hold(reservation, counter));
+        return reservation;
+    }
+
+    public boolean commit(String reservationId) {
+        Hold hold = take(reservationId);
+        if (hold == null) {
+            return false;
+        }
+        Reservation reservation = hold.reservation();
+        long[] change = committedChange.get();
+        try {
+            while (true) {
+                T current = find(reservation.getItemId());
+                if (current == null) {
+                    return false;
+                }
+                change[0] = -reservation.getQuantity();
+                try {
+                    return store(withQuantity(current,
+                            Math.max(0, quantityOf(current) - reservation.getQuantity())));
+                } catch (VersionConflictException retry) {
+                    // edited since it was read; reapply on the newer version
+                }
+            }
+        } finally {
+            change[0] = 0;
+        }
+    }
+
+    public boolean release(String reservationId) {
+        Hold hold = take(reservationId);
+        if (hold == null) {
+            return false;
+        }
+        hold.counter().add(hold.reservation().getQuantity());
+        return true;
+    }
+
+    /** Returns the units of every expired hold to its counter; returns how many holds expired. */
+    public int expireHolds() {
+        Instant now = clock.instant();
+        int expired = 0;
+        for (Hold hold : holds.values()) {
+            if (isExpired(hold, now) && holds.remove(hold.reservation().getReservationId(), hold)) {
+                hold.counter().add(hold.reservation().getQuantity());
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public void close() {
+        sweep.cancel(false);
+    }
+
+    public long available(String id) {
+        StockCounter counter = counter(id);
+        return counter == null ? 0 : counter.available();
+    }
+
+    @Override
+    public void onChange(T previous, T current) {
+        long[] change = committedChange.get();
+        long expected = change[0];
+        change[0] = 0;
+        if (previous == null) {
+            return;
+        }
+        if (current == null) {
+            counters.remove(idOf(previous));
+            return;
+        }
+        long delta = (long) quantityOf(current) - quantityOf(previous) - expected;
+        long version = versionOf(current);
+        counters.computeIfPresent(idOf(current), (id, counter) -> {
+            if (version > counter.version) {
+                counter.version = version;
+                if (delta != 0) {
+                    counter.add(delta);
+                }
+            }
+            return counter;
+        });
+    }
+
+    int cellCount(String id) {
+        StockCounter counter = counters.get(id);
+        return counter == null ? 0 : counter.cellCount();
+    }
+
+    protected abstract T find(String id);
+
+    /**
+     * Writes the entity if its version is still the stored one.
+     * @throws VersionConflictException if it is not
+     */
+    protected abstract boolean store(T updated);
+
+    protected abstract String idOf(T entity);
+
+    protected abstract long versionOf(T entity);
+
+    protected abstract int quantityOf(T entity);
+
+    protected abstract T withQuantity(T entity, int quantity);
+
+    /** Removes the hold, returning its units instead if it has expired. */
+    private Hold take(String reservationId) {
+        Hold hold = reservationId == null ? null : holds.remove(reservationId);
+        if (hold != null && isExpired(hold, clock.instant())) {
+            hold.counter().add(hold.reservation().getQuantity());
+            return null;
+        }
+        return hold;
+    }
+
+    private static boolean isExpired(Hold hold, Instant now) {
+        return !now.isBefore(hold.reservation().getExpiresAt());
+    }
+
+    private static void requirePositive(Duration holdFor) {
+        if (holdFor.isNegative() || holdFor.isZero()) {
+            throw new IllegalArgumentException("Hold time must be positive: " + holdFor);
+        }
+    }
+
+    private StockCounter counter(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        StockCounter counter = counters.get(id);
+        if (counter != null) {
+            return counter;
+        }
+        return counters.computeIfAbsent(id, key -> {
+            T entity = find(key);
+            return entity == null ? null : new StockCounter(quantityOf(entity), versionOf(entity));
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
+
+public interface StockService {
+    /**
+     * Holds units of an item for a checkout in progress.
+     * @return the hold, or null if the item does not exist or has fewer units left
+     */
+    Reservation reserve(String id, int quantity);
+    /** Takes the held units out of the item's stored quantity. */
+    boolean commit(String reservationId);
+    /** Puts the held units back. */
+    boolean release(String reservationId);
+    long available(String id);
+}
@@ -0,0 +1,143 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Reads catalog rows from CSV with a header line naming the model fields,
+ * e.g. {@code productName,productQuantity}. The id column is optional. A
+ * quoted field may span lines, as {@link #escape} writes values holding line
+ * breaks.
+ */
+public final class CatalogCsv {
+    private CatalogCsv() {
+    }
+
+    public static List<Product> readProducts(String csv) {
+        return read(csv, CatalogCsv::toProduct);
+    }
+
+    public static List<Car> readCars(String csv) {
+        return read(csv, CatalogCsv::toCar);
+    }
+
+    public static Product toProduct(Map<String, Integer> header, List<String> fields) {
+        Product product = new Product();
+        product.setProductId(field(header, fields, "productId"));
+        product.setProductName(field(header, fields, "productName"));
+        product.setProductQuantity(quantity(field(header, fields, "productQuantity")));
+        return product;
+    }
+
+    public static Car toCar(Map<String, Integer> header, List<String> fields) {
+        Car car = new Car();
+        car.setCarId(field(header, fields, "carId"));
+        car.setCarName(field(header, fields, "carName"));
+        car.setCarColor(field(header, fields, "carColor"));
+        car.setCarQuantity(quantity(field(header, fields, "carQuantity")));
+        return car;
+    }
+
+    public static Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> names = parseLine(line);
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim(), i);
+        }
+        return header;
+    }
+
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static <T> List<T> read(String csv, BiFunction<Map<String, Integer>, List<String>, T> mapper) {
+        List<T> rows = new ArrayList<>();
+        if (csv == null || csv.isBlank()) {
+            return rows;
+        }
+        RecordReader records = new RecordReader(new StringReader(csv), true);
+        try {
+            Map<String, Integer> header = parseHeader(records.next());
+            for (String record = records.next(); record != null; record = records.next()) {
+                if (record.isBlank()) {
+                    continue;
+                }
+                try {
+                    rows.add(mapper.apply(header, parseLine(record)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + records.lineNumber() + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException impossible) {
+            throw new UncheckedIOException(impossible);
+        }
+        return rows;
+    }
+
+    private static String field(Map<String, Integer> header, List<String> fields, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int quantity(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid quantity '" + value + "'", e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes catalog rows as CSV or newline-delimited JSON straight from a
+ * repository iterator. Rows are encoded one at a time into a fixed-size
+ * buffer that goes out whenever it fills, so memory stays bounded by the
+ * buffer whatever the catalog size; the iterators read without locks, so
+ * writers carry on while an export runs. The CSV header uses the model
+ * field names, so an export can be fed back to the bulk endpoints.
+ */
+public final class CatalogExport<T> {
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    public static final CatalogExport<Product> PRODUCTS = new CatalogExport<>(List.of(
+            new Column<>("productId", Product::getProductId),
+            new Column<>("productName", Product::getProductName),
+            new Column<>("productQuantity", Product::getProductQuantity),
+            new Column<>("version", Product::getVersion)));
+
+    public static final CatalogExport<Car> CARS = new CatalogExport<>(List.of(
+            new Column<>("carId", Car::getCarId),
+            new Column<>("carName", Car::getCarName),
+            new Column<>("carColor", Car::getCarColor),
+            new Column<>("carQuantity", Car::getCarQuantity),
+            new Column<>("version", Car::getVersion)));
+
+    private record Column<T>(String name, Function<T, Object> value) { }
+
+    private final List<Column<T>> columns;
+
+    private CatalogExport(List<Column<T>> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Writes every remaining row and flushes, leaving {@code out} open.
+     * @return the number of rows written
+     */
+    public long write(Iterator<? extends T> rows, CatalogFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == CatalogFormat.CSV) {
+            writeCsvHeader(writer);
+        }
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            if (format == CatalogFormat.CSV) {
+                writeCsvRow(writer, row);
+            } else {
+                writeJsonRow(writer, row);
+            }
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvHeader(Writer writer) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).name());
+        }
+        writer.write('\n');
+    }
+
+    private void writeCsvRow(Writer writer, T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = columns.get(i).value().apply(row);
+            writer.write(value == null ? "" : CatalogCsv.escape(value.toString()));
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonRow(Writer writer, T row) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeJsonString(writer, columns.get(i).name());
+            writer.write(':');
+            Object value = columns.get(i).value().apply(row);
+            if (value == null) {
+                writer.write("null");
+            } else if (value instanceof Number) {
+                writer.write(value.toString());
+            } else {
+                writeJsonString(writer, value.toString());
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
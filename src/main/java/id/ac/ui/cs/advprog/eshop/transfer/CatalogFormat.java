@@ -0,0 +1,60 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import java.util.Locale;
+
+/** Row formats of catalog exports and imports. */
+public enum CatalogFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    CatalogFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static CatalogFormat parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown catalog format '" + name + "'", e);
+        }
+    }
+
+    /** Picks the format from a request content type, defaulting to CSV when there is none. */
+    public static CatalogFormat ofContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return CSV;
+        }
+        String lower = contentType.toLowerCase(Locale.ROOT);
+        if (lower.contains("ndjson") || lower.contains("jsonl")) {
+            return NDJSON;
+        }
+        if (lower.startsWith("text/csv") || lower.startsWith("text/plain")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unsupported catalog content type '" + contentType + "'");
+    }
+
+    /** Picks the format from a file name, treating {@code .jsonl} as NDJSON. */
+    public static CatalogFormat ofFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Cannot tell the catalog format of '" + fileName + "'");
+    }
+}
@@ -0,0 +1,448 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.ImportReport;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.IdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Loads CSV or newline-delimited JSON catalog rows as a three-stage
+ * pipeline. The calling thread reads records and hands them in chunks to a
+ * pool of parser threads, which parse, validate and assign ids; a single
+ * writer thread takes the parsed chunks back in input order and inserts
+ * them in batches. Chunks pass through a bounded queue, so a slow
+ * repository holds the reader back instead of letting parsed rows pile up
+ * in memory. Bad rows, and rows whose id is already taken, are rejected by
+ * line number without stopping the import; a failing insert does stop it,
+ * keeping the batches already written. The input format is the one {@link CatalogExport} writes, and
+ * like {@link CatalogCsv} a quoted CSV field may span lines; a row is
+ * reported by the line it starts on.
+ */
+public final class CatalogImport<T> {
+    static final int CHUNK_ROWS = 1_000;
+    static final int BATCH_ROWS = 10_000;
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final Logger log = LoggerFactory.getLogger(CatalogImport.class);
+
+    public static final CatalogImport<Product> PRODUCTS = new CatalogImport<>("product", CatalogCsv::toProduct,
+            Product::getProductName, Product::getProductQuantity, Product::getProductId, Product::setProductId);
+
+    public static final CatalogImport<Car> CARS = new CatalogImport<>("car", CatalogCsv::toCar,
+            Car::getCarName, Car::getCarQuantity, Car::getCarId, Car::setCarId);
+
+    private record Parsed<T>(List<T> rows, List<Long> lineNumbers, long read, long rejected, List<String> errors) { }
+
+    private final String entity;
+    private final BiFunction<Map<String, Integer>, List<String>, T> mapper;
+    private final Function<T, String> nameOf;
+    private final ToIntFunction<T> quantityOf;
+    private final Function<T, String> idOf;
+    private final BiConsumer<T, String> setId;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    private CatalogImport(String entity, BiFunction<Map<String, Integer>, List<String>, T> mapper,
+                          Function<T, String> nameOf, ToIntFunction<T> quantityOf,
+                          Function<T, String> idOf, BiConsumer<T, String> setId) {
+        this.entity = entity;
+        this.mapper = mapper;
+        this.nameOf = nameOf;
+        this.quantityOf = quantityOf;
+        this.idOf = idOf;
+        this.setId = setId;
+        this.importedRows = Metrics.counter("eshop.import.rows", "entity", entity, "result", "imported");
+        this.rejectedRows = Metrics.counter("eshop.import.rows", "entity", entity, "result", "rejected");
+    }
+
+    /**
+     * Imports every row of {@code in}, passing batches in input order to
+     * {@code sink}, and leaves {@code in} open. The sink returns the rows it
+     * stored; the others count as rejected because their id was taken.
+     */
+    public ImportReport run(InputStream in, CatalogFormat format, IdGenerator idGenerator,
+                            Function<List<T>, List<T>> sink) throws IOException {
+        int parserThreads = Runtime.getRuntime().availableProcessors();
+        return run(in, format, idGenerator, sink, parserThreads, 2 * parserThreads);
+    }
+
+    ImportReport run(InputStream in, CatalogFormat format, IdGenerator idGenerator, Function<List<T>, List<T>> sink,
+                     int parserThreads, int queuedChunks) throws IOException {
+        long started = System.nanoTime();
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, daemonThreads("catalog-import-parser-"));
+        BatchWriter writer = new BatchWriter(new ArrayBlockingQueue<>(queuedChunks), sink);
+        Thread writerThread = daemonThreads("catalog-import-writer-").newThread(writer);
+        writerThread.start();
+        try {
+            read(in, format, idGenerator, parsers, writer);
+            writer.hand(writer.end);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import of " + entity + " rows interrupted");
+        } finally {
+            writer.cancelled = true;
+            parsers.shutdownNow().forEach(task -> ((Future<?>) task).cancel(false));
+        }
+        if (writer.failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (writer.failure != null) {
+            throw new IllegalStateException("Import of " + entity + " rows failed", writer.failure);
+        }
+        ImportReport report = new ImportReport(writer.read, writer.imported, writer.rejected,
+                List.copyOf(writer.errors), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Imported {} of {} {} rows in {} ms", report.getImported(), report.getRowsRead(), entity,
+                report.getElapsedMillis());
+        return report;
+    }
+
+    private void read(InputStream in, CatalogFormat format, IdGenerator idGenerator, ExecutorService parsers,
+                      BatchWriter writer) throws IOException, InterruptedException {
+        RecordReader records = new RecordReader(new InputStreamReader(in, StandardCharsets.UTF_8),
+                format == CatalogFormat.CSV);
+        Map<String, Integer> header = null;
+        List<String> lines = new ArrayList<>(CHUNK_ROWS);
+        List<Long> lineNumbers = new ArrayList<>(CHUNK_ROWS);
+        String line;
+        while (!writer.stopped && (line = records.next()) != null) {
+            if (format == CatalogFormat.CSV && header == null) {
+                if (!line.isBlank()) {
+                    header = CatalogCsv.parseHeader(line);
+                }
+                continue;
+            }
+            lines.add(line);
+            lineNumbers.add(records.lineNumber());
+            if (lines.size() == CHUNK_ROWS) {
+                if (!submit(parsers, writer, header, lineNumbers, lines, idGenerator)) {
+                    return;
+                }
+                lines = new ArrayList<>(CHUNK_ROWS);
+                lineNumbers = new ArrayList<>(CHUNK_ROWS);
+            }
+        }
+        if (!lines.isEmpty()) {
+            submit(parsers, writer, header, lineNumbers, lines, idGenerator);
+        }
+    }
+
+    private boolean submit(ExecutorService parsers, BatchWriter writer, Map<String, Integer> header,
+                           List<Long> lineNumbers, List<String> lines, IdGenerator idGenerator)
+            throws InterruptedException {
+        return writer.hand(parsers.submit(() -> parse(header, lineNumbers, lines, idGenerator)));
+    }
+
+    private Parsed<T> parse(Map<String, Integer> header, List<Long> recordLines, List<String> lines,
+                            IdGenerator idGenerator) {
+        List<T> rows = new ArrayList<>(lines.size());
+        List<Long> lineNumbers = new ArrayList<>(lines.size());
+        List<String> errors = new ArrayList<>();
+        long read = 0;
+        long rejected = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            read++;
+            try {
+                T row = header == null ? fromJson(line) : mapper.apply(header, CatalogCsv.parseLine(line));
+                validate(row);
+                if (idOf.apply(row) == null) {
+                    setId.accept(row, idGenerator.nextId());
+                }
+                rows.add(row);
+                lineNumbers.add(recordLines.get(i));
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Line " + recordLines.get(i) + ": " + e.getMessage());
+                }
+            }
+        }
+        return new Parsed<>(rows, lineNumbers, read, rejected, errors);
+    }
+
+    private T fromJson(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> fields = new ArrayList<>();
+        new FlatJsonObject(line).parse().forEach((name, value) -> {
+            header.put(name, fields.size());
+            fields.add(value == null ? "" : value);
+        });
+        return mapper.apply(header, fields);
+    }
+
+    private void validate(T row) {
+        String name = nameOf.apply(row);
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Missing " + entity + " name");
+        }
+        int quantity = quantityOf.applyAsInt(row);
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Negative quantity " + quantity);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger next = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + next.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The last stage. Takes parsed chunks in the order they were handed in,
+     * waiting on each one's parser, and stops at {@link #end}, at the first
+     * failure, which the reader sees through {@link #stopped}, or once the
+     * reader gives up. It is never interrupted, so an insert in progress is
+     * not cut short in the middle of a repository or journal write.
+     */
+    private final class BatchWriter implements Runnable {
+        private final BlockingQueue<Future<Parsed<T>>> queue;
+        private final Future<Parsed<T>> end = CompletableFuture.completedFuture(null);
+        private final Function<List<T>, List<T>> sink;
+        private final List<String> errors = new ArrayList<>();
+        private long read;
+        private long imported;
+        private long rejected;
+        private volatile Throwable failure;
+        private volatile boolean stopped;
+        private volatile boolean cancelled;
+
+        private BatchWriter(BlockingQueue<Future<Parsed<T>>> queue, Function<List<T>, List<T>> sink) {
+            this.queue = queue;
+            this.sink = sink;
+        }
+
+        /** Blocks while the queue is full; false once the writer has stopped. */
+        private boolean hand(Future<Parsed<T>> chunk) throws InterruptedException {
+            while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    chunk.cancel(true);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Future<Parsed<T>> take() throws InterruptedException {
+            Future<Parsed<T>> next = null;
+            while (!cancelled && next == null) {
+                next = queue.poll(100, TimeUnit.MILLISECONDS);
+            }
+            if (next == null) {
+                throw new CancellationException("Import of " + entity + " rows cancelled");
+            }
+            return next;
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<T> batch = new ArrayList<>(BATCH_ROWS);
+                List<Long> batchLines = new ArrayList<>(BATCH_ROWS);
+                for (Future<Parsed<T>> next = take(); next != end; next = take()) {
+                    Parsed<T> chunk = next.get();
+                    read += chunk.read();
+                    reject(chunk.rejected(), chunk.errors());
+                    batch.addAll(chunk.rows());
+                    batchLines.addAll(chunk.lineNumbers());
+                    if (batch.size() >= BATCH_ROWS) {
+                        insert(batch, batchLines);
+                        batch = new ArrayList<>(BATCH_ROWS);
+                        batchLines = new ArrayList<>(BATCH_ROWS);
+                    }
+                }
+                insert(batch, batchLines);
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+            } catch (InterruptedException | RuntimeException e) {
+                failure = e;
+            } finally {
+                stopped = true;
+            }
+        }
+
+        private void insert(List<T> batch, List<Long> batchLines) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Set<T> stored = Collections.newSetFromMap(new IdentityHashMap<>());
+            stored.addAll(sink.apply(batch));
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (!stored.contains(batch.get(i))) {
+                    taken.add("Line " + batchLines.get(i) + ": " + entity + " id " + idOf.apply(batch.get(i))
+                            + " is already taken");
+                }
+            }
+            reject(taken.size(), taken);
+            imported += stored.size();
+            importedRows.increment(stored.size());
+            log.debug("Imported {} {} rows so far", imported, entity);
+        }
+
+        private void reject(long rows, List<String> rowErrors) {
+            rejected += rows;
+            rejectedRows.increment(rows);
+            for (String error : rowErrors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads one JSON object whose values are strings, numbers, booleans or
+     * null, which is all a catalog row holds. Numbers and booleans come back
+     * as their literal text.
+     */
+    private static final class FlatJsonObject {
+        private final String text;
+        private int position;
+
+        private FlatJsonObject(String text) {
+            this.text = text;
+        }
+
+        private Map<String, String> parse() {
+            Map<String, String> values = new LinkedHashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                position++;
+            } else {
+                do {
+                    String name = string();
+                    expect(':');
+                    values.put(name, value());
+                } while (next() == ',');
+                position--;
+                expect('}');
+            }
+            if (peek() != 0) {
+                throw malformed();
+            }
+            return values;
+        }
+
+        private String value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Nested JSON values are not supported");
+            }
+            int start = position;
+            while (position < text.length() && "{}[]:,\" \t\r".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) {
+                throw malformed();
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) {
+                            throw malformed();
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed();
+                        }
+                        position += 4;
+                    }
+                    case '"', '\\', '/' -> value.append(escaped);
+                    default -> throw malformed();
+                }
+            }
+            throw new IllegalArgumentException("Unterminated JSON string");
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                position--;
+                throw malformed();
+            }
+        }
+
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private char peek() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed JSON at column " + (position + 1));
+        }
+    }
+}
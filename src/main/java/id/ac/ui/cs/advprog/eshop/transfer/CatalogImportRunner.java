@@ -0,0 +1,80 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import id.ac.ui.cs.advprog.eshop.model.ImportReport;
+import id.ac.ui.cs.advprog.eshop.repository.IdGenerator;
+import id.ac.ui.cs.advprog.eshop.service.CarService;
+import id.ac.ui.cs.advprog.eshop.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Command-line imports at startup, e.g.
+ * {@code --eshop.import.products=products.csv --eshop.import.exit=true}.
+ * The format follows the file extension. With {@code exit} set the process
+ * stops once the files are in, exiting non-zero if any row was rejected;
+ * add {@code --spring.main.web-application-type=none} to skip the web
+ * server for a one-off load.
+ */
+@Component
+public class CatalogImportRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportRunner.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Value("${eshop.import.products:}")
+    private String productsFile;
+
+    @Value("${eshop.import.cars:}")
+    private String carsFile;
+
+    @Value("${eshop.import.exit:false}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long rejected = 0;
+        if (!productsFile.isBlank()) {
+            rejected += load(Path.of(productsFile), CatalogImport.PRODUCTS, productService::createAll).getRejected();
+        }
+        if (!carsFile.isBlank()) {
+            rejected += load(Path.of(carsFile), CatalogImport.CARS, carService::createAll).getRejected();
+        }
+        if (exitWhenDone) {
+            int exitCode = rejected == 0 ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+
+    private <T> ImportReport load(Path file, CatalogImport<T> importer,
+                                  Function<List<T>, List<T>> sink) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            ImportReport report = importer.run(in, CatalogFormat.ofFileName(file.toString()), idGenerator, sink);
+            report.getErrors().forEach(error -> log.warn("{}: {}", file, error));
+            return report;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits catalog input into records at line feeds, dropping a carriage
+ * return before each one. For CSV a line feed inside a quoted field belongs
+ * to the field, so a record may span several lines; newline-delimited JSON
+ * escapes its line breaks and is split at every line feed.
+ */
+final class RecordReader {
+    private final Reader in;
+    private final boolean csv;
+    private final char[] buffer = new char[CatalogExport.BUFFER_SIZE];
+    private final StringBuilder record = new StringBuilder();
+    private int position;
+    private int limit;
+    private long linesRead;
+    private long lineNumber;
+
+    RecordReader(Reader in, boolean csv) {
+        this.in = in;
+        this.csv = csv;
+    }
+
+    /** Returns the next record without its line break, or null at the end of the input. */
+    String next() throws IOException {
+        record.setLength(0);
+        lineNumber = linesRead + 1;
+        boolean quoted = false;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '\n') {
+                linesRead++;
+                if (!quoted) {
+                    return recordWithoutCarriageReturn();
+                }
+            } else if (c == '"' && csv) {
+                quoted = !quoted;
+            }
+            record.append((char) c);
+        }
+        return record.isEmpty() ? null : recordWithoutCarriageReturn();
+    }
+
+    /** The line the last record returned by {@link #next} started on, counting from 1. */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    private String recordWithoutCarriageReturn() {
+        int length = record.length();
+        if (length > 0 && record.charAt(length - 1) == '\r') {
+            length--;
+        }
+        return record.substring(0, length);
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = Math.max(0, in.read(buffer));
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
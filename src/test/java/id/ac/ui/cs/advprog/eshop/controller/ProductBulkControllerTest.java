@@ -0,0 +1,101 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductBulkControllerTest {
+    private static final String BULK_PATH = "/product/bulk";
+
+    private MockMvc mockMvc;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productService = Mockito.mock(ProductService.class);
+        ProductBulkController controller = new ProductBulkController();
+        ReflectionTestUtils.setField(controller, "service", productService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createProductsFromJsonCreatesWholeBatch() throws Exception {
+        Mockito.when(productService.createAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post(BULK_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productName\":\"Tea\",\"productQuantity\":3},{\"productName\":\"Coffee\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].productName").value("Coffee"));
+
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(productService).createAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(3, captor.getValue().get(0).getProductQuantity());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createProductsFromCsvParsesRows() throws Exception {
+        Mockito.when(productService.createAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post(BULK_PATH)
+                        .contentType("text/csv")
+                        .content("productName,productQuantity\nTea,3\nCoffee,4\n"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(productService).createAll(captor.capture());
+        assertEquals("Coffee", captor.getValue().get(1).getProductName());
+    }
+
+    @Test
+    void createProductsFromMalformedCsvIsRejected() throws Exception {
+        mockMvc.perform(post(BULK_PATH)
+                        .contentType("text/csv")
+                        .content("productName,productQuantity\nTea,lots\n"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(productService);
+    }
+
+    @Test
+    void updateProductsReportsAppliedCount() throws Exception {
+        Mockito.when(productService.updateAll(Mockito.anyList())).thenReturn(1);
+
+        mockMvc.perform(put(BULK_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":\"id-1\",\"productName\":\"Tea\"},{\"productId\":\"missing\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.applied").value(1));
+    }
+
+    @Test
+    void deleteProductsReportsAppliedCount() throws Exception {
+        Mockito.when(productService.deleteAll(List.of("id-1", "id-2"))).thenReturn(2);
+
+        mockMvc.perform(delete(BULK_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"id-1\",\"id-2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(2));
+    }
+}
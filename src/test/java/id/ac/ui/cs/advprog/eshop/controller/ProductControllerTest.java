@@ -1,22 +1,29 @@
 package id.ac.ui.cs.advprog.eshop.controller;
 
+import id.ac.ui.cs.advprog.eshop.model.Page;
 import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.ModificationTracker;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepositoryPort;
+import id.ac.ui.cs.advprog.eshop.repository.VersionConflictException;
 import id.ac.ui.cs.advprog.eshop.service.ProductService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -32,12 +39,17 @@ class ProductControllerTest {
 
     private MockMvc mockMvc;
     private ProductService productService;
+    private ModificationTracker modifications;
 
     @BeforeEach
     void setUp() {
         productService = Mockito.mock(ProductService.class);
+        modifications = new ModificationTracker();
+        ProductRepositoryPort productRepository = Mockito.mock(ProductRepositoryPort.class);
+        Mockito.when(productRepository.modifications()).thenReturn(modifications);
         ProductController controller = new ProductController();
         ReflectionTestUtils.setField(controller, "service", productService);
+        ReflectionTestUtils.setField(controller, "productRepository", productRepository);
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
@@ -87,23 +99,64 @@ class ProductControllerTest {
         Product product2 = new Product();
         product2.setProductId("id-2");
         List<Product> products = List.of(product1, product2);
-        Mockito.when(productService.findAll()).thenReturn(products);
+        Mockito.when(productService.findPage(null, 50)).thenReturn(new Page<>(products, "2"));
 
         mockMvc.perform(get("/product/list"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("productList"))
-                .andExpect(model().attribute("products", Matchers.sameInstance(products)));
+                .andExpect(model().attribute("products", Matchers.sameInstance(products)))
+                .andExpect(model().attribute("nextCursor", "2"));
     }
 
     @Test
     void productListPageReturnsListViewWhenNoProductsFound() throws Exception {
         List<Product> products = List.of();
-        Mockito.when(productService.findAll()).thenReturn(products);
+        Mockito.when(productService.findPage(null, 50)).thenReturn(new Page<>(products, null));
 
         mockMvc.perform(get("/product/list"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("productList"))
+                .andExpect(model().attribute("products", Matchers.sameInstance(products)))
+                .andExpect(model().attribute("nextCursor", Matchers.nullValue()));
+    }
+
+    @Test
+    void productListPagePassesCursorAndSizeToService() throws Exception {
+        List<Product> products = List.of();
+        Mockito.when(productService.findPage("7", 10)).thenReturn(new Page<>(products, null));
+
+        mockMvc.perform(get("/product/list").param("cursor", "7").param("size", "10"))
+                .andExpect(status().isOk())
                 .andExpect(model().attribute("products", Matchers.sameInstance(products)));
+
+        Mockito.verify(productService).findPage("7", 10);
+    }
+
+    @Test
+    void productListPageSearchesByNamePrefixWhenNameGiven() throws Exception {
+        List<Product> products = List.of(new Product());
+        Mockito.when(productService.searchByName("te", 50)).thenReturn(products);
+
+        mockMvc.perform(get("/product/list").param("name", "te"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("productList"))
+                .andExpect(model().attribute("products", Matchers.sameInstance(products)))
+                .andExpect(model().attribute("name", "te"));
+
+        Mockito.verify(productService, Mockito.never()).findPage(Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    void productListStreamPageRendersRepositoryIterator() throws Exception {
+        Iterator<Product> products = List.<Product>of().iterator();
+        Mockito.when(productService.iterateAll()).thenReturn(products);
+
+        mockMvc.perform(get("/product/list/stream"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("productList"))
+                .andExpect(model().attribute("products", Matchers.sameInstance(products)));
+
+        Mockito.verify(productService, Mockito.never()).findAll();
     }
 
     @Test
@@ -129,6 +182,40 @@ class ProductControllerTest {
                 .andExpect(model().attribute("product", Matchers.sameInstance(product)));
     }
 
+    @Test
+    void productListPageAnswersNotModifiedWithoutTouchingService() throws Exception {
+        Mockito.when(productService.findPage(null, 50)).thenReturn(new Page<>(List.of(), null));
+        String etag = mockMvc.perform(get("/product/list"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Mockito.clearInvocations(productService);
+
+        mockMvc.perform(get("/product/list").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Mockito.verifyNoInteractions(productService);
+    }
+
+    @Test
+    void editProductPageAnswersNotModifiedForSameVersion() throws Exception {
+        Product product = new Product();
+        product.setProductId(PRODUCT_ID);
+        product.setVersion(4);
+        Mockito.when(productService.findById(PRODUCT_ID)).thenReturn(product);
+        String etag = mockMvc.perform(get("/product/edit/{id}", PRODUCT_ID))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/product/edit/{id}", PRODUCT_ID).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        product.setVersion(5);
+        mockMvc.perform(get("/product/edit/{id}", PRODUCT_ID).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(view().name("editProduct"));
+    }
+
     @Test
     void editProductPageRedirectsWhenProductMissing() throws Exception {
         Mockito.when(productService.findById(MISSING)).thenReturn(null);
@@ -157,6 +244,40 @@ class ProductControllerTest {
         assertEquals(3, product.getProductQuantity());
     }
 
+    @Test
+    void createProductPostRendersFormAgainWhenIdIsTaken() throws Exception {
+        Mockito.when(productService.create(Mockito.any(Product.class)))
+                .thenThrow(new VersionConflictException(PRODUCT_ID, 0, 3));
+
+        mockMvc.perform(post("/product/create")
+                        .param("productId", PRODUCT_ID)
+                        .param("productName", SUGAR)
+                        .param("productQuantity", "3"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("createProduct"))
+                .andExpect(model().attribute("conflict", true));
+    }
+
+    @Test
+    void editProductPostRendersLatestProductOnVersionConflict() throws Exception {
+        Product latest = new Product();
+        latest.setProductId(PRODUCT_ID);
+        latest.setVersion(3);
+        Mockito.when(productService.update(Mockito.any(Product.class)))
+                .thenThrow(new VersionConflictException(PRODUCT_ID, 2, 3));
+        Mockito.when(productService.findById(PRODUCT_ID)).thenReturn(latest);
+
+        mockMvc.perform(post("/product/edit")
+                        .param("productId", PRODUCT_ID)
+                        .param("productName", SUGAR)
+                        .param("productQuantity", "3")
+                        .param("version", "2"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("editProduct"))
+                .andExpect(model().attribute("conflict", true))
+                .andExpect(model().attribute("product", Matchers.sameInstance(latest)));
+    }
+
     @Test
     void editProductPostPassesNegativeQuantityToService() throws Exception {
         mockMvc.perform(post("/product/edit")
@@ -0,0 +1,93 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.service.ReactiveProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReactiveProductControllerTest {
+    private static final String API_PATH = "/api/product";
+
+    private MockMvc mockMvc;
+    private ReactiveProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productService = Mockito.mock(ReactiveProductService.class);
+        ReactiveProductController controller = new ReactiveProductController();
+        ReflectionTestUtils.setField(controller, "service", productService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void listProductsStreamsNewlineDelimitedJson() throws Exception {
+        Mockito.when(productService.findAll())
+                .thenReturn(Flux.just(buildProduct("1", "Tea"), buildProduct("2", "Coffee")));
+
+        MvcResult result = mockMvc.perform(get(API_PATH).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"productName\":\"Coffee\"")));
+    }
+
+    @Test
+    void findProductReturnsNotFoundWhenEmpty() throws Exception {
+        Mockito.when(productService.findById("missing")).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(get(API_PATH + "/missing")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createProductReturnsCreated() throws Exception {
+        Mockito.when(productService.create(Mockito.any(Product.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        MvcResult result = mockMvc.perform(post(API_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productName\":\"Tea\",\"productQuantity\":3}"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.productQuantity").value(3));
+    }
+
+    @Test
+    void deleteProductReportsMissingProduct() throws Exception {
+        Mockito.when(productService.delete("missing")).thenReturn(Mono.just(false));
+
+        MvcResult result = mockMvc.perform(delete(API_PATH + "/missing")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound());
+    }
+
+    private static Product buildProduct(String id, String name) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        return product;
+    }
+}
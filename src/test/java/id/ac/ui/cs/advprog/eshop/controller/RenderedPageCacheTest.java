@@ -0,0 +1,132 @@
+package id.ac.ui.cs.advprog.eshop.controller;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.service.ServiceCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.View;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RenderedPageCacheTest {
+    private static final RenderedPageCache.Key FIRST_PAGE = new RenderedPageCache.Key(null, 50, null);
+    private static final RenderedPageCache.Key TEA_SEARCH = new RenderedPageCache.Key(null, 50, "te");
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private RenderedPageCache<Product> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = cache(true);
+    }
+
+    @Test
+    void testHitIsServedWithoutRendering() throws Exception {
+        assertEquals("page 1", serve(FIRST_PAGE, true, buildProduct("a", "Tea")));
+        assertEquals("page 1", serve(FIRST_PAGE, true, buildProduct("a", "Tea")));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testUpdateDropsOnlyPagesShowingTheId() throws Exception {
+        RenderedPageCache.Key secondPage = new RenderedPageCache.Key("b", 50, null);
+        serve(FIRST_PAGE, false, buildProduct("a", "Tea"));
+        serve(secondPage, false, buildProduct("b", "Sugar"));
+
+        cache.onChange(buildProduct("a", "Tea"), buildProduct("a", "Green Tea"));
+
+        assertEquals("page 3", serve(FIRST_PAGE, false, buildProduct("a", "Green Tea")));
+        assertEquals("page 2", serve(secondPage, false, buildProduct("b", "Sugar")));
+    }
+
+    @Test
+    void testCreateDropsOpenEndedAndMatchingFilteredPages() throws Exception {
+        serve(FIRST_PAGE, true, buildProduct("a", "Tea"));
+        serve(TEA_SEARCH, false, buildProduct("a", "Tea"));
+        RenderedPageCache.Key sugarSearch = new RenderedPageCache.Key(null, 50, "su");
+        serve(sugarSearch, false, buildProduct("b", "Sugar"));
+
+        cache.onChange(null, buildProduct("c", "Teh Botol"));
+
+        assertEquals("page 4", serve(FIRST_PAGE, true, buildProduct("a", "Tea")));
+        assertEquals("page 5", serve(TEA_SEARCH, false, buildProduct("a", "Tea")));
+        assertEquals("page 3", serve(sugarSearch, false, buildProduct("b", "Sugar")));
+    }
+
+    @Test
+    void testCreateDropsEveryUnfilteredPageWhenStoreDoesNotAppend() throws Exception {
+        cache = cache(false);
+        RenderedPageCache.Key secondPage = new RenderedPageCache.Key("0:1", 50, null);
+        serve(FIRST_PAGE, false, buildProduct("a", "Tea"));
+        serve(secondPage, false, buildProduct("b", "Sugar"));
+        serve(TEA_SEARCH, false, buildProduct("a", "Tea"));
+
+        cache.onChange(null, buildProduct("c", "Coffee"));
+
+        assertEquals("page 4", serve(FIRST_PAGE, false, buildProduct("a", "Tea")));
+        assertEquals("page 5", serve(secondPage, false, buildProduct("b", "Sugar")));
+        assertEquals("page 3", serve(TEA_SEARCH, false, buildProduct("a", "Tea")));
+    }
+
+    @Test
+    void testPageIsSentGzippedWhenClientAcceptsIt() throws Exception {
+        serve(FIRST_PAGE, true, buildProduct("a", "Tea"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        cache.get(FIRST_PAGE, new ServletWebRequest(request, response), () -> {
+            throw new AssertionError("loader should not run on a hit");
+        }).render(Map.of(), request, response);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals("page 1".getBytes(StandardCharsets.UTF_8), gunzip(response.getContentAsByteArray()));
+    }
+
+    private RenderedPageCache<Product> cache(boolean createsAppend) {
+        View view = (model, request, response) -> {
+            renders.incrementAndGet();
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().write("page " + renders.get());
+        };
+        return new RenderedPageCache<>(new ServiceCacheProperties.Spec(), (name, locale) -> view,
+                Product::getProductId,
+                (prefix, product) -> product.getProductName().toLowerCase().startsWith(prefix), createsAppend);
+    }
+
+    private String serve(RenderedPageCache.Key key, boolean openEnded, Product... products) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        View page = cache.get(key, new ServletWebRequest(request, response),
+                () -> new RenderedPageCache.Listing<>("productList", Map.of(), List.of(products), openEnded));
+        page.render(Map.of(), request, response);
+        return response.getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static Product buildProduct(String id, String name) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        return product;
+    }
+}
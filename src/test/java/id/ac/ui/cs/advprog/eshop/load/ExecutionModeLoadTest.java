@@ -0,0 +1,138 @@
+package id.ac.ui.cs.advprog.eshop.load;
+
+import id.ac.ui.cs.advprog.eshop.EshopApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the application with a burst of concurrent clients, once on
+ * platform request threads and once on virtual threads. Every write waits
+ * for an fsync of the write-ahead log, which stands in for slow persistence.
+ * Run it with {@code ./gradlew loadTest}. The numbers depend on the machine,
+ * so they are printed rather than asserted.
+ */
+class ExecutionModeLoadTest {
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcatThreads", 50);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("load.seconds", 20));
+    private static final int WRITE_PERCENT = 20;
+
+    private record LoadResult(long requests, long errors, double throughput, double p50Millis, double p99Millis) { }
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        System.out.printf("%n%-9s %10s %8s %12s %9s %9s%n", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        print("platform", platform);
+        print("virtual", virtual);
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EshopApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--eshop.persistence.enabled=true",
+                "--eshop.persistence.directory=" + dataDirectory.resolve(mode),
+                "--eshop.persistence.fsync-policy=always")) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            drive(baseUri, WARMUP);
+            return drive(baseUri, MEASUREMENT);
+        }
+    }
+
+    private LoadResult drive(URI baseUri, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long[] errors = new long[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                int clientIndex = i;
+                futures.add(clients.submit(() -> runClient(client, baseUri, deadline, errors, clientIndex)));
+            }
+            List<long[]> latencies = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                latencies.add(future.get());
+            }
+            long[] merged = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            double seconds = duration.toNanos() / 1e9;
+            return new LoadResult(merged.length, Arrays.stream(errors).sum(), merged.length / seconds,
+                    percentileMillis(merged, 0.50), percentileMillis(merged, 0.99));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static long[] runClient(HttpClient client, URI baseUri, long deadline, long[] errors, int clientIndex) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = ThreadLocalRandom.current().nextInt(100) < WRITE_PERCENT
+                    ? HttpRequest.newBuilder(baseUri.resolve("/product/create"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString("productName=Load+" + clientIndex + "&productQuantity=1"))
+                            .build()
+                    : HttpRequest.newBuilder(baseUri.resolve("/product/list")).GET().build();
+            long start = System.nanoTime();
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 400) {
+                    errors[clientIndex]++;
+                }
+            } catch (Exception e) {
+                errors[clientIndex]++;
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static void print(String mode, LoadResult result) {
+        System.out.printf("%-9s %10d %8d %12.1f %9.2f %9.2f%n", mode, result.requests(), result.errors(),
+                result.throughput(), result.p50Millis(), result.p99Millis());
+    }
+}
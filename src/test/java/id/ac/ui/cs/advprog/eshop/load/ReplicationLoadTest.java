@@ -0,0 +1,84 @@
+package id.ac.ui.cs.advprog.eshop.load;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepository;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import id.ac.ui.cs.advprog.eshop.replication.ReplicatedStream;
+import id.ac.ui.cs.advprog.eshop.replication.ReplicationFollower;
+import id.ac.ui.cs.advprog.eshop.replication.ReplicationLeader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Streams a sustained run of creates from a leader to one follower over
+ * loopback and samples the follower's lag while the leader writes. Run it
+ * with {@code ./gradlew loadTest}. The lag depends on the machine, so it is
+ * printed rather than asserted.
+ */
+class ReplicationLoadTest {
+    private static final int WRITES = Integer.getInteger("load.replicationWrites", 200_000);
+    private static final int SAMPLE_EVERY = 1_000;
+    private static final long CONVERGENCE_TIMEOUT_MILLIS = 60_000;
+
+    @Test
+    void measureLagUnderSustainedWrites() throws Exception {
+        ProductRepository leaderProducts = new ProductRepository();
+        ProductRepository followerProducts = new ProductRepository();
+        try (ReplicationLeader leader = new ReplicationLeader(0, List.of(ReplicatedStream.products(leaderProducts),
+                     ReplicatedStream.cars(new CarRepository())), 256, Duration.ofMillis(50));
+             ReplicationFollower follower = new ReplicationFollower("localhost", leader.port(),
+                     List.of(ReplicatedStream.products(followerProducts), ReplicatedStream.cars(new CarRepository())),
+                     Duration.ofMillis(50))) {
+            awaitCondition(follower::isConnected);
+
+            long maxLagMillis = 0;
+            long lagSum = 0;
+            int samples = 0;
+            long started = System.nanoTime();
+            for (int i = 0; i < WRITES; i++) {
+                leaderProducts.create(buildProduct("product-" + i, i));
+                if (i % SAMPLE_EVERY == 0) {
+                    long lag = follower.lagMillis();
+                    maxLagMillis = Math.max(maxLagMillis, lag);
+                    lagSum += lag;
+                    samples++;
+                }
+            }
+            long writtenMillis = (System.nanoTime() - started) / 1_000_000;
+            awaitCondition(() -> followerProducts.count() == WRITES);
+            long convergedMillis = (System.nanoTime() - started) / 1_000_000;
+
+            System.out.printf("%n%8s %11s %13s %12s %12s%n", "writes", "written ms", "converged ms", "mean lag ms",
+                    "max lag ms");
+            System.out.printf("%8d %11d %13d %12.1f %12d%n", WRITES, writtenMillis, convergedMillis,
+                    lagSum / (double) samples, maxLagMillis);
+            assertEquals(WRITES, followerProducts.count());
+            assertTrue(follower.appliedRecords() >= WRITES);
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Follower did not converge within " + CONVERGENCE_TIMEOUT_MILLIS + " ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Product buildProduct(String id, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Tea " + quantity);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+}
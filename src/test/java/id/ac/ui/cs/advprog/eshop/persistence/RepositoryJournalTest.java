@@ -0,0 +1,124 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepository;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RepositoryJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecoverReplaysCreateUpdateAndDelete() throws IOException {
+        try (RepositoryJournal<Product> journal = openProducts()) {
+            ProductRepository repository = new ProductRepository();
+            repository.addListener(journal);
+            repository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+            repository.create(buildProduct("p-2", "Sabun Cap Usep", 5));
+            repository.update(buildProduct("p-1", "Sampo Cap Budi", 80));
+            repository.delete("p-2");
+        }
+
+        ProductRepository recovered = recoverProducts();
+
+        assertEquals("Sampo Cap Budi", recovered.findById("p-1").getProductName());
+        assertEquals(80, recovered.findById("p-1").getProductQuantity());
+        assertNull(recovered.findById("p-2"));
+    }
+
+    @Test
+    void testRecoverLoadsSnapshotThenLogTail() throws IOException {
+        try (RepositoryJournal<Product> journal = openProducts()) {
+            ProductRepository repository = new ProductRepository();
+            repository.addListener(journal);
+            repository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+            journal.snapshot(repository.findAll());
+            repository.create(buildProduct("p-2", "Sabun Cap Usep", 5));
+        }
+
+        ProductRepository recovered = recoverProducts();
+
+        assertNotNull(recovered.findById("p-1"));
+        assertNotNull(recovered.findById("p-2"));
+        assertEquals("p-1", recovered.findAll().next().getProductId());
+    }
+
+    @Test
+    void testRecoverKeepsNamesLongerThanModifiedUtf8Allows() throws IOException {
+        String longName = "é".repeat(40_000);
+        try (RepositoryJournal<Product> journal = openProducts()) {
+            ProductRepository repository = new ProductRepository();
+            repository.addListener(journal);
+            repository.create(buildProduct("p-1", longName, 100));
+            repository.create(buildProduct("p-2", "Sabun Cap Usep", 5));
+            journal.snapshot(repository.findAll());
+            repository.update(buildProduct("p-2", longName, 6));
+        }
+
+        ProductRepository recovered = recoverProducts();
+
+        assertEquals(longName, recovered.findById("p-1").getProductName());
+        assertEquals(longName, recovered.findById("p-2").getProductName());
+    }
+
+    @Test
+    void testRecoverSurvivesRepeatedRestarts() throws IOException {
+        for (int restart = 0; restart < 3; restart++) {
+            try (RepositoryJournal<Car> journal = openCars()) {
+                CarRepository repository = new CarRepository();
+                journal.recover(repository::upsert, repository::delete);
+                repository.addListener(journal);
+                repository.create(buildCar("car-" + restart, "Silver"));
+            }
+        }
+
+        try (RepositoryJournal<Car> journal = openCars()) {
+            CarRepository recovered = new CarRepository();
+            journal.recover(recovered::upsert, recovered::delete);
+
+            assertEquals(3, recovered.findByColor("silver", 10).size());
+        }
+    }
+
+    private RepositoryJournal<Product> openProducts() throws IOException {
+        return new RepositoryJournal<>(directory.resolve("products"), new ProductCodec(),
+                FsyncPolicy.ALWAYS, Duration.ofMillis(5));
+    }
+
+    private RepositoryJournal<Car> openCars() throws IOException {
+        return new RepositoryJournal<>(directory.resolve("cars"), new CarCodec(),
+                FsyncPolicy.INTERVAL, Duration.ofMillis(5));
+    }
+
+    private ProductRepository recoverProducts() throws IOException {
+        ProductRepository repository = new ProductRepository();
+        try (RepositoryJournal<Product> journal = openProducts()) {
+            journal.recover(repository::upsert, repository::delete);
+        }
+        return repository;
+    }
+
+    private Product buildProduct(String id, String name, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+
+    private Car buildCar(String id, String color) {
+        Car car = new Car();
+        car.setCarId(id);
+        car.setCarName("Toyota Avanza");
+        car.setCarColor(color);
+        car.setCarQuantity(1);
+        return car;
+    }
+}
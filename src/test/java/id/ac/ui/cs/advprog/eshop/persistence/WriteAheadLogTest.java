@@ -0,0 +1,166 @@
+package id.ac.ui.cs.advprog.eshop.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplayReturnsRecordsInAppendOrder() throws IOException {
+        try (WriteAheadLog log = open(FsyncPolicy.ALWAYS)) {
+            log.awaitDurable(log.append(bytes("first")));
+            log.awaitDurable(log.append(bytes("second")));
+        }
+
+        assertEquals(List.of("first", "second"), replay(0));
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllDurable() throws Exception {
+        int writers = 8;
+        int appendsPerWriter = 500;
+        try (WriteAheadLog log = open(FsyncPolicy.INTERVAL)) {
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int writer = 0; writer < writers; writer++) {
+                    int id = writer;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < appendsPerWriter; i++) {
+                            log.awaitDurable(log.append(bytes(id + "-" + i)));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        assertEquals(writers * appendsPerWriter, replay(0).size());
+    }
+
+    @Test
+    void testReplayStopsAtTornTail() throws IOException {
+        try (WriteAheadLog log = open(FsyncPolicy.ALWAYS)) {
+            log.awaitDurable(log.append(bytes("intact")));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        assertEquals(List.of("intact"), replay(0));
+    }
+
+    @Test
+    void testTornTailIsCutOnOpenSoLaterOpensStillReplay() throws IOException {
+        try (WriteAheadLog log = open(FsyncPolicy.ALWAYS)) {
+            log.awaitDurable(log.append(bytes("first")));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+        try (WriteAheadLog log = open(FsyncPolicy.ALWAYS)) {
+            log.awaitDurable(log.append(bytes("second")));
+        }
+
+        assertEquals(List.of("first", "second"), replay(0));
+    }
+
+    @Test
+    void testReplayFailsOnCorruptFrameInEarlierSegment() throws IOException {
+        try (WriteAheadLog log = open(FsyncPolicy.ALWAYS)) {
+            log.awaitDurable(log.append(bytes("first")));
+            log.rotate();
+            log.awaitDurable(log.append(bytes("second")));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.sorted().findFirst().orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(segment);
+        content[content.length - 1] ^= 1;
+        Files.write(segment, content);
+
+        IOException failure = assertThrows(IOException.class, () -> replay(0));
+        assertTrue(failure.getMessage().contains(segment.getFileName() + " at offset 0"));
+    }
+
+    @Test
+    void testRotateSeparatesSegmentsAndOldOnesCanBeDeleted() throws IOException {
+        long rotatedTo;
+        try (WriteAheadLog log = open(FsyncPolicy.NEVER)) {
+            log.append(bytes("before"));
+            rotatedTo = log.rotate();
+            log.awaitDurable(log.append(bytes("after")));
+            log.deleteSegmentsBefore(rotatedTo);
+        }
+
+        assertEquals(List.of("after"), replay(rotatedTo));
+        assertEquals(List.of("after"), replay(0));
+    }
+
+    @Test
+    void testAppendAfterCloseFails() throws IOException {
+        WriteAheadLog log = open(FsyncPolicy.ALWAYS);
+        log.close();
+
+        assertThrows(IllegalStateException.class, () -> log.append(bytes("late")));
+    }
+
+    @Test
+    void testRotateFailsInsteadOfHangingWhenCommitterFails() throws IOException {
+        Path removed = directory.resolve("removed");
+        WriteAheadLog log = new WriteAheadLog(removed, "test", FsyncPolicy.NEVER, Duration.ofMillis(5));
+        try (Stream<Path> files = Files.list(removed)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(removed);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertThrows(UncheckedIOException.class, log::rotate));
+        assertThrows(UncheckedIOException.class, log::rotate);
+        assertThrows(UncheckedIOException.class, () -> log.append(bytes("late")));
+        log.close();
+    }
+
+    private WriteAheadLog open(FsyncPolicy policy) throws IOException {
+        return new WriteAheadLog(directory, "test", policy, Duration.ofMillis(5));
+    }
+
+    private List<String> replay(long fromSegment) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (WriteAheadLog log = open(FsyncPolicy.ALWAYS)) {
+            log.replay(fromSegment, record -> records.add(new String(record, StandardCharsets.UTF_8)));
+        }
+        return records;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FollowerWriteFilterTest {
+    private final FollowerWriteFilter filter = new FollowerWriteFilter("http://leader:8080");
+
+    @Test
+    void testReadsPassThrough() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/product/list"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testWritesAreRejectedWithLeaderAddress() throws ServletException, IOException {
+        for (String method : new String[] {"POST", "PUT", "DELETE", "PATCH"}) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(new MockHttpServletRequest(method, "/product/bulk"), response, chain);
+
+            assertNull(chain.getRequest());
+            assertEquals(503, response.getStatus());
+            assertEquals("http://leader:8080", response.getHeader(FollowerWriteFilter.LEADER_HEADER));
+            assertTrue(response.getContentAsString().contains("http://leader:8080"));
+        }
+    }
+
+    @Test
+    void testDeleteLinkIsRejectedAlthoughItIsAGet() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/shop/product/delete/p-1");
+        request.setContextPath("/shop");
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+    }
+}
@@ -0,0 +1,158 @@
+package id.ac.ui.cs.advprog.eshop.replication;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepository;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+    private static final Duration HEARTBEAT = Duration.ofMillis(50);
+    private static final Duration RECONNECT = Duration.ofMillis(50);
+    private static final long CONVERGENCE_TIMEOUT_MILLIS = 10_000;
+
+    private final List<AutoCloseable> nodes = new ArrayList<>();
+    private ProductRepository leaderProducts;
+    private CarRepository leaderCars;
+    private ReplicationLeader leader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        leaderProducts = new ProductRepository();
+        leaderCars = new CarRepository();
+        leader = new ReplicationLeader(0, List.of(ReplicatedStream.products(leaderProducts),
+                ReplicatedStream.cars(leaderCars)), 256, HEARTBEAT);
+        nodes.add(leader);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    void testFollowersConvergeOnSnapshotAndLaterWrites() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            leaderProducts.create(buildProduct("product-" + i, "Tea " + i, i));
+        }
+        ProductRepository firstProducts = new ProductRepository();
+        CarRepository firstCars = new CarRepository();
+        ProductRepository secondProducts = new ProductRepository();
+        CarRepository secondCars = new CarRepository();
+        follow(firstProducts, firstCars);
+        follow(secondProducts, secondCars);
+
+        awaitConverged(firstProducts, firstCars);
+        awaitConverged(secondProducts, secondCars);
+
+        Product renamed = buildProduct("product-7", "Green Tea", 70);
+        leaderProducts.update(renamed);
+        leaderProducts.delete("product-8");
+        leaderCars.create(buildCar("car-1", "Red"));
+
+        awaitConverged(firstProducts, firstCars);
+        awaitConverged(secondProducts, secondCars);
+        assertEquals("Green Tea", firstProducts.findById("product-7").getProductName());
+        assertEquals(leaderProducts.findById("product-7").getVersion(),
+                secondProducts.findById("product-7").getVersion());
+        assertNull(firstProducts.findById("product-8"));
+        assertEquals("Red", secondCars.findById("car-1").getCarColor());
+    }
+
+    @Test
+    void testSnapshotRemovesEntitiesTheLeaderDoesNotHave() throws Exception {
+        leaderProducts.create(buildProduct("product-1", "Tea", 1));
+        ProductRepository followerProducts = new ProductRepository();
+        followerProducts.create(buildProduct("stale", "Coffee", 1));
+        CarRepository followerCars = new CarRepository();
+
+        follow(followerProducts, followerCars);
+
+        awaitConverged(followerProducts, followerCars);
+        assertNull(followerProducts.findById("stale"));
+    }
+
+    @Test
+    void testFollowerConvergesUnderSustainedWrites() throws Exception {
+        ProductRepository followerProducts = new ProductRepository();
+        CarRepository followerCars = new CarRepository();
+        ReplicationFollower follower = follow(followerProducts, followerCars);
+        awaitCondition(follower::isConnected);
+
+        int writes = 20_000;
+        for (int i = 0; i < writes; i++) {
+            leaderProducts.create(buildProduct("product-" + i, "Tea " + i, i));
+        }
+        awaitConverged(followerProducts, followerCars);
+
+        assertEquals(writes, followerProducts.count());
+        assertTrue(follower.appliedRecords() >= writes);
+    }
+
+    private ReplicationFollower follow(ProductRepository products, CarRepository cars) {
+        ReplicationFollower follower = new ReplicationFollower("localhost", leader.port(),
+                List.of(ReplicatedStream.products(products), ReplicatedStream.cars(cars)), RECONNECT);
+        nodes.add(follower);
+        return follower;
+    }
+
+    private void awaitConverged(ProductRepository products, CarRepository cars) throws InterruptedException {
+        awaitCondition(() -> productState(products).equals(productState(leaderProducts))
+                && carState(cars).equals(carState(leaderCars)));
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Replicas did not converge within " + CONVERGENCE_TIMEOUT_MILLIS + " ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Map<String, String> productState(ProductRepository repository) {
+        Map<String, String> state = new HashMap<>();
+        repository.findAll().forEachRemaining(product -> state.put(product.getProductId(),
+                product.getProductName() + "/" + product.getProductQuantity() + "/" + product.getVersion()));
+        return state;
+    }
+
+    private static Map<String, String> carState(CarRepository repository) {
+        Map<String, String> state = new HashMap<>();
+        repository.findAll().forEachRemaining(car -> state.put(car.getCarId(),
+                car.getCarName() + "/" + car.getCarColor() + "/" + car.getCarQuantity() + "/" + car.getVersion()));
+        return state;
+    }
+
+    private static Product buildProduct(String id, String name, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+
+    private static Car buildCar(String id, String color) {
+        Car car = new Car();
+        car.setCarId(id);
+        car.setCarName("Car");
+        car.setCarColor(color);
+        car.setCarQuantity(1);
+        return car;
+    }
+}
@@ -0,0 +1,171 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CarRepositoryTest {
+    private static final String CAR_ID = "2f1e0e9a-3e6f-4b8f-9a57-2a3cf5d9b3a1";
+    private static final String CAR_NAME = "Toyota Avanza";
+    private static final String CAR_COLOR = "Silver";
+    private static final int CAR_QUANTITY = 4;
+
+    private CarRepository carRepository;
+
+    @BeforeEach
+    void setUp() {
+        carRepository = new CarRepository();
+    }
+
+    @Test
+    void testCreateAssignsIdWhenNull() {
+        Car car = carRepository.create(buildCar(null, CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+
+        assertNotNull(car.getCarId());
+        assertSame(car, carRepository.findById(car.getCarId()));
+    }
+
+    @Test
+    void testCreateRejectsTakenId() {
+        Car stored = carRepository.create(buildCar(CAR_ID, CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+
+        assertThrows(VersionConflictException.class,
+                () -> carRepository.create(buildCar(CAR_ID, "Impostor", CAR_COLOR, 1)));
+        assertTrue(carRepository.createAll(List.of(buildCar(CAR_ID, "Impostor", CAR_COLOR, 1))).isEmpty());
+        assertSame(stored, carRepository.findById(CAR_ID));
+    }
+
+    @Test
+    void testFindAllKeepsInsertionOrder() {
+        carRepository.create(buildCar(CAR_ID, CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+        carRepository.create(buildCar("other-id", CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+
+        Iterator<Car> carIterator = carRepository.findAll();
+        assertEquals(CAR_ID, carIterator.next().getCarId());
+        assertEquals("other-id", carIterator.next().getCarId());
+        assertFalse(carIterator.hasNext());
+    }
+
+    @Test
+    void testUpdateReplacesCarWithoutMutatingPreviousSnapshot() {
+        Car original = carRepository.create(buildCar(CAR_ID, CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+
+        Car updated = carRepository.update(CAR_ID, buildCar(null, "Honda Jazz", "Red", 7));
+
+        assertNotNull(updated);
+        assertEquals(CAR_ID, updated.getCarId());
+        assertEquals("Honda Jazz", updated.getCarName());
+        assertEquals("Red", updated.getCarColor());
+        assertEquals(7, updated.getCarQuantity());
+        assertEquals(CAR_NAME, original.getCarName());
+        assertSame(updated, carRepository.findById(CAR_ID));
+    }
+
+    @Test
+    void testUpdateReturnsNullWhenIdNotFound() {
+        assertNull(carRepository.update(CAR_ID, buildCar(null, CAR_NAME, CAR_COLOR, CAR_QUANTITY)));
+        assertNull(carRepository.update(null, buildCar(null, CAR_NAME, CAR_COLOR, CAR_QUANTITY)));
+    }
+
+    @Test
+    void testUpdateWithStaleVersionThrowsConflict() {
+        carRepository.create(buildCar(CAR_ID, CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+        Car first = buildCar(null, "Honda Jazz", "Red", 7);
+        first.setVersion(1);
+        assertEquals(2, carRepository.update(CAR_ID, first).getVersion());
+        Car stale = buildCar(null, "Stale", "Blue", 1);
+        stale.setVersion(1);
+
+        assertThrows(VersionConflictException.class, () -> carRepository.update(CAR_ID, stale));
+        assertEquals("Honda Jazz", carRepository.findById(CAR_ID).getCarName());
+    }
+
+    @Test
+    void testDeleteRemovesCar() {
+        carRepository.create(buildCar(CAR_ID, CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+
+        carRepository.delete(CAR_ID);
+        carRepository.delete(null);
+
+        assertNull(carRepository.findById(CAR_ID));
+        assertFalse(carRepository.findAll().hasNext());
+    }
+
+    @Test
+    void testFindByColorFollowsCreateUpdateAndDelete() {
+        carRepository.create(buildCar(CAR_ID, CAR_NAME, CAR_COLOR, CAR_QUANTITY));
+        carRepository.create(buildCar("other-id", CAR_NAME, "Red", CAR_QUANTITY));
+
+        assertEquals(CAR_ID, carRepository.findByColor("silver", 10).get(0).getCarId());
+
+        carRepository.update(CAR_ID, buildCar(null, CAR_NAME, "RED", CAR_QUANTITY));
+        assertTrue(carRepository.findByColor(CAR_COLOR, 10).isEmpty());
+        assertEquals(2, carRepository.findByColor("red", 10).size());
+
+        carRepository.delete("other-id");
+        assertEquals(1, carRepository.findByColor("red", 10).size());
+    }
+
+    @Test
+    void testConcurrentReadersNeverSeeHalfAppliedUpdate() throws Exception {
+        carRepository.create(buildCar(CAR_ID, "name-0", "color-0", 0));
+        int writers = 4;
+        int readers = 4;
+        int updatesPerWriter = 20_000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger tornReads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        try {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                writerFutures.add(executor.submit(() -> {
+                    for (int i = 0; i < updatesPerWriter; i++) {
+                        int version = i % 1_000;
+                        carRepository.update(CAR_ID, buildCar(null, "name-" + version, "color-" + version, version));
+                    }
+                }));
+            }
+            List<Future<?>> readerFutures = new ArrayList<>();
+            for (int reader = 0; reader < readers; reader++) {
+                readerFutures.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        Car car = carRepository.findById(CAR_ID);
+                        String expectedSuffix = "-" + car.getCarQuantity();
+                        if (!car.getCarName().endsWith(expectedSuffix) || !car.getCarColor().endsWith(expectedSuffix)) {
+                            tornReads.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : writerFutures) {
+                future.get();
+            }
+            writing.set(false);
+            for (Future<?> future : readerFutures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, tornReads.get());
+    }
+
+    private Car buildCar(String id, String name, String color, int quantity) {
+        Car car = new Car();
+        car.setCarId(id);
+        car.setCarName(name);
+        car.setCarColor(color);
+        car.setCarQuantity(quantity);
+        return car;
+    }
+}
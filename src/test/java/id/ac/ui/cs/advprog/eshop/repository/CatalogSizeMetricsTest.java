@@ -0,0 +1,34 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSizeMetricsTest {
+    @Test
+    void gaugesFollowRepositorySizes() {
+        ProductRepository productRepository = new ProductRepository();
+        CarRepository carRepository = new CarRepository();
+        CatalogSizeMetrics metrics = new CatalogSizeMetrics();
+        ReflectionTestUtils.setField(metrics, "productRepository", productRepository);
+        ReflectionTestUtils.setField(metrics, "carRepository", carRepository);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        Product product = new Product();
+        product.setProductName("Tea");
+        productRepository.create(product);
+        productRepository.create(new Product());
+        carRepository.create(new Car());
+
+        assertEquals(2.0, registry.get("eshop.catalog.size").tag("entity", "product").gauge().value());
+        assertEquals(1.0, registry.get("eshop.catalog.size").tag("entity", "car").gauge().value());
+
+        productRepository.delete(product.getProductId());
+        assertEquals(1.0, registry.get("eshop.catalog.size").tag("entity", "product").gauge().value());
+    }
+}
@@ -0,0 +1,86 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    @Test
+    void testRepositoryPublishesCreateUpdateDeleteInOrder() {
+        ProductRepository repository = new ProductRepository();
+        Product product = repository.create(buildProduct("id-1", "Tea"));
+        Product renamed = buildProduct("id-1", "Green Tea");
+        repository.update(renamed);
+        repository.delete("id-1");
+
+        ChangeFeed.Slice<Product> slice = repository.changes().read(0, 10);
+
+        assertFalse(slice.truncated());
+        assertEquals(3, slice.nextSequence());
+        List<ChangeEvent<Product>> events = slice.events();
+        assertEquals(List.of(ChangeEvent.Type.CREATE, ChangeEvent.Type.UPDATE, ChangeEvent.Type.DELETE),
+                events.stream().map(ChangeEvent::type).toList());
+        assertSame(product, events.get(0).entity());
+        assertEquals("Green Tea", events.get(1).entity().getProductName());
+        assertEquals("id-1", events.get(2).id());
+        assertNull(events.get(2).entity());
+    }
+
+    @Test
+    void testReadResumesFromOffsetWithLimit() {
+        ChangeFeed<Product> feed = new ChangeFeed<>(8, Product::getProductId);
+        for (int i = 0; i < 5; i++) {
+            feed.onChange(null, buildProduct("id-" + i, "Tea"));
+        }
+
+        ChangeFeed.Slice<Product> first = feed.read(1, 2);
+        ChangeFeed.Slice<Product> rest = feed.read(first.nextSequence(), 10);
+
+        assertEquals(List.of(1L, 2L), first.events().stream().map(ChangeEvent::sequence).toList());
+        assertEquals(List.of(3L, 4L), rest.events().stream().map(ChangeEvent::sequence).toList());
+        assertTrue(feed.read(rest.nextSequence(), 10).events().isEmpty());
+    }
+
+    @Test
+    void testLappedReaderIsToldAndResumesAtOldestEvent() {
+        ChangeFeed<Product> feed = new ChangeFeed<>(4, Product::getProductId);
+        for (int i = 0; i < 10; i++) {
+            feed.onChange(null, buildProduct("id-" + i, "Tea"));
+        }
+
+        ChangeFeed.Slice<Product> slice = feed.read(2, 10);
+
+        assertTrue(slice.truncated());
+        assertEquals(List.of(6L, 7L, 8L, 9L), slice.events().stream().map(ChangeEvent::sequence).toList());
+    }
+
+    @Test
+    void testNextChangeCompletesAfterWrite() {
+        ProductRepository repository = new ProductRepository();
+        CompletableFuture<Void> changed = repository.changes().nextChange();
+        assertFalse(changed.isDone());
+
+        repository.create(buildProduct("id-1", "Tea"));
+
+        assertTrue(changed.isDone());
+        assertNotSame(changed, repository.changes().nextChange());
+    }
+
+    @Test
+    void testCapacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new ChangeFeed<Product>(100, Product::getProductId));
+    }
+
+    private Product buildProduct(String id, String name) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(1);
+        return product;
+    }
+}
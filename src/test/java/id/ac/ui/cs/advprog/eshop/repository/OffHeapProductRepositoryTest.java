@@ -0,0 +1,330 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OffHeapProductRepositoryTest {
+    private static final int INITIAL_ROWS = 16;
+
+    @TempDir
+    Path directory;
+
+    private OffHeapProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        productRepository = new OffHeapProductRepository(directory, INITIAL_ROWS);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        productRepository.close();
+    }
+
+    @Test
+    void testCreateAndFind() {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+
+        Product found = productRepository.findById("p-1");
+        assertEquals("p-1", found.getProductId());
+        assertEquals("Sampo Cap Bambang", found.getProductName());
+        assertEquals(100, found.getProductQuantity());
+        assertNull(productRepository.findById("missing"));
+        assertNull(productRepository.findById(" "));
+    }
+
+    @Test
+    void testCreateAssignsIdWhenNull() {
+        Product created = productRepository.create(buildProduct(null, "Sampo Cap Bambang", 1));
+
+        assertNotNull(created.getProductId());
+        assertNotNull(productRepository.findById(created.getProductId()));
+    }
+
+    @Test
+    void testCreateRejectsTakenIdAndUpsertOverwrites() {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+
+        assertThrows(VersionConflictException.class,
+                () -> productRepository.create(buildProduct("p-1", "Impostor", 1)));
+        assertEquals(1, productRepository.createAll(List.of(buildProduct("p-1", "Impostor", 1),
+                buildProduct("p-2", "Sabun", 1))).size());
+        assertEquals("Sampo Cap Bambang", productRepository.findById("p-1").getProductName());
+
+        productRepository.upsert(buildProduct("p-1", "Replicated", 5));
+        assertEquals("Replicated", productRepository.findById("p-1").getProductName());
+        assertEquals(1, productRepository.findById("p-1").getVersion());
+    }
+
+    @Test
+    void testUpsertStoresGivenVersionAndGenerationAcrossReopen() throws IOException {
+        Product replicated = buildProduct("p-1", "Replicated", 5);
+        replicated.setVersion(7);
+        replicated.setGeneration(42);
+
+        Product stored = productRepository.upsert(replicated);
+        assertEquals(7, replicated.getVersion());
+        assertEquals(42, replicated.getGeneration());
+        assertEquals(7, stored.getVersion());
+        assertEquals(42, stored.getGeneration());
+
+        productRepository.update(buildProduct("p-1", "Renamed", 6));
+        productRepository.close();
+        productRepository = new OffHeapProductRepository(directory, INITIAL_ROWS);
+
+        Product found = productRepository.findById("p-1");
+        assertEquals(8, found.getVersion());
+        assertEquals(42, found.getGeneration());
+    }
+
+    @Test
+    void testRecreatedIdGetsNewGeneration() {
+        Product first = productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+        productRepository.delete("p-1");
+        Product second = productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+
+        assertEquals(first.getVersion(), second.getVersion());
+        assertNotEquals(first.getGeneration(), second.getGeneration());
+        assertEquals(second.getGeneration(), productRepository.findById("p-1").getGeneration());
+    }
+
+    @Test
+    void testCreateRejectsIdThatDoesNotFitColumn() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productRepository.create(buildProduct("x".repeat(64), "Too long", 1)));
+    }
+
+    @Test
+    void testUpdateKeepsEarlierViewsUnchanged() {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+        Product before = productRepository.findById("p-1");
+
+        assertTrue(productRepository.update(buildProduct("p-1", "Sampo Cap Budi", 80)));
+        assertFalse(productRepository.update(buildProduct("missing", "Sampo Cap Budi", 80)));
+
+        assertEquals("Sampo Cap Bambang", before.getProductName());
+        assertEquals("Sampo Cap Budi", productRepository.findById("p-1").getProductName());
+        assertEquals(80, productRepository.findById("p-1").getProductQuantity());
+        assertThrows(UnsupportedOperationException.class, () -> before.setProductQuantity(1));
+    }
+
+    @Test
+    void testUpdateComparesAndSetsOnRowVersion() {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+        Product current = productRepository.findById("p-1");
+        assertEquals(1, current.getVersion());
+        Product first = buildProduct("p-1", "Sampo Cap Budi", 80);
+        first.setVersion(current.getVersion());
+
+        assertTrue(productRepository.update(first));
+        assertThrows(VersionConflictException.class, () -> productRepository.update(first));
+        assertEquals(0, productRepository.updateAll(List.of(first)));
+
+        assertEquals(2, productRepository.findById("p-1").getVersion());
+        assertEquals(1, current.getVersion());
+    }
+
+    @Test
+    void testFindAllAndPagesKeepInsertionOrderAcrossGrowth() {
+        int count = INITIAL_ROWS * 10;
+        for (int i = 0; i < count; i++) {
+            productRepository.create(buildProduct("p-" + i, "Product " + i, i));
+        }
+        productRepository.delete("p-3");
+
+        Iterator<Product> products = productRepository.findAll();
+        assertEquals("p-0", products.next().getProductId());
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Product> page = productRepository.findPage(cursor, 50);
+            page.getItems().forEach(product -> seen.add(product.getProductId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(count - 1, seen.size());
+        assertEquals("p-2", seen.get(2));
+        assertEquals("p-4", seen.get(3));
+    }
+
+    @Test
+    void testDeleteAndRecreateMovesProductToEnd() {
+        productRepository.create(buildProduct("p-1", "First", 1));
+        productRepository.create(buildProduct("p-2", "Second", 2));
+
+        assertTrue(productRepository.delete("p-1"));
+        assertFalse(productRepository.delete("p-1"));
+        productRepository.create(buildProduct("p-1", "First again", 3));
+
+        Iterator<Product> products = productRepository.findAll();
+        assertEquals("p-2", products.next().getProductId());
+        assertEquals("First again", products.next().getProductName());
+        assertFalse(products.hasNext());
+    }
+
+    @Test
+    void testFindByNamePrefixIgnoresCase() {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 1));
+        productRepository.create(buildProduct("p-2", "sabun", 1));
+        productRepository.create(buildProduct("p-3", null, 1));
+
+        assertEquals(1, productRepository.findByNamePrefix("SAM", 10).size());
+        assertEquals(2, productRepository.findByNamePrefix("s", 10).size());
+        assertEquals(1, productRepository.findByNamePrefix("s", 1).size());
+    }
+
+    @Test
+    void testFindByNamePrefixFollowsRenamesAndDeletes() {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 1));
+        productRepository.create(buildProduct("p-2", "Sampo Cap Usep", 1));
+
+        productRepository.update(buildProduct("p-1", "Kopi Kapal Api", 1));
+        productRepository.delete("p-2");
+
+        assertTrue(productRepository.findByNamePrefix("sampo", 10).isEmpty());
+        assertEquals("p-1", productRepository.findByNamePrefix("kopi", 10).get(0).getProductId());
+    }
+
+    @Test
+    void testUpdatesReuseNameSpaceInsteadOfGrowingArena() throws IOException {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 0));
+        long arenaBytes = Files.size(directory.resolve("names.arena"));
+
+        for (int i = 0; i < 100_000; i++) {
+            productRepository.update(buildProduct("p-1", i % 2 == 0 ? "Sampo Cap Budi" : "Sampo Cap Bambang", i));
+            productRepository.update(buildProduct("p-1", productRepository.findById("p-1").getProductName(), i + 1));
+        }
+
+        assertEquals(arenaBytes, Files.size(directory.resolve("names.arena")));
+        assertEquals("Sampo Cap Bambang", productRepository.findById("p-1").getProductName());
+    }
+
+    @Test
+    void testBatchOperationsAndListeners() {
+        AtomicInteger changes = new AtomicInteger();
+        productRepository.addListener((previous, current) -> changes.incrementAndGet());
+
+        productRepository.createAll(List.of(buildProduct("p-1", "A", 1), buildProduct("p-2", "B", 2)));
+        assertEquals(1, productRepository.updateAll(List.of(buildProduct("p-1", "A2", 5), buildProduct("x", "X", 0))));
+        assertEquals(2, productRepository.deleteAll(List.of("p-1", "p-2", "x")));
+
+        assertEquals(5, changes.get());
+        assertFalse(productRepository.findAll().hasNext());
+    }
+
+    @Test
+    void testReopenRestoresRowsAndIndex() throws IOException {
+        productRepository.create(buildProduct("p-1", "Sampo Cap Bambang", 100));
+        productRepository.create(buildProduct("p-2", "Sabun Cap Usep", 5));
+        productRepository.delete("p-1");
+        productRepository.close();
+
+        productRepository = new OffHeapProductRepository(directory, INITIAL_ROWS);
+        productRepository.create(buildProduct("p-3", "Sikat Gigi", 7));
+
+        assertNull(productRepository.findById("p-1"));
+        assertEquals("Sabun Cap Usep", productRepository.findById("p-2").getProductName());
+        Iterator<Product> products = productRepository.findAll();
+        assertEquals("p-2", products.next().getProductId());
+        assertEquals("p-3", products.next().getProductId());
+    }
+
+    @Test
+    void testReopenMovesLiveRowsOverDeletedOnesKeepingOrderAndVersions() throws IOException {
+        for (int i = 0; i < INITIAL_ROWS; i++) {
+            productRepository.create(buildProduct("p-" + i, "Product " + i, i));
+        }
+        productRepository.update(buildProduct("p-5", "Renamed", 50));
+        for (int i = 0; i < INITIAL_ROWS; i += 2) {
+            productRepository.delete("p-" + i);
+        }
+        productRepository.close();
+
+        productRepository = new OffHeapProductRepository(directory, INITIAL_ROWS);
+        productRepository.create(buildProduct("p-new", "Sikat Gigi", 7));
+
+        Page<Product> page = productRepository.findPage(null, INITIAL_ROWS);
+        assertEquals(INITIAL_ROWS / 2 + 1, page.getItems().size());
+        assertEquals("p-1", page.getItems().get(0).getProductId());
+        assertEquals("Renamed", page.getItems().get(2).getProductName());
+        assertEquals(2, page.getItems().get(2).getVersion());
+        assertEquals("p-new", page.getItems().get(INITIAL_ROWS / 2).getProductId());
+        assertEquals(1, productRepository.findById("p-new").getVersion());
+        assertEquals(1, productRepository.findByNamePrefix("renamed", 10).size());
+    }
+
+    @Test
+    void testConcurrentReadersNeverSeeHalfAppliedUpdate() throws Exception {
+        productRepository.create(buildProduct("p-1", "name-0", 0));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger tornReads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < 2; writer++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        int version = i % 1_000;
+                        productRepository.update(buildProduct("p-1", "name-" + version, version));
+                        productRepository.create(buildProduct(Thread.currentThread().getName() + "-" + i, "x", i));
+                    }
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 4; reader++) {
+                readers.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        Product product = productRepository.findById("p-1");
+                        if (!product.getProductName().equals("name-" + product.getProductQuantity())) {
+                            tornReads.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : writers) {
+                future.get();
+            }
+            writing.set(false);
+            for (Future<?> future : readers) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, tornReads.get());
+        assertEquals(40_001, countAll());
+    }
+
+    private int countAll() {
+        int count = 0;
+        for (Iterator<Product> products = productRepository.findAll(); products.hasNext(); products.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    private Product buildProduct(String id, String name, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+}
@@ -1,7 +1,14 @@
 package id.ac.ui.cs.advprog.eshop.repository;
 
+import id.ac.ui.cs.advprog.eshop.model.Page;
 import id.ac.ui.cs.advprog.eshop.model.Product;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -170,6 +177,50 @@ class ProductRepositoryTest {
         assertEquals(OTHER_PRODUCT_QUANTITY, savedProduct.getProductQuantity());
     }
 
+    @Test
+    void testUpdateWithCurrentVersionBumpsVersion() {
+        Product created = createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        assertEquals(1, created.getVersion());
+        Product updated = buildProduct(PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY);
+        updated.setVersion(1);
+
+        assertTrue(productRepository.update(updated));
+
+        assertEquals(2, productRepository.findById(PRODUCT_ID).getVersion());
+    }
+
+    @Test
+    void testUpdateWithStaleVersionThrowsConflictAndKeepsRecord() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        Product first = buildProduct(PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY);
+        first.setVersion(1);
+        productRepository.update(first);
+        Product stale = buildProduct(PRODUCT_ID, "Stale", 1);
+        stale.setVersion(1);
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> productRepository.update(stale));
+
+        assertEquals(1, conflict.getExpectedVersion());
+        assertEquals(2, conflict.getActualVersion());
+        assertEquals(OTHER_PRODUCT_NAME, productRepository.findById(PRODUCT_ID).getProductName());
+    }
+
+    @Test
+    void testUpdateAllSkipsStaleVersions() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        createAndSaveProduct(OTHER_PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY);
+        Product current = buildProduct(PRODUCT_ID, "Fresh", 1);
+        current.setVersion(1);
+        Product stale = buildProduct(OTHER_PRODUCT_ID, "Stale", 1);
+        stale.setVersion(5);
+
+        assertEquals(1, productRepository.updateAll(List.of(current, stale)));
+
+        assertEquals("Fresh", productRepository.findById(PRODUCT_ID).getProductName());
+        assertEquals(OTHER_PRODUCT_NAME, productRepository.findById(OTHER_PRODUCT_ID).getProductName());
+    }
+
     @Test
     void testUpdateReturnsFalseForNullProduct() {
         boolean updatedResult = productRepository.update(null);
@@ -218,6 +269,194 @@ class ProductRepositoryTest {
         assertEquals(PRODUCT_QUANTITY, existing.getProductQuantity());
     }
 
+    @Test
+    void testFindAllKeepsInsertionOrderAfterUpdateAndDelete() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        createAndSaveProduct(OTHER_PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY);
+        createAndSaveProduct("third-id", PRODUCT_NAME, PRODUCT_QUANTITY);
+
+        productRepository.update(buildProduct(PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY));
+        productRepository.delete(OTHER_PRODUCT_ID);
+
+        Iterator<Product> productIterator = productRepository.findAll();
+        assertEquals(PRODUCT_ID, productIterator.next().getProductId());
+        assertEquals("third-id", productIterator.next().getProductId());
+        assertFalse(productIterator.hasNext());
+    }
+
+    @Test
+    void testFindPageWalksCatalogWithKeysetCursor() {
+        for (int i = 0; i < 5; i++) {
+            createAndSaveProduct("id-" + i, PRODUCT_NAME, i);
+        }
+
+        Page<Product> first = productRepository.findPage(null, 2);
+        assertEquals(List.of("id-0", "id-1"), first.getItems().stream().map(Product::getProductId).toList());
+        assertTrue(first.hasNext());
+
+        productRepository.delete("id-0");
+        productRepository.delete("id-2");
+        Page<Product> second = productRepository.findPage(first.getNextCursor(), 2);
+        assertEquals(List.of("id-3", "id-4"), second.getItems().stream().map(Product::getProductId).toList());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testFindPageTreatsInvalidCursorAsFirstPage() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+
+        Page<Product> page = productRepository.findPage("not-a-cursor", 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testFindByNamePrefixFollowsCreateUpdateAndDelete() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        createAndSaveProduct(OTHER_PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY);
+
+        assertEquals(2, productRepository.findByNamePrefix("sampo", 10).size());
+        assertEquals(1, productRepository.findByNamePrefix("Sampo Cap B", 10).size());
+        assertEquals(1, productRepository.findByNamePrefix("sampo", 1).size());
+
+        productRepository.update(buildProduct(PRODUCT_ID, "Kopi Kapal Api", PRODUCT_QUANTITY));
+        assertTrue(productRepository.findByNamePrefix("Sampo Cap B", 10).isEmpty());
+        assertEquals(PRODUCT_ID, productRepository.findByNamePrefix("kopi", 10).get(0).getProductId());
+
+        productRepository.delete(OTHER_PRODUCT_ID);
+        assertTrue(productRepository.findByNamePrefix("sampo", 10).isEmpty());
+    }
+
+    @Test
+    void testBatchOperationsApplyWholeBatch() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+
+        List<Product> created = productRepository.createAll(List.of(
+                buildProduct(null, OTHER_PRODUCT_NAME, 1),
+                buildProduct(OTHER_PRODUCT_ID, OTHER_PRODUCT_NAME, 2)));
+        assertEquals(2, created.size());
+        assertNotNull(created.get(0).getProductId());
+
+        Iterator<Product> productIterator = productRepository.findAll();
+        assertEquals(PRODUCT_ID, productIterator.next().getProductId());
+        assertEquals(created.get(0).getProductId(), productIterator.next().getProductId());
+        assertEquals(OTHER_PRODUCT_ID, productIterator.next().getProductId());
+
+        int updated = productRepository.updateAll(List.of(
+                buildProduct(PRODUCT_ID, "Renamed", 9),
+                buildProduct("missing", "Ghost", 0)));
+        assertEquals(1, updated);
+        assertEquals("Renamed", productRepository.findById(PRODUCT_ID).getProductName());
+
+        assertEquals(2, productRepository.deleteAll(Arrays.asList(PRODUCT_ID, OTHER_PRODUCT_ID, null, "missing")));
+        assertNull(productRepository.findById(PRODUCT_ID));
+    }
+
+    @Test
+    void testCreateRejectsTakenIdAndKeepsStoredProduct() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        productRepository.update(buildProduct(PRODUCT_ID, PRODUCT_NAME, 80));
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> productRepository.create(buildProduct(PRODUCT_ID, "Impostor", 1)));
+        List<Product> created = productRepository.createAll(List.of(
+                buildProduct(PRODUCT_ID, "Impostor", 1),
+                buildProduct(OTHER_PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY)));
+
+        assertEquals(2, conflict.getActualVersion());
+        assertEquals(List.of(OTHER_PRODUCT_ID), created.stream().map(Product::getProductId).toList());
+        Product stored = productRepository.findById(PRODUCT_ID);
+        assertEquals(PRODUCT_NAME, stored.getProductName());
+        assertEquals(2, stored.getVersion());
+    }
+
+    @Test
+    void testUpsertOverwritesKeepingGivenVersion() {
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        Product replicated = buildProduct(PRODUCT_ID, "Replicated", 5);
+        replicated.setVersion(7);
+
+        productRepository.upsert(replicated);
+
+        assertEquals("Replicated", productRepository.findById(PRODUCT_ID).getProductName());
+        assertEquals(7, productRepository.findById(PRODUCT_ID).getVersion());
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void testModificationsChangeTagOnEveryWrite() {
+        ModificationTracker modifications = productRepository.modifications();
+        String initialTag = modifications.catalogTag();
+
+        createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        String afterCreate = modifications.catalogTag();
+        productRepository.update(buildProduct(PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY));
+        productRepository.delete(PRODUCT_ID);
+        productRepository.delete(PRODUCT_ID);
+
+        assertNotEquals(initialTag, afterCreate);
+        assertEquals(3, modifications.changeCount());
+        assertNotEquals(modifications.entityTag(PRODUCT_ID, 1, 1), modifications.entityTag(PRODUCT_ID, 1, 2));
+    }
+
+    @Test
+    void testEntityTagChangesWhenIdIsDeletedAndCreatedAgain() {
+        ModificationTracker modifications = productRepository.modifications();
+        Product first = createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+        String firstTag = modifications.entityTag(PRODUCT_ID, first.getGeneration(), first.getVersion());
+        productRepository.update(buildProduct(PRODUCT_ID, OTHER_PRODUCT_NAME, OTHER_PRODUCT_QUANTITY));
+        Product updated = productRepository.findById(PRODUCT_ID);
+
+        productRepository.delete(PRODUCT_ID);
+        Product second = createAndSaveProduct(PRODUCT_ID, PRODUCT_NAME, PRODUCT_QUANTITY);
+
+        assertEquals(first.getGeneration(), updated.getGeneration());
+        assertEquals(first.getVersion(), second.getVersion());
+        assertNotEquals(firstTag, modifications.entityTag(PRODUCT_ID, second.getGeneration(), second.getVersion()));
+        assertNotEquals(modifications.entityTag(PRODUCT_ID, 1, 1), modifications.entityTag("other", 1, 1));
+    }
+
+    @Test
+    void testConcurrentWritesWhileIteratingDoNotFail() throws Exception {
+        int writers = 8;
+        int productsPerWriter = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                int writerId = writer;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < productsPerWriter; i++) {
+                        String id = writerId + "-" + i;
+                        productRepository.create(buildProduct(id, PRODUCT_NAME, i));
+                        if (i % 2 == 0) {
+                            productRepository.delete(id);
+                        }
+                    }
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                for (int round = 0; round < 50; round++) {
+                    productRepository.findAll().forEachRemaining(Product::getProductId);
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int remaining = 0;
+        for (Iterator<Product> it = productRepository.findAll(); it.hasNext(); it.next()) {
+            remaining++;
+        }
+        assertEquals(writers * productsPerWriter / 2, remaining);
+        assertNotNull(productRepository.findById("0-1"));
+        assertNull(productRepository.findById("0-0"));
+    }
+
     private Product createAndSaveProduct(String id, String name, int quantity) {
         Product product = buildProduct(id, name, quantity);
         productRepository.create(product);
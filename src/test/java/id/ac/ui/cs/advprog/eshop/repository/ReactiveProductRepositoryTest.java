@@ -0,0 +1,82 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class ReactiveProductRepositoryTest {
+    private ProductRepository productRepository;
+    private ReactiveProductRepository reactiveProductRepository;
+    private ReactiveCarRepository reactiveCarRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = new ProductRepository();
+        reactiveProductRepository = new ReactiveProductRepository();
+        ReflectionTestUtils.setField(reactiveProductRepository, "productRepository", productRepository);
+        reactiveCarRepository = new ReactiveCarRepository();
+        ReflectionTestUtils.setField(reactiveCarRepository, "carRepository", new CarRepository());
+    }
+
+    @Test
+    void findAllEmitsOnlyWhatIsRequested() {
+        for (int i = 0; i < 5; i++) {
+            productRepository.create(buildProduct("product-" + i, "Product " + i));
+        }
+
+        StepVerifier.create(reactiveProductRepository.findAll(), 2)
+                .expectNextMatches(product -> product.getProductId().equals("product-0"))
+                .expectNextMatches(product -> product.getProductId().equals("product-1"))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllIsLazyUntilSubscribed() {
+        Flux<Product> products = reactiveProductRepository.findAll();
+        productRepository.create(buildProduct("late", "Late"));
+
+        StepVerifier.create(products).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void findByIdIsEmptyForUnknownId() {
+        StepVerifier.create(reactiveProductRepository.findById("missing")).verifyComplete();
+    }
+
+    @Test
+    void writesEmitTheRepositoryResult() {
+        StepVerifier.create(reactiveProductRepository.create(buildProduct("p", "Tea")))
+                .expectNextMatches(product -> product.getProductName().equals("Tea"))
+                .verifyComplete();
+
+        Product renamed = buildProduct("p", "Coffee");
+        StepVerifier.create(reactiveProductRepository.update(renamed)).expectNext(true).verifyComplete();
+        StepVerifier.create(reactiveProductRepository.delete("p")).expectNext(true).verifyComplete();
+        StepVerifier.create(reactiveProductRepository.delete("p")).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void carUpdateOfUnknownIdIsEmpty() {
+        Car car = new Car();
+        car.setCarName("Civic");
+
+        StepVerifier.create(reactiveCarRepository.update("missing", car)).verifyComplete();
+    }
+
+    private static Product buildProduct(String id, String name) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(1);
+        return product;
+    }
+}
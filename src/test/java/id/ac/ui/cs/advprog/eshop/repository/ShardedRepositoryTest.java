@@ -0,0 +1,250 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Page;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedRepositoryTest {
+
+    @Test
+    void testRingKeepsExistingPointsWhenGrowing() {
+        ConsistentHashRing four = ConsistentHashRing.of(4, 256);
+        ConsistentHashRing five = ConsistentHashRing.of(5, 256);
+        int[] owned = new int[4];
+        int moved = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String id = "product-" + i;
+            owned[four.partitionOf(id)]++;
+            if (four.partitionOf(id) != five.partitionOf(id)) {
+                assertEquals(4, five.partitionOf(id));
+                moved++;
+            }
+        }
+        for (int count : owned) {
+            assertTrue(count > 4_000 && count < 6_000, "unbalanced partition: " + count);
+        }
+        assertTrue(moved > 3_000 && moved < 5_000, "moved " + moved);
+    }
+
+    @Test
+    void testRoutesWritesAndReadsToOwningPartition() {
+        List<ProductRepositoryPort> partitions = productPartitions(3);
+        ShardedProductRepository repository = new ShardedProductRepository(partitions, 64, new TimeOrderedIdGenerator());
+        for (int i = 0; i < 300; i++) {
+            repository.create(buildProduct("id-" + i, "Tea " + i, i));
+        }
+
+        assertEquals(300, repository.count());
+        for (ProductRepositoryPort partition : partitions) {
+            assertTrue(partition.count() > 0);
+        }
+        Product product = repository.findById("id-42");
+        assertEquals("Tea 42", product.getProductName());
+        Product renamed = buildProduct("id-42", "Green Tea", 1);
+        renamed.setVersion(product.getVersion());
+        assertTrue(repository.update(renamed));
+        assertEquals("Green Tea", repository.findById("id-42").getProductName());
+        renamed.setVersion(product.getVersion());
+        assertThrows(VersionConflictException.class, () -> repository.update(renamed));
+        assertThrows(VersionConflictException.class, () -> repository.create(buildProduct("id-41", "Copy", 1)));
+        List<Product> created = repository.createAll(List.of(buildProduct("id-40", "Copy", 1),
+                buildProduct("id-new", "Chai", 1)));
+        assertEquals("id-new", created.get(0).getProductId());
+        assertEquals(1, created.size());
+        assertEquals("Tea 40", repository.findById("id-40").getProductName());
+        assertTrue(repository.delete("id-42"));
+        assertNull(repository.findById("id-42"));
+        assertEquals(300, repository.count());
+    }
+
+    @Test
+    void testSearchMergesPartitionsInNameOrder() {
+        ShardedProductRepository repository = new ShardedProductRepository(productPartitions(4), 64,
+                new TimeOrderedIdGenerator());
+        repository.createAll(List.of(buildProduct("a", "Tea Darjeeling", 1), buildProduct("b", "Tea Assam", 1),
+                buildProduct("c", "Coffee", 1), buildProduct("d", "Tea Chai", 1), buildProduct("e", "Tea Earl", 1)));
+
+        List<Product> products = repository.findByNamePrefix("tea", 3);
+
+        assertEquals(List.of("Tea Assam", "Tea Chai", "Tea Darjeeling"),
+                products.stream().map(Product::getProductName).toList());
+    }
+
+    @Test
+    void testPagesWalkEveryPartitionOnce() {
+        ShardedCarRepository repository = new ShardedCarRepository(carPartitions(3), 64, new TimeOrderedIdGenerator());
+        for (int i = 0; i < 95; i++) {
+            repository.create(buildCar("car-" + i, i % 2 == 0 ? "Red" : "Blue"));
+        }
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            Page<Car> page = repository.findPage(cursor, 10);
+            page.getItems().forEach(car -> assertTrue(seen.add(car.getCarId())));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(95, seen.size());
+        assertEquals(48, repository.findByColor("red", 100).size());
+        assertEquals(10, repository.findByColor("red", 10).size());
+    }
+
+    @Test
+    void testAddPartitionMovesDataWithoutNotifyingListeners() {
+        List<ProductRepositoryPort> partitions = productPartitions(2);
+        ShardedProductRepository repository = new ShardedProductRepository(partitions, 64, new TimeOrderedIdGenerator());
+        for (int i = 0; i < 1_000; i++) {
+            repository.create(buildProduct("id-" + i, "Tea", i));
+        }
+        List<String> changes = new ArrayList<>();
+        repository.addListener((previous, current) -> changes.add(current == null ? "delete" : "write"));
+        long feedPosition = repository.changes().nextSequence();
+
+        ProductRepository added = new ProductRepository();
+        repository.addPartition(added);
+
+        assertEquals(3, repository.partitionCount());
+        assertEquals(1_000, repository.count());
+        assertTrue(added.count() > 200 && added.count() < 500, "moved " + added.count());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, repository.findById("id-" + i).getProductQuantity());
+        }
+        assertTrue(changes.isEmpty());
+        assertEquals(feedPosition, repository.changes().nextSequence());
+        repository.update(buildProduct(added.findAll().next().getProductId(), "Chai", 7));
+        assertEquals(List.of("write"), changes);
+    }
+
+    @Test
+    void testWritesDuringRebalanceLandOnTheirOwner() throws Exception {
+        List<ProductRepositoryPort> partitions = productPartitions(3);
+        ShardedProductRepository repository = new ShardedProductRepository(partitions, 64, new TimeOrderedIdGenerator());
+        for (int i = 0; i < 20_000; i++) {
+            repository.create(buildProduct("id-" + i, "Tea", 0));
+        }
+        AtomicBoolean rebalanced = new AtomicBoolean();
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int writer = w;
+            results.add(writers.submit(() -> {
+                int missing = 0;
+                for (int i = writer; !rebalanced.get() || i < 20_000; i += 4) {
+                    String id = "id-" + (i % 20_000);
+                    Product current = repository.findById(id);
+                    if (current == null) {
+                        missing++;
+                        continue;
+                    }
+                    repository.update(buildProduct(id, "Tea", current.getProductQuantity() + 1));
+                }
+                return missing;
+            }));
+        }
+        ProductRepository added = new ProductRepository();
+        repository.addPartition(added);
+        rebalanced.set(true);
+        for (Future<Integer> result : results) {
+            assertEquals(0, (int) result.get());
+        }
+        writers.shutdown();
+
+        List<ProductRepositoryPort> all = new ArrayList<>(partitions);
+        all.add(added);
+        ConsistentHashRing ring = ConsistentHashRing.of(4, 64);
+        int stored = 0;
+        for (int p = 0; p < all.size(); p++) {
+            for (Iterator<Product> products = all.get(p).findAll(); products.hasNext(); ) {
+                assertEquals(p, ring.partitionOf(products.next().getProductId()));
+                stored++;
+            }
+        }
+        assertEquals(20_000, stored);
+    }
+
+    @Test
+    void testAfterWriteRunsOnceTheRoutingStripeIsReleased() throws Exception {
+        ShardedProductRepository repository = new ShardedProductRepository(productPartitions(2), 64,
+                new TimeOrderedIdGenerator());
+        repository.create(buildProduct("id-1", "Tea", 1));
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        AtomicInteger afterWrites = new AtomicInteger();
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onChange(Product previous, Product current) {
+            }
+
+            @Override
+            public void afterWrite() {
+                if (afterWrites.incrementAndGet() == 1) {
+                    Future<Boolean> sameStripe = other.submit(
+                            () -> repository.update(buildProduct("id-1", "Chai", 3)));
+                    try {
+                        assertTrue(sameStripe.get(5, TimeUnit.SECONDS));
+                    } catch (Exception e) {
+                        throw new AssertionError("write to the same id blocked behind afterWrite", e);
+                    }
+                }
+            }
+        });
+
+        try {
+            assertTrue(repository.update(buildProduct("id-1", "Tea", 2)));
+        } finally {
+            other.shutdownNow();
+        }
+
+        assertEquals(2, afterWrites.get());
+        assertEquals("Chai", repository.findById("id-1").getProductName());
+        assertFalse(repository.createsAppendToPages());
+    }
+
+    private static List<ProductRepositoryPort> productPartitions(int count) {
+        List<ProductRepositoryPort> partitions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ProductRepository());
+        }
+        return partitions;
+    }
+
+    private static List<CarRepositoryPort> carPartitions(int count) {
+        List<CarRepositoryPort> partitions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            partitions.add(new CarRepository());
+        }
+        return partitions;
+    }
+
+    private static Product buildProduct(String id, String name, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+
+    private static Car buildCar(String id, String color) {
+        Car car = new Car();
+        car.setCarId(id);
+        car.setCarName("Avanza");
+        car.setCarColor(color);
+        car.setCarQuantity(1);
+        return car;
+    }
+}
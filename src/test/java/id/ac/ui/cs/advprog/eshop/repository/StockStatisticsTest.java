@@ -0,0 +1,111 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.StockSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockStatisticsTest {
+
+    @Test
+    void testProductTotalsFollowCreateUpdateDelete() {
+        ProductRepository repository = new ProductRepository();
+        repository.create(buildProduct("a", 5));
+        repository.create(buildProduct("b", 0));
+        repository.create(buildProduct("c", 7));
+
+        repository.update(buildProduct("a", 0));
+        repository.delete("c");
+        repository.update(buildProduct("b", 3));
+
+        StockSummary summary = repository.statistics().summary();
+        assertEquals(2, summary.getItemCount());
+        assertEquals(3, summary.getTotalUnits());
+        assertEquals(1, summary.getOutOfStockCount());
+        assertTrue(summary.getCountByGroup().isEmpty());
+    }
+
+    @Test
+    void testCarCountsPerColorMoveWithRecolor() {
+        CarRepository repository = new CarRepository();
+        repository.create(buildCar("1", "Red", 2));
+        repository.create(buildCar("2", "red", 0));
+        repository.create(buildCar("3", "Blue", 4));
+
+        repository.update("1", buildCar(null, "Blue", 2));
+        repository.delete("2");
+
+        StockSummary summary = repository.statistics().summary();
+        assertEquals(Map.of("blue", 2L), summary.getCountByGroup());
+        assertEquals(6, summary.getTotalUnits());
+        assertEquals(0, summary.getOutOfStockCount());
+    }
+
+    @Test
+    void testConcurrentWritesMatchRecount() throws Exception {
+        CarRepository repository = new CarRepository();
+        String[] colors = {"Red", "Blue", "Green", "Black"};
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            results.add(writers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    String id = "car-" + random.nextInt(500);
+                    Car car = buildCar(id, colors[random.nextInt(colors.length)], random.nextInt(3));
+                    switch (random.nextInt(3)) {
+                        case 0 -> repository.upsert(car);
+                        case 1 -> repository.update(id, car);
+                        default -> repository.delete(id);
+                    }
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        writers.shutdown();
+
+        long units = 0;
+        long outOfStock = 0;
+        for (Iterator<Car> cars = repository.findAll(); cars.hasNext(); ) {
+            Car car = cars.next();
+            units += car.getCarQuantity();
+            outOfStock += car.getCarQuantity() == 0 ? 1 : 0;
+        }
+        StockSummary summary = repository.statistics().summary();
+        assertEquals(repository.count(), summary.getItemCount());
+        assertEquals(units, summary.getTotalUnits());
+        assertEquals(outOfStock, summary.getOutOfStockCount());
+        assertEquals(repository.count(), summary.getCountByGroup().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals((long) repository.findByColor("green", 1_000).size(), (long) summary.getCountByGroup().getOrDefault("green", 0L));
+    }
+
+    private static Product buildProduct(String id, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Tea");
+        product.setProductQuantity(quantity);
+        return product;
+    }
+
+    private static Car buildCar(String id, String color, int quantity) {
+        Car car = new Car();
+        car.setCarId(id);
+        car.setCarName("Avanza");
+        car.setCarColor(color);
+        car.setCarQuantity(quantity);
+        return car;
+    }
+}
@@ -0,0 +1,83 @@
+package id.ac.ui.cs.advprog.eshop.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdGeneratorTest {
+    @Test
+    void testIdsAreCrockfordBase32OfFixedLength() {
+        String id = new TimeOrderedIdGenerator().nextId();
+
+        assertEquals(TimeOrderedIdGenerator.ID_LENGTH, id.length());
+        assertTrue(id.matches("[0-7][0-9A-HJKMNP-TV-Z]{25}"), id);
+    }
+
+    @Test
+    void testFormatEncodesBothHalves() {
+        assertEquals("00000000000000000000000000", TimeOrderedIdGenerator.format(0, 0));
+        assertEquals("0000000000000000000000000Z", TimeOrderedIdGenerator.format(0, 31));
+        assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", TimeOrderedIdGenerator.format(-1, -1));
+        assertEquals("0000000000000G000000000000", TimeOrderedIdGenerator.format(1, 0));
+    }
+
+    @Test
+    void testIdsFromOneThreadIncreaseWhenClockStallsOrStepsBack() {
+        AtomicLong clock = new AtomicLong(1_000);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            if (i == 50_000) {
+                clock.set(500);
+            }
+            String next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, previous + " then " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testIdsFollowClock() {
+        AtomicLong clock = new AtomicLong(1_000);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+
+        String earlier = generator.nextId();
+        clock.set(1_001);
+
+        assertTrue(generator.nextId().compareTo(earlier) > 0);
+    }
+
+    @Test
+    void testConcurrentThreadsNeverCollide() throws Exception {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> 42L);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+}
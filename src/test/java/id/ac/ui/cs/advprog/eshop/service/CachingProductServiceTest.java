@@ -0,0 +1,90 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingProductServiceTest {
+    private static final String ID_ONE = "id-1";
+    private static final String ID_TWO = "id-2";
+
+    private ProductService delegate;
+    private CachingProductService cachingService;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(ProductService.class);
+        cachingService = new CachingProductService(delegate,
+                Caffeine.newBuilder().maximumSize(1).executor(Runnable::run).recordStats().build());
+    }
+
+    @Test
+    void findByIdLoadsOnceThenServesFromCache() {
+        Product product = buildProduct(ID_ONE, "Tea");
+        Mockito.when(delegate.findById(ID_ONE)).thenReturn(product);
+
+        assertSame(product, cachingService.findById(ID_ONE));
+        assertSame(product, cachingService.findById(ID_ONE));
+
+        Mockito.verify(delegate, Mockito.times(1)).findById(ID_ONE);
+        assertEquals(1, cachingService.stats().hitCount());
+        assertEquals(1, cachingService.stats().missCount());
+    }
+
+    @Test
+    void repositoryChangeInvalidatesCachedEntry() {
+        Product product = buildProduct(ID_ONE, "Tea");
+        Mockito.when(delegate.findById(ID_ONE)).thenReturn(product);
+        cachingService.findById(ID_ONE);
+
+        cachingService.onChange(product, buildProduct(ID_ONE, "Green Tea"));
+        cachingService.findById(ID_ONE);
+
+        Mockito.verify(delegate, Mockito.times(2)).findById(ID_ONE);
+    }
+
+    @Test
+    void boundedSizeEvictsEntries() {
+        Mockito.when(delegate.findById(ID_ONE)).thenReturn(buildProduct(ID_ONE, "Tea"));
+        Mockito.when(delegate.findById(ID_TWO)).thenReturn(buildProduct(ID_TWO, "Coffee"));
+
+        cachingService.findById(ID_ONE);
+        cachingService.findById(ID_TWO);
+
+        assertEquals(1, cachingService.estimatedSize());
+        assertEquals(1, cachingService.stats().evictionCount());
+    }
+
+    @Test
+    void missingAndNullIdsAreNotCached() {
+        assertNull(cachingService.findById("missing"));
+        assertNull(cachingService.findById(null));
+
+        assertEquals(0, cachingService.estimatedSize());
+    }
+
+    @Test
+    void writesAndSearchesDelegate() {
+        Product product = buildProduct(ID_ONE, "Tea");
+        Mockito.when(delegate.update(product)).thenReturn(true);
+        Mockito.when(delegate.searchByName("te", 5)).thenReturn(List.of(product));
+
+        assertTrue(cachingService.update(product));
+        assertEquals(List.of(product), cachingService.searchByName("te", 5));
+        Mockito.verify(delegate).update(product);
+    }
+
+    private Product buildProduct(String id, String name) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(1);
+        return product;
+    }
+}
@@ -0,0 +1,160 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.SearchHit;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = new ProductRepository();
+        productRepository.create(buildProduct("id-1", "Black Coffee Beans", 10));
+        index = new ProductSearchIndex(productRepository);
+        productRepository.create(buildProduct("id-2", "Green Tea", 5));
+        productRepository.create(buildProduct("id-3", "Coffee Mug, Black", 3));
+        productRepository.create(buildProduct("id-4", "Crème Brûlée Coffee", 7));
+        productRepository.create(buildProduct("id-5", "Coffee", 1));
+    }
+
+    @Test
+    void testIndexesExistingAndNewProducts() {
+        assertEquals(5, index.size());
+        assertEquals(List.of("id-1"), ids(index.search("beans", 10)));
+        assertEquals(List.of("id-2"), ids(index.search("tea", 10)));
+    }
+
+    @Test
+    void testHitsMatchingMoreWordsRankFirst() {
+        List<SearchHit<Product>> hits = index.search("black coffee", 10);
+
+        assertEquals(List.of("id-1", "id-3", "id-5", "id-4"), ids(hits));
+        assertEquals(2, hits.get(0).getMatchedTerms());
+        assertEquals(2, hits.get(1).getMatchedTerms());
+        assertEquals(1, hits.get(2).getMatchedTerms());
+        assertEquals("id-5", hits.get(2).getItem().getProductId());
+    }
+
+    @Test
+    void testInitialLoadNeitherOverwritesNewerWritesNorRestoresDeletes() {
+        productRepository.create(buildProduct("id-9", "Ghost Lamp", 1));
+        List<Product> staleSnapshot = List.of(buildProduct("id-1", "Stale Teapot", 10),
+                buildProduct("id-9", "Ghost Lamp", 1));
+        productRepository.delete("id-9");
+
+        index.indexAll(staleSnapshot.stream());
+
+        assertEquals(5, index.size());
+        assertTrue(index.search("teapot", 10).isEmpty());
+        assertTrue(index.search("ghost", 10).isEmpty());
+        assertEquals(List.of("id-1"), ids(index.search("beans", 10)));
+    }
+
+    @Test
+    void testToleratesUpToTwoTyposInLongWords() {
+        assertEquals(List.of("id-2"), ids(index.search("gren", 10)));
+        assertEquals(List.of("id-1"), ids(index.search("beens", 10)));
+        assertTrue(ids(index.search("cofeee", 10)).contains("id-5"));
+        assertTrue(ids(index.search("cofefe", 10)).contains("id-5"));
+        assertTrue(index.search("kofeeee", 10).isEmpty());
+        assertTrue(index.search("te", 10).isEmpty());
+    }
+
+    @Test
+    void testExactMatchOutranksTypoMatch() {
+        productRepository.create(buildProduct("id-6", "Greek Yogurt", 2));
+
+        List<SearchHit<Product>> hits = index.search("green", 10);
+
+        assertEquals("id-2", hits.get(0).getItem().getProductId());
+        assertEquals("id-6", hits.get(1).getItem().getProductId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testLastWordMatchesAsPrefix() {
+        assertEquals(List.of("id-1"), ids(index.search("coffee bea", 10)).subList(0, 1));
+        assertTrue(index.search("bea coffee", 10).stream().allMatch(hit -> hit.getMatchedTerms() == 1));
+    }
+
+    @Test
+    void testFoldsCaseAndAccents() {
+        assertEquals(List.of("id-4"), ids(index.search("CREME brulee", 10)).subList(0, 1));
+    }
+
+    @Test
+    void testUpdatesAndDeletesReindex() {
+        Product renamed = buildProduct("id-2", "Jasmine Tea", 5);
+        productRepository.update(renamed);
+        productRepository.delete("id-5");
+
+        assertTrue(index.search("green", 10).isEmpty());
+        assertEquals(List.of("id-2"), ids(index.search("jasmine", 10)));
+        assertFalse(ids(index.search("coffee", 10)).contains("id-5"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testHitsCarryCurrentStockWithoutReindexing() {
+        productRepository.update(buildProduct("id-2", "Green Tea", 42));
+
+        assertEquals(42, index.search("tea", 1).get(0).getItem().getProductQuantity());
+    }
+
+    @Test
+    void testLimitKeepsBestHits() {
+        List<SearchHit<Product>> hits = index.search("black coffee", 2);
+
+        assertEquals(2, hits.size());
+        assertEquals(2, hits.get(1).getMatchedTerms());
+        assertTrue(index.search("coffee", 0).isEmpty());
+        assertTrue(index.search("  ,, ", 10).isEmpty());
+    }
+
+    @Test
+    void testTopHitsMatchTheFullRanking() {
+        String[] words = {"red", "blue", "green", "kettle", "kettles", "ketle", "mug", "teapot", "steel", "black"};
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder name = new StringBuilder(words[random.nextInt(words.length)]);
+            for (int extra = random.nextInt(4); extra > 0; extra--) {
+                name.append(' ').append(words[random.nextInt(words.length)]);
+            }
+            productRepository.create(buildProduct("bulk-" + i, name.toString(), 1));
+        }
+
+        for (String query : List.of("kettle", "ketle red", "blue stee", "green mug black", "teapot zzz", "kettles")) {
+            List<String> all = ids(index.search(query, 10_000));
+            assertEquals(all.subList(0, Math.min(10, all.size())), ids(index.search(query, 10)), query);
+        }
+    }
+
+    @Test
+    void testEditDistanceStopsPastTheBound() {
+        assertEquals(1, SearchIndex.editDistance("coffee", "cofee", 2));
+        assertEquals(2, SearchIndex.editDistance("coffee", "kofee", 2));
+        assertEquals(3, SearchIndex.editDistance("coffee", "tea", 2));
+        assertEquals(List.of("cafe", "creme", "2"), SearchIndex.analyze("Café, crème 2 café"));
+    }
+
+    private static List<String> ids(List<SearchHit<Product>> hits) {
+        return hits.stream().map(hit -> hit.getItem().getProductId()).toList();
+    }
+
+    private static Product buildProduct(String id, String name, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+}
@@ -1,5 +1,6 @@
 package id.ac.ui.cs.advprog.eshop.service;
 
+import id.ac.ui.cs.advprog.eshop.model.Page;
 import id.ac.ui.cs.advprog.eshop.model.Product;
 import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,6 +67,33 @@ class ProductServiceImplTest {
         Mockito.verify(productRepository).findAll();
     }
 
+    @Test
+    void findPageDelegatesToRepository() {
+        Page<Product> page = new Page<>(List.of(buildProduct(ID_ONE, TEA, 5)), "1");
+        Mockito.when(productRepository.findPage("0", 1)).thenReturn(page);
+
+        Page<Product> found = productService.findPage("0", 1);
+
+        assertSame(page, found);
+        Mockito.verify(productRepository).findPage("0", 1);
+    }
+
+    @Test
+    void iterateAllReturnsRepositoryIteratorWithoutCopying() {
+        Iterator<Product> iterator = List.of(buildProduct(ID_ONE, TEA, 5)).iterator();
+        Mockito.when(productRepository.findAll()).thenReturn(iterator);
+
+        assertSame(iterator, productService.iterateAll());
+    }
+
+    @Test
+    void searchByNameDelegatesToRepositoryIndex() {
+        List<Product> products = List.of(buildProduct(ID_ONE, TEA, 5));
+        Mockito.when(productRepository.findByNamePrefix("t", 10)).thenReturn(products);
+
+        assertSame(products, productService.searchByName("t", 10));
+    }
+
     @Test
     void deleteReturnsTrueWhenRepositoryDeletesData() {
         Mockito.when(productRepository.delete(ID_ONE)).thenReturn(true);
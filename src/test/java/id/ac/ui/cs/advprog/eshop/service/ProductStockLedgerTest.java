@@ -0,0 +1,200 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.Reservation;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductStockLedgerTest {
+    private static final String PRODUCT_ID = "id-1";
+
+    private final SettableClock clock = new SettableClock();
+    private ProductRepository productRepository;
+    private ProductStockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = new ProductRepository();
+        ledger = new ProductStockLedger(productRepository, Duration.ofMinutes(1), clock);
+        productRepository.create(buildProduct(PRODUCT_ID, 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.close();
+    }
+
+    @Test
+    void testReserveHoldsUnitsWithoutTouchingStoredQuantity() {
+        Reservation reservation = ledger.reserve(PRODUCT_ID, 4);
+
+        assertNotNull(reservation);
+        assertEquals(PRODUCT_ID, reservation.getItemId());
+        assertEquals(6, ledger.available(PRODUCT_ID));
+        assertEquals(10, productRepository.findById(PRODUCT_ID).getProductQuantity());
+    }
+
+    @Test
+    void testReserveMoreThanAvailableReturnsNull() {
+        ledger.reserve(PRODUCT_ID, 8);
+
+        assertNull(ledger.reserve(PRODUCT_ID, 3));
+        assertNull(ledger.reserve("missing", 1));
+        assertEquals(2, ledger.available(PRODUCT_ID));
+    }
+
+    @Test
+    void testCommitWritesReducedQuantityOnce() {
+        Reservation reservation = ledger.reserve(PRODUCT_ID, 4);
+
+        assertTrue(ledger.commit(reservation.getReservationId()));
+        assertFalse(ledger.commit(reservation.getReservationId()));
+        assertFalse(ledger.release(reservation.getReservationId()));
+
+        assertEquals(6, productRepository.findById(PRODUCT_ID).getProductQuantity());
+        assertEquals(6, ledger.available(PRODUCT_ID));
+    }
+
+    @Test
+    void testReleaseReturnsUnits() {
+        Reservation reservation = ledger.reserve(PRODUCT_ID, 4);
+
+        assertTrue(ledger.release(reservation.getReservationId()));
+
+        assertEquals(10, ledger.available(PRODUCT_ID));
+        assertEquals(10, productRepository.findById(PRODUCT_ID).getProductQuantity());
+    }
+
+    @Test
+    void testQuantityEditMovesAvailableByDifference() {
+        Reservation reservation = ledger.reserve(PRODUCT_ID, 4);
+        Product restock = buildProduct(PRODUCT_ID, 25);
+        restock.setVersion(0);
+        productRepository.update(restock);
+
+        assertEquals(21, ledger.available(PRODUCT_ID));
+        assertTrue(ledger.commit(reservation.getReservationId()));
+        assertEquals(21, productRepository.findById(PRODUCT_ID).getProductQuantity());
+        assertEquals(21, ledger.available(PRODUCT_ID));
+    }
+
+    @Test
+    void testQuantityCutBelowReservationsBlocksFurtherReserves() {
+        ledger.reserve(PRODUCT_ID, 6);
+        productRepository.update(buildProduct(PRODUCT_ID, 2));
+
+        assertEquals(-4, ledger.available(PRODUCT_ID));
+        assertNull(ledger.reserve(PRODUCT_ID, 1));
+    }
+
+    @Test
+    void testExpiredHoldsReturnUnitsOnSweep() {
+        Reservation reservation = ledger.reserve(PRODUCT_ID, 4);
+        assertEquals(clock.instant().plus(Duration.ofMinutes(1)), reservation.getExpiresAt());
+
+        clock.advance(Duration.ofSeconds(59));
+        assertEquals(0, ledger.expireHolds());
+        assertEquals(6, ledger.available(PRODUCT_ID));
+
+        clock.advance(Duration.ofSeconds(1));
+        ledger.expireHolds();
+
+        assertEquals(10, ledger.available(PRODUCT_ID));
+        assertFalse(ledger.commit(reservation.getReservationId()));
+        assertEquals(10, productRepository.findById(PRODUCT_ID).getProductQuantity());
+    }
+
+    @Test
+    void testHoldExpiredBeforeSweepCannotBeCommitted() {
+        Reservation reservation = ledger.reserve(PRODUCT_ID, 4, Duration.ofSeconds(30));
+        Reservation longer = ledger.reserve(PRODUCT_ID, 3);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertFalse(ledger.commit(reservation.getReservationId()));
+        assertFalse(ledger.release(reservation.getReservationId()));
+        assertEquals(7, ledger.available(PRODUCT_ID));
+        assertEquals(10, productRepository.findById(PRODUCT_ID).getProductQuantity());
+        assertTrue(ledger.commit(longer.getReservationId()));
+        assertEquals(7, productRepository.findById(PRODUCT_ID).getProductQuantity());
+        assertThrows(IllegalArgumentException.class, () -> ledger.reserve(PRODUCT_ID, 1, Duration.ZERO));
+    }
+
+    @Test
+    void testConcurrentReservesNeverOversell() throws Exception {
+        int stock = 5_000;
+        int threads = 8;
+        productRepository.update(buildProduct(PRODUCT_ID, stock));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int units = t % 2 + 1;
+            results.add(executor.submit(() -> {
+                start.await();
+                int reserved = 0;
+                while (ledger.reserve(PRODUCT_ID, units) != null) {
+                    reserved += units;
+                }
+                return reserved;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(stock, total);
+        assertEquals(0, ledger.available(PRODUCT_ID));
+    }
+
+    private Product buildProduct(String id, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Tea");
+        product.setProductQuantity(quantity);
+        return product;
+    }
+
+    private static final class SettableClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
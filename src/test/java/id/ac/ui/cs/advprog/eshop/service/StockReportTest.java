@@ -0,0 +1,91 @@
+package id.ac.ui.cs.advprog.eshop.service;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.model.StockReport;
+import id.ac.ui.cs.advprog.eshop.model.StockTotal;
+import id.ac.ui.cs.advprog.eshop.repository.CarRepository;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockReportTest {
+
+    @Test
+    void testProductReportMatchesSequentialTotals() {
+        ProductRepository repository = new ProductRepository();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            products.add(buildProduct("product-" + i, i % 20_000));
+        }
+        repository.createAll(products);
+
+        StockReport<Product> report = StockAggregate.report(repository.stream(), Product::getProductQuantity,
+                Product::getProductId, 0, 3);
+
+        assertEquals(50_000, report.getItemCount());
+        long expectedUnits = 0;
+        for (Product product : products) {
+            expectedUnits += product.getProductQuantity();
+        }
+        assertEquals(expectedUnits, report.getTotalUnits());
+        assertEquals(List.of(3L, 27L, 270L, 2_700L, 27_000L, 20_000L),
+                List.copyOf(report.getQuantityHistogram().values()));
+        assertEquals(List.of("product-0", "product-20000", "product-40000"),
+                report.getLowStock().stream().map(Product::getProductId).toList());
+        assertEquals(List.of("product-19999", "product-39999", "product-19998"),
+                report.getMostStocked().stream().map(Product::getProductId).toList());
+    }
+
+    @Test
+    void testLowStockOnlyListsItemsAtOrBelowThreshold() {
+        ProductRepository repository = new ProductRepository();
+        repository.create(buildProduct("a", 9));
+        repository.create(buildProduct("b", 2));
+        repository.create(buildProduct("c", 5));
+
+        StockReport<Product> report = StockAggregate.report(repository.stream(), Product::getProductQuantity,
+                Product::getProductId, 5, 10);
+
+        assertEquals(List.of("b", "c"), report.getLowStock().stream().map(Product::getProductId).toList());
+        assertEquals(List.of("a", "c", "b"), report.getMostStocked().stream().map(Product::getProductId).toList());
+    }
+
+    @Test
+    void testCarTotalsByColorIgnoreCase() {
+        CarRepository repository = new CarRepository();
+        repository.create(buildCar("1", "Red", 2));
+        repository.create(buildCar("2", "red ", 3));
+        repository.create(buildCar("3", "Blue", 4));
+
+        Map<String, StockTotal> totals = StockAggregate.totalsBy(repository.stream(), Car::getCarColor,
+                Car::getCarQuantity);
+
+        assertEquals(List.of("blue", "red"), List.copyOf(totals.keySet()));
+        assertEquals(2, totals.get("red").getItemCount());
+        assertEquals(5, totals.get("red").getTotalUnits());
+        assertEquals(4, totals.get("blue").getTotalUnits());
+    }
+
+    private static Product buildProduct(String id, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName("Product " + id);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+
+    private static Car buildCar(String id, String color, int quantity) {
+        Car car = new Car();
+        car.setCarId(id);
+        car.setCarName("Car " + id);
+        car.setCarColor(color);
+        car.setCarQuantity(quantity);
+        return car;
+    }
+}
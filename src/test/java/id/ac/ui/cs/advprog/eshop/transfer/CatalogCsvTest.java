@@ -0,0 +1,52 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCsvTest {
+    @Test
+    void readProductsMapsColumnsByHeader() {
+        List<Product> products = CatalogCsv.readProducts("productQuantity,productName\n5,Tea\n\n7,\"Coffee, Black\"\n");
+
+        assertEquals(2, products.size());
+        assertNull(products.get(0).getProductId());
+        assertEquals("Tea", products.get(0).getProductName());
+        assertEquals(5, products.get(0).getProductQuantity());
+        assertEquals("Coffee, Black", products.get(1).getProductName());
+    }
+
+    @Test
+    void readCarsKeepsOptionalId() {
+        List<Car> cars = CatalogCsv.readCars("carId,carName,carColor,carQuantity\r\ncar-1,Avanza,Silver,2");
+
+        assertEquals(1, cars.size());
+        assertEquals("car-1", cars.get(0).getCarId());
+        assertEquals("Silver", cars.get(0).getCarColor());
+        assertEquals(2, cars.get(0).getCarQuantity());
+    }
+
+    @Test
+    void readProductsReportsLineOfInvalidQuantity() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> CatalogCsv.readProducts("productName,productQuantity\nTea,1\nCoffee,many"));
+
+        assertTrue(error.getMessage().startsWith("Line 3"));
+    }
+
+    @Test
+    void parseLineHandlesEscapedQuotes() {
+        assertEquals(List.of("a \"b\"", "", "c"), CatalogCsv.parseLine("\"a \"\"b\"\"\",,c"));
+    }
+
+    @Test
+    void escapeQuotesOnlyWhenNeeded() {
+        assertEquals("Tea", CatalogCsv.escape("Tea"));
+        assertEquals("\"Tea, \"\"Green\"\"\"", CatalogCsv.escape("Tea, \"Green\""));
+        assertEquals("", CatalogCsv.escape(null));
+    }
+}
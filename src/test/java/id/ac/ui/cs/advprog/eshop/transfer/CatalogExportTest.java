@@ -0,0 +1,95 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogExportTest {
+    @Test
+    void csvExportCanBeReadBackByTheImporter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = CatalogExport.PRODUCTS.write(List.of(buildProduct("p-1", "Coffee, \"Black\"", 3),
+                buildProduct("p-2", "Tea", 0)).iterator(), CatalogFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals(2, rows);
+        assertTrue(csv.startsWith("productId,productName,productQuantity,version\n"));
+        List<Product> products = CatalogCsv.readProducts(csv);
+        assertEquals("Coffee, \"Black\"", products.get(0).getProductName());
+        assertEquals(3, products.get(0).getProductQuantity());
+        assertEquals("p-2", products.get(1).getProductId());
+    }
+
+    @Test
+    void ndjsonExportWritesOneEscapedObjectPerLine() throws IOException {
+        Car car = new Car();
+        car.setCarId("car-1");
+        car.setCarName("Line\nbreak \\ \"quoted\"");
+        car.setCarQuantity(2);
+        car.setVersion(4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CatalogExport.CARS.write(List.of(car).iterator(), CatalogFormat.NDJSON, out);
+
+        assertEquals("{\"carId\":\"car-1\",\"carName\":\"Line\\nbreak \\\\ \\\"quoted\\\"\",\"carColor\":null,"
+                + "\"carQuantity\":2,\"version\":4}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportStreamsRowsWithoutCollectingThem() throws IOException {
+        int total = 1_000_000;
+        Iterator<Product> rows = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < total;
+            }
+
+            @Override
+            public Product next() {
+                return buildProduct("p-" + next, "Product " + next, next++);
+            }
+        };
+        long[] written = new long[2];
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+                written[1] = Math.max(written[1], len);
+            }
+        };
+
+        assertEquals(total, CatalogExport.PRODUCTS.write(rows, CatalogFormat.NDJSON, counting));
+        assertTrue(written[0] > 50L * total);
+        assertTrue(written[1] <= 4 * CatalogExport.BUFFER_SIZE, "largest write " + written[1]);
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CatalogFormat.parse("xml"));
+        assertEquals(CatalogFormat.NDJSON, CatalogFormat.parse("NDJson"));
+    }
+
+    private static Product buildProduct(String id, String name, int quantity) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductQuantity(quantity);
+        return product;
+    }
+}
@@ -0,0 +1,242 @@
+package id.ac.ui.cs.advprog.eshop.transfer;
+
+import id.ac.ui.cs.advprog.eshop.model.Car;
+import id.ac.ui.cs.advprog.eshop.model.ImportReport;
+import id.ac.ui.cs.advprog.eshop.model.Product;
+import id.ac.ui.cs.advprog.eshop.repository.IdGenerator;
+import id.ac.ui.cs.advprog.eshop.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogImportTest {
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final IdGenerator idGenerator = () -> "generated-" + nextId.incrementAndGet();
+
+    @Test
+    void csvRowsReachTheSinkInInputOrderWithIdsAssigned() throws IOException {
+        int total = 25_000;
+        List<List<Product>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        ImportReport report = CatalogImport.PRODUCTS.run(stream(buildProductCsv(total)), CatalogFormat.CSV,
+                idGenerator, batch -> {
+                    batches.add(batch);
+                    return batch;
+                }, 4, 2);
+
+        assertEquals((long) total, report.getRowsRead());
+        assertEquals((long) total, report.getImported());
+        assertEquals(0L, report.getRejected());
+        List<Product> products = new ArrayList<>();
+        for (List<Product> batch : batches) {
+            assertTrue(batch.size() <= CatalogImport.BATCH_ROWS + CatalogImport.CHUNK_ROWS);
+            products.addAll(batch);
+        }
+        assertEquals(total, products.size());
+        for (int i = 0; i < total; i++) {
+            assertEquals("Product " + i, products.get(i).getProductName());
+            assertNotNull(products.get(i).getProductId());
+        }
+        assertEquals(total, nextId.get());
+    }
+
+    @Test
+    void badRowsAreReportedByLineNumberAndSkipped() throws IOException {
+        String csv = "productId,productName,productQuantity\n"
+                + "p-1,Coffee,3\n"
+                + "p-2,Tea,lots\n"
+                + "\n"
+                + "p-3,,4\n"
+                + "p-4,Milk,-1\n"
+                + "p-5,\"Sugar, brown\",2\n";
+        List<Product> imported = new ArrayList<>();
+
+        ImportReport report = CatalogImport.PRODUCTS.run(stream(csv), CatalogFormat.CSV, idGenerator,
+                collectInto(imported), 2, 1);
+
+        assertEquals(5L, report.getRowsRead());
+        assertEquals(2L, report.getImported());
+        assertEquals(3L, report.getRejected());
+        assertEquals(List.of("Line 3: Invalid quantity 'lots'", "Line 5: Missing product name",
+                "Line 6: Negative quantity -1"), report.getErrors());
+        assertEquals("p-1", imported.get(0).getProductId());
+        assertEquals("Sugar, brown", imported.get(1).getProductName());
+    }
+
+    @Test
+    void csvExportWithLineBreaksInFieldsCanBeImportedBack() throws IOException {
+        Product product = new Product();
+        product.setProductId("p-1");
+        product.setProductName("Line\nbreak, \"quoted\"\r\nand more");
+        product.setProductQuantity(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogExport.PRODUCTS.write(List.of(product).iterator(), CatalogFormat.CSV, out);
+        String csv = out.toString(StandardCharsets.UTF_8) + "p-2,Tea,lots\n";
+        List<Product> imported = new ArrayList<>();
+
+        ImportReport report = CatalogImport.PRODUCTS.run(stream(csv), CatalogFormat.CSV, idGenerator,
+                collectInto(imported), 1, 1);
+
+        assertEquals(2L, report.getRowsRead());
+        assertEquals(1L, report.getImported());
+        assertEquals(product.getProductName(), imported.get(0).getProductName());
+        assertEquals(3, imported.get(0).getProductQuantity());
+        assertEquals(List.of("Line 5: Invalid quantity 'lots'"), report.getErrors());
+        assertEquals(product.getProductName(), CatalogCsv.readProducts(csv.substring(0, csv.lastIndexOf("p-2")))
+                .get(0).getProductName());
+    }
+
+    @Test
+    void ndjsonExportCanBeImportedBack() throws IOException {
+        Car car = new Car();
+        car.setCarId("car-1");
+        car.setCarName("Line\nbreak \\ \"quoted\" é");
+        car.setCarColor("red");
+        car.setCarQuantity(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogExport.CARS.write(List.of(car).iterator(), CatalogFormat.NDJSON, out);
+        String ndjson = out.toString(StandardCharsets.UTF_8)
+                + "{\"carName\":\"Van\",\"carColor\":null,\"carQuantity\":1}\n"
+                + "{\"carName\":\"Bus\",\"carQuantity\":[1]}\n"
+                + "{\"carName\":\"Truck\"\n";
+        List<Car> imported = new ArrayList<>();
+
+        ImportReport report = CatalogImport.CARS.run(stream(ndjson), CatalogFormat.NDJSON, idGenerator,
+                collectInto(imported), 1, 1);
+
+        assertEquals(2L, report.getImported());
+        assertEquals(car.getCarName(), imported.get(0).getCarName());
+        assertEquals("red", imported.get(0).getCarColor());
+        assertEquals(2, imported.get(0).getCarQuantity());
+        assertEquals("generated-1", imported.get(1).getCarId());
+        assertNull(imported.get(1).getCarColor());
+        assertEquals(List.of("Line 3: Nested JSON values are not supported", "Line 4: Malformed JSON at column 19"),
+                report.getErrors());
+    }
+
+    @Test
+    void rowsWhoseIdIsTakenAreRejectedByLineNumber() throws IOException {
+        ProductRepository productRepository = new ProductRepository(idGenerator);
+        Product existing = new Product();
+        existing.setProductId("p-1");
+        existing.setProductName("Coffee");
+        productRepository.create(existing);
+        String csv = "productId,productName,productQuantity\n"
+                + "p-1,Tea,3\n"
+                + "p-2,Milk,2\n";
+
+        ImportReport report = CatalogImport.PRODUCTS.run(stream(csv), CatalogFormat.CSV, idGenerator,
+                productRepository::createAll, 1, 1);
+
+        assertEquals(1L, report.getImported());
+        assertEquals(1L, report.getRejected());
+        assertEquals(List.of("Line 2: product id p-1 is already taken"), report.getErrors());
+        assertEquals("Coffee", productRepository.findById("p-1").getProductName());
+        assertEquals(1, productRepository.findById("p-1").getVersion());
+    }
+
+    @Test
+    void slowSinkHoldsTheReaderBack() throws Exception {
+        byte[] csv = buildProductCsv(200_000).getBytes(StandardCharsets.UTF_8);
+        AtomicLong bytesRead = new AtomicLong();
+        InputStream counting = new FilterInputStream(new ByteArrayInputStream(csv)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                bytesRead.addAndGet(Math.max(n, 0));
+                return n;
+            }
+        };
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<ImportReport> report = caller.submit(() -> CatalogImport.PRODUCTS.run(counting, CatalogFormat.CSV,
+                    idGenerator, batch -> {
+                        inserting.countDown();
+                        awaitQuietly(release);
+                        return batch;
+                    }, 2, 2));
+
+            assertTrue(inserting.await(10, TimeUnit.SECONDS));
+            Thread.sleep(300);
+            long stalledAt = bytesRead.get();
+            assertTrue(stalledAt < csv.length / 4, "read " + stalledAt + " of " + csv.length);
+            release.countDown();
+            assertEquals(200_000L, report.get(30, TimeUnit.SECONDS).getImported());
+            assertEquals((long) csv.length, bytesRead.get());
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    void failingSinkStopsTheImport() {
+        byte[] csv = buildProductCsv(200_000).getBytes(StandardCharsets.UTF_8);
+        AtomicInteger inserts = new AtomicInteger();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> CatalogImport.PRODUCTS.run(
+                new ByteArrayInputStream(csv), CatalogFormat.CSV, idGenerator, batch -> {
+                    inserts.incrementAndGet();
+                    throw new IllegalStateException("repository unavailable");
+                }, 2, 2));
+
+        assertEquals("repository unavailable", e.getMessage());
+        assertEquals(1, inserts.get());
+    }
+
+    @Test
+    void formatFollowsFileNameAndContentType() {
+        assertEquals(CatalogFormat.NDJSON, CatalogFormat.ofFileName("cars.jsonl"));
+        assertEquals(CatalogFormat.CSV, CatalogFormat.ofFileName("Products.CSV"));
+        assertEquals(CatalogFormat.NDJSON, CatalogFormat.ofContentType("application/x-ndjson; charset=UTF-8"));
+        assertEquals(CatalogFormat.CSV, CatalogFormat.ofContentType(null));
+        assertThrows(IllegalArgumentException.class, () -> CatalogFormat.ofContentType("application/xml"));
+    }
+
+    private static <T> Function<List<T>, List<T>> collectInto(List<T> imported) {
+        return batch -> {
+            imported.addAll(batch);
+            return batch;
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String buildProductCsv(int rows) {
+        StringBuilder csv = new StringBuilder("productName,productQuantity\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Product ").append(i).append(',').append(i % 100).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}